@@ -0,0 +1,35 @@
+package dev.oasis.stockify.config;
+
+import dev.oasis.stockify.config.tenant.TenantContextTaskDecorator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables {@code @Async} on the auto-configured {@code applicationTaskExecutor}. Spring Boot applies the
+ * task decorator below to it, whether it is the thread pool or, with {@code spring.threads.virtual.enabled}
+ * on Java 21, the virtual-thread executor, so tasks run in the submitting request's tenant. Inject that
+ * executor for {@code CompletableFuture.supplyAsync(..., executor)} instead of using the common pool,
+ * which parallel streams also share and which never sees the tenant.
+ */
+@Slf4j
+@Configuration
+@EnableAsync
+public class AsyncConfig implements AsyncConfigurer {
+
+    @Bean
+    public TaskDecorator tenantContextTaskDecorator() {
+        return new TenantContextTaskDecorator();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) ->
+                log.error("❌ Async {}.{} failed: {}", method.getDeclaringClass().getSimpleName(), method.getName(),
+                        ex.getMessage(), ex);
+    }
+}
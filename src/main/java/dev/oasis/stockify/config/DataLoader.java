@@ -18,10 +18,7 @@ import dev.oasis.stockify.service.SubscriptionService;
 import dev.oasis.stockify.util.ServiceTenantUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.annotation.Order;
-import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -32,8 +29,7 @@ import java.util.Random;
 @Slf4j
 @Configuration  
 @RequiredArgsConstructor
-@Order(2)
-public class DataLoader implements CommandLineRunner {
+public class DataLoader {
 
     private final AppUserService appUserService;
     private final ProductService productService;
@@ -47,47 +43,18 @@ public class DataLoader implements CommandLineRunner {
     // List of tenant schemas to initialize
     private final List<String> TENANT_IDS = Arrays.asList("public", "com", "rezonans");
 
-    @Override
-    public void run(String... args) {
-        log.info("🚀 Starting PostgreSQL Multi-Tenant Data Loader...");
-        log.info("📋 Target tenants: {}", String.join(", ", TENANT_IDS));
-
-        try {
-            for (String tenantId : TENANT_IDS) {
-                log.info("🔄 Processing tenant: '{}'", tenantId);
-                initializeTenantData(tenantId);
-                log.info("✅ Completed tenant: '{}'", tenantId);
-            }
-
-            log.info("✅ Multi-Tenant Data Loader completed successfully!");
-            log.warn("⚠️ Remember to change default passwords in production!");
-            log.info("🔑 Default login credentials:");
-            log.info("   - admin_com / admin123");
-            log.info("   - manager_com / manager123"); 
-            log.info("   - operator_com / operator123");
-            log.info("   - admin_rezonans / admin123");
-            log.info("   - manager_rezonans / manager123");
-            log.info("   - operator_rezonans / operator123");
-
-        } catch (Exception e) {
-            log.error("❌ Error during data loading: {}", e.getMessage(), e);
-            throw new RuntimeException("Multi-tenant data loading failed", e);
-        } finally {
-            serviceTenantUtil.clearCurrentTenant();
-        }
+    public List<String> getTenantIds() {
+        return TENANT_IDS;
     }
 
-    @Transactional
-    private void initializeTenantData(String tenantId) {
+    /**
+     * Seed sample users, products, movements and notifications for a single tenant.
+     * The orchestrator has already filtered out tenants that are initialized.
+     */
+    public void initializeTenantData(String tenantId) {
         try {
             serviceTenantUtil.executeInTenant(tenantId, () -> {
 
-                // Check if already initialized
-                if (isAlreadyInitialized(tenantId)) {
-                    log.info("📋 Tenant '{}' already initialized, skipping", tenantId);
-                    return null;
-                }
-
                 // Create users (SuperAdmin only for public tenant)
                 if ("public".equals(tenantId)) {
                     createSuperAdmin();
@@ -110,6 +77,17 @@ public class DataLoader implements CommandLineRunner {
         }
     }
 
+    public void logDefaultCredentials() {
+        log.warn("⚠️ Remember to change default passwords in production!");
+        log.info("🔑 Default login credentials:");
+        log.info("   - admin_com / admin123");
+        log.info("   - manager_com / manager123"); 
+        log.info("   - operator_com / operator123");
+        log.info("   - admin_rezonans / admin123");
+        log.info("   - manager_rezonans / manager123");
+        log.info("   - operator_rezonans / operator123");
+    }
+
     private void setTenantPlan(String tenantId) {
         // Set default plan type to ENTERPRISE
         PlanType defaultPlan = PlanType.ENTERPRISE;
@@ -124,27 +102,6 @@ public class DataLoader implements CommandLineRunner {
         }
     }
 
-    private boolean isAlreadyInitialized(String tenantId) {
-        try {
-            return serviceTenantUtil.executeInTenant(tenantId, () -> {
-                long userCount = appUserRepository.count();
-                long productCount = productRepository.count();
-
-                // For public tenant, check for SuperAdmin
-                if ("public".equals(tenantId)) {
-                    boolean hasSuperAdmin = appUserRepository.findByUsername("superadmin").isPresent();
-                    return userCount > 0 && productCount > 0 && hasSuperAdmin;
-                }
-
-                return userCount > 0 && productCount > 0;
-            });
-
-        } catch (Exception e) {
-            log.debug("Could not check tenant '{}' initialization: {}", tenantId, e.getMessage());
-            return false;
-        }
-    }
-
     private void createSuperAdmin() {
         if (appUserRepository.findByUsername("superadmin").isPresent()) {
             return;
@@ -0,0 +1,12 @@
+package dev.oasis.stockify.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled maintenance jobs (partition management etc.)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
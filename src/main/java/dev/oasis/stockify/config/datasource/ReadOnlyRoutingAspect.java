@@ -0,0 +1,44 @@
+package dev.oasis.stockify.config.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+
+/**
+ * Marks {@code @Transactional(readOnly = true)} work for the replica. Runs outside the transaction interceptor,
+ * because Hibernate takes its connection while the transaction begins, before Spring exposes the read-only flag.
+ * Only beans of this application are matched; repositories called outside a service transaction use the primary.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ReadOnlyRoutingAspect {
+
+    @Around("within(dev.oasis.stockify..*) && (@annotation(org.springframework.transaction.annotation.Transactional) "
+            + "|| @within(org.springframework.transaction.annotation.Transactional))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        if (transactional == null) {
+            transactional = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), Transactional.class);
+        }
+        if (transactional == null) {
+            return joinPoint.proceed();
+        }
+
+        // innermost wins, so a read-write call nested in a read-only one gets the primary for new connections
+        Boolean previous = ReplicaRoutingContext.get();
+        ReplicaRoutingContext.set(transactional.readOnly());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingContext.set(previous);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package dev.oasis.stockify.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import dev.oasis.stockify.config.metrics.TenantMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+/**
+ * Read replica routing, on when {@code stockify.datasource.replica.url} is set. Replaces Spring Boot's pool with a
+ * {@link ReplicaRoutingDataSource} over a primary pool from {@code spring.datasource.*} (including the
+ * {@code spring.datasource.hikari.*} pool settings) and a read-only replica pool with a short connection timeout;
+ * the schema-per-tenant connection provider and raw JDBC services take their connections from it unchanged.
+ * Without the property the application runs on the single auto-configured pool as before.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "stockify.datasource.replica", name = "url")
+public class ReadReplicaConfig {
+
+    @Bean
+    public TenantWriteTracker tenantWriteTracker(@Value("${stockify.datasource.replica.read-your-writes-ms:5000}") long windowMs) {
+        return new TenantWriteTracker(windowMs);
+    }
+
+    @Bean
+    public ReadOnlyRoutingAspect readOnlyRoutingAspect() {
+        return new ReadOnlyRoutingAspect();
+    }
+
+    /**
+     * The primary pool, bound to {@code spring.datasource.hikari.*} like Spring Boot's own Hikari pool
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("stockify-primary");
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return primary;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                 DataSourceProperties properties,
+                                 @Value("${stockify.datasource.replica.url}") String replicaUrl,
+                                 @Value("${stockify.datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+                                 @Value("${stockify.datasource.replica.password:${spring.datasource.password:}}") String replicaPassword,
+                                 @Value("${stockify.datasource.replica.maximum-pool-size:10}") int replicaPoolSize,
+                                 @Value("${stockify.datasource.replica.connection-timeout-ms:1000}") long replicaConnectionTimeoutMs,
+                                 @Value("${stockify.datasource.replica.retry-after-ms:30000}") long replicaRetryAfterMs,
+                                 TenantWriteTracker tenantWriteTracker,
+                                 TenantMetrics tenantMetrics,
+                                 MeterRegistry meterRegistry) {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        replica.setPoolName("stockify-replica");
+        replica.setReadOnly(true);
+        replica.setMaximumPoolSize(replicaPoolSize);
+        // a replica that does not answer must fall back to the primary quickly, not after Hikari's default 30 s
+        replica.setConnectionTimeout(replicaConnectionTimeoutMs);
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        log.info("📚 Read replica routing enabled: read-only transactions go to {}", replicaUrl);
+        return new ReplicaRoutingDataSource(primary, replica, tenantWriteTracker, tenantMetrics, replicaRetryAfterMs);
+    }
+}
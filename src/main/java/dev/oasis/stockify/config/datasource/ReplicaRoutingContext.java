@@ -0,0 +1,26 @@
+package dev.oasis.stockify.config.datasource;
+
+/**
+ * Whether the work on the current thread may read from the replica; set by {@link ReadOnlyRoutingAspect}
+ * from the innermost {@code @Transactional}, unset everywhere else
+ */
+public class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> readOnly = new ThreadLocal<>();
+
+    public static boolean isReadOnly() {
+        return Boolean.TRUE.equals(readOnly.get());
+    }
+
+    public static Boolean get() {
+        return readOnly.get();
+    }
+
+    public static void set(Boolean value) {
+        if (value == null) {
+            readOnly.remove();
+        } else {
+            readOnly.set(value);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package dev.oasis.stockify.config.datasource;
+
+import dev.oasis.stockify.config.metrics.TenantMetrics;
+import dev.oasis.stockify.config.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Sends connections taken in read-only work ({@link ReplicaRoutingContext}) to the replica and everything else to
+ * the primary. A tenant that wrote within the read-your-writes window reads from the primary, and a replica that
+ * cannot hand out a connection falls back to the primary rather than failing the request. After such a failure
+ * the replica is skipped for {@code retryAfterMs}, so an outage costs one connection timeout per period instead
+ * of one per read.
+ * Routing decisions of read-only work are counted as {@code stockify.db.route} per tenant.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final TenantWriteTracker writeTracker;
+    private final TenantMetrics tenantMetrics;
+    private final long retryAfterMs;
+    private volatile long replicaDownUntil;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, TenantWriteTracker writeTracker,
+                                    TenantMetrics tenantMetrics, long retryAfterMs) {
+        this.primary = primary;
+        this.replica = replica;
+        this.writeTracker = writeTracker;
+        this.tenantMetrics = tenantMetrics;
+        this.retryAfterMs = retryAfterMs;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!ReplicaRoutingContext.isReadOnly()) {
+            return Target.PRIMARY;
+        }
+        String tenant = TenantContext.getCurrentTenant();
+        if (writeTracker.wroteRecently(tenant)) {
+            tenantMetrics.count("stockify.db.route", tenant, 1, "route", "recent-write");
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() != Target.REPLICA) {
+            return primary.getConnection();
+        }
+        String tenant = TenantContext.getCurrentTenant();
+        if (System.currentTimeMillis() < replicaDownUntil) {
+            tenantMetrics.count("stockify.db.route", tenant, 1, "route", "replica-down");
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            tenantMetrics.count("stockify.db.route", tenant, 1, "route", "replica");
+            return connection;
+        } catch (SQLException e) {
+            replicaDownUntil = System.currentTimeMillis() + retryAfterMs;
+            tenantMetrics.count("stockify.db.route", tenant, 1, "route", "fallback");
+            log.warn("⚠️ Replica unavailable, reading from primary for the next {} ms: {}", retryAfterMs, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : new DataSource[]{replica, primary}) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
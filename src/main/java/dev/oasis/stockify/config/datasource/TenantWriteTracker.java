@@ -0,0 +1,43 @@
+package dev.oasis.stockify.config.datasource;
+
+import dev.oasis.stockify.event.EntityChangedEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last committed write per tenant, for read-your-writes: while a tenant's write is younger than the window its
+ * reads stay on the primary, so replica lag never shows a tenant an older state than the one it just saved.
+ * Hibernate writes are seen through {@link EntityChangedEvent}; the raw JDBC writers (demand forecast, movement
+ * archive, stock snapshots) call {@link #markWrite} themselves when the tracker exists.
+ * Kept per node, which suits sticky sessions; other nodes fall back to plain replica lag.
+ */
+public class TenantWriteTracker {
+
+    private final long windowMs;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public TenantWriteTracker(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    public void markWrite(String tenantId) {
+        lastWrites.put(normalize(tenantId), System.currentTimeMillis());
+    }
+
+    public boolean wroteRecently(String tenantId) {
+        Long lastWrite = lastWrites.get(normalize(tenantId));
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < windowMs;
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        markWrite(event.getTenantId());
+    }
+
+    private String normalize(String tenantId) {
+        return tenantId != null ? tenantId.toLowerCase(Locale.ROOT) : "public";
+    }
+}
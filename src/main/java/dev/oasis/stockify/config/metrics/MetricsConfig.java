@@ -0,0 +1,25 @@
+package dev.oasis.stockify.config.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+
+/**
+ * Enables {@code @Timed} on service methods, with the current tenant added to every timer
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry, TenantMetrics tenantMetrics) {
+        Function<ProceedingJoinPoint, Iterable<Tag>> tenantTags =
+                joinPoint -> Tags.of("tenant", tenantMetrics.currentTenantTag());
+        return new TimedAspect(meterRegistry, tenantTags);
+    }
+}
@@ -0,0 +1,77 @@
+package dev.oasis.stockify.config.metrics;
+
+import dev.oasis.stockify.config.tenant.TenantContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Records the number of SQL statements each request ran as {@code stockify.sql.statements}, tagged by tenant.
+ * Requests over the statement budget, or repeating one statement shape more often than the repeat
+ * threshold (the usual N+1 signature), are logged with the repeated SQL and counted as
+ * {@code stockify.sql.budget.exceeded}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final TenantMetrics tenantMetrics;
+
+    @Value("${stockify.sql.statement-budget:100}")
+    private int statementBudget;
+
+    @Value("${stockify.sql.repeat-threshold:20}")
+    private int repeatThreshold;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                // the tenant filters run inside this one, so the context is set by now
+                record(request, TenantContext.getCurrentTenant(), scope);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, String tenantId, StatementCounter.Scope scope) {
+        tenantMetrics.summary("stockify.sql.statements", tenantId, scope.getCount());
+
+        Map.Entry<String, Integer> repeated = scope.mostRepeated();
+        boolean overBudget = scope.getCount() > statementBudget;
+        boolean overRepeated = repeated != null && repeated.getValue() > repeatThreshold;
+        if (!overBudget && !overRepeated) {
+            return;
+        }
+        tenantMetrics.count("stockify.sql.budget.exceeded", tenantId, 1, "reason", overBudget ? "budget" : "repeated");
+        log.warn("🐌 {} {} ran {} SQL statements (budget {}) for tenant {}; repeated {}x: {}",
+                request.getMethod(), request.getRequestURI(), scope.getCount(), statementBudget, tenantId,
+                repeated.getValue(), StatementCounter.Scope.describe(repeated.getKey(), 300));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path.startsWith("/css/") ||
+               path.startsWith("/js/") ||
+               path.startsWith("/images/") ||
+               path.startsWith("/actuator/") ||
+               path.equals("/favicon.ico");
+    }
+}
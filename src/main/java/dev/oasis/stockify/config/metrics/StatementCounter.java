@@ -0,0 +1,76 @@
+package dev.oasis.stockify.config.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, per statement shape, inside an open
+ * {@link Scope}. Incremented from the session factory's statement inspector, so plain JDBC work is not included.
+ * Scopes nest: a test can open one around a request that opens its own, and both see the statements.
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private StatementCounter() {
+    }
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static void increment(String sql) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.count++;
+            // Hibernate SQL is parameterized, so the text itself identifies the shape
+            scope.shapes.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Statements counted on this thread and the shape executed most often
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private final Map<String, Integer> shapes = new HashMap<>();
+        private int count;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public Map<String, Integer> getShapes() {
+            return shapes;
+        }
+
+        public Map.Entry<String, Integer> mostRepeated() {
+            return shapes.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .orElse(null);
+        }
+
+        /**
+         * SQL on one line, cut to {@code maxLength} characters, for logs and assertion messages
+         */
+        public static String describe(String sql, int maxLength) {
+            String oneLine = sql.replaceAll("\\s+", " ").trim();
+            return oneLine.length() > maxLength ? oneLine.substring(0, maxLength) + "..." : oneLine;
+        }
+
+        @Override
+        public void close() {
+            if (parent != null) {
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package dev.oasis.stockify.config.metrics;
+
+import dev.oasis.stockify.config.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-path meters tagged by tenant. Only the first {@code stockify.metrics.max-tenants} tenants seen get
+ * a tag of their own; the rest share {@value #OVERFLOW_TAG}, so the number of series stays bounded however
+ * many schemas are provisioned.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TenantMetrics {
+
+    public static final String OVERFLOW_TAG = "other";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${stockify.metrics.max-tenants:100}")
+    private int maxTenants;
+
+    private final Set<String> taggedTenants = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Tag value for a tenant: its schema name while under the limit, otherwise {@value #OVERFLOW_TAG}
+     */
+    public String tenantTag(String tenantId) {
+        String tenant = tenantId != null && !tenantId.isBlank() ? tenantId.toLowerCase(Locale.ROOT) : "public";
+        if (taggedTenants.contains(tenant)) {
+            return tenant;
+        }
+        synchronized (taggedTenants) {
+            if (taggedTenants.size() < maxTenants) {
+                taggedTenants.add(tenant);
+                return tenant;
+            }
+        }
+        log.debug("📏 Tenant metric tag limit of {} reached, {} reported as '{}'", maxTenants, tenant, OVERFLOW_TAG);
+        return OVERFLOW_TAG;
+    }
+
+    public String currentTenantTag() {
+        return tenantTag(TenantContext.getCurrentTenant());
+    }
+
+    public void recordNanos(String name, String tenantId, long nanos, String... tags) {
+        Timer.builder(name)
+                .tag("tenant", tenantTag(tenantId))
+                .tags(tags)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void count(String name, String tenantId, long amount, String... tags) {
+        Counter.builder(name)
+                .tag("tenant", tenantTag(tenantId))
+                .tags(tags)
+                .register(meterRegistry)
+                .increment(amount);
+    }
+
+    public void summary(String name, String tenantId, double amount) {
+        DistributionSummary.builder(name)
+                .tag("tenant", tenantTag(tenantId))
+                .register(meterRegistry)
+                .record(amount);
+    }
+
+    /**
+     * Hit or miss of an application cache; the hit ratio is hits over all requests per cache and tenant
+     */
+    public void cacheAccess(String cache, String tenantId, boolean hit) {
+        count("stockify.cache.requests", tenantId, 1, "cache", cache, "result", hit ? "hit" : "miss");
+    }
+}
@@ -0,0 +1,170 @@
+package dev.oasis.stockify.config.startup;
+
+import dev.oasis.stockify.config.DataLoader;
+import dev.oasis.stockify.service.CategoryKeyMigrationService;
+import dev.oasis.stockify.service.DatabaseInitializationService;
+import dev.oasis.stockify.service.DemandForecastService;
+import dev.oasis.stockify.service.MovementArchiveService;
+import dev.oasis.stockify.service.SequenceMigrationService;
+import dev.oasis.stockify.service.StockMovementPartitionService;
+import dev.oasis.stockify.service.StockSnapshotService;
+import dev.oasis.stockify.service.TenantIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs database and sample data initialization at startup.
+ * Schemas are created first, tables are created per schema in parallel, readiness is verified
+ * with a single query, id sequences, stock_movement partitions, indexes and archive tables are brought
+ * up to date in every tenant schema and then each tenant that is not yet initialized is seeded in parallel.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@Order(1)
+public class StartupOrchestrator implements CommandLineRunner {
+
+    private final DatabaseInitializationService databaseInitializationService;
+    private final DataLoader dataLoader;
+    private final SequenceMigrationService sequenceMigrationService;
+    private final CategoryKeyMigrationService categoryKeyMigrationService;
+    private final StockMovementPartitionService stockMovementPartitionService;
+    private final TenantIndexService tenantIndexService;
+    private final MovementArchiveService movementArchiveService;
+    private final StockSnapshotService stockSnapshotService;
+    private final DemandForecastService demandForecastService;
+    private final StartupPhaseRecorder startupPhaseRecorder;
+
+    @Value("${stockify.startup.parallelism:4}")
+    private int parallelism;
+
+    @Value("${stockify.startup.tenant-timeout-seconds:120}")
+    private long tenantTimeoutSeconds;
+
+    @Override
+    public void run(String... args) {
+        List<String> tenants = databaseInitializationService.getTenantSchemas();
+        log.info("🚀 Starting parallel startup initialization for tenants: {}", String.join(", ", tenants));
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(parallelism, tenants.size())), startupThreadFactory());
+        try {
+            startupPhaseRecorder.record("schemas", null, databaseInitializationService::createSchemas);
+
+            startupPhaseRecorder.record("tables", null, () -> runPerTenant(executor, tenants, tenant ->
+                    startupPhaseRecorder.record("tables", tenant,
+                            () -> databaseInitializationService.createTablesInSchema(tenant))));
+
+            startupPhaseRecorder.record("readiness", null, databaseInitializationService::verifyTablesReady);
+
+            List<String> provisioned = databaseInitializationService.findProvisionedSchemas();
+            startupPhaseRecorder.record("sequences", null, () -> runPerTenant(executor, provisioned,
+                    sequenceMigrationService::migrateSchema));
+            startupPhaseRecorder.record("category-keys", null, () -> runPerTenant(executor, provisioned,
+                    categoryKeyMigrationService::migrateSchema));
+            startupPhaseRecorder.record("partitions", null, () -> runPerTenant(executor, provisioned,
+                    stockMovementPartitionService::ensurePartitioned));
+            startupPhaseRecorder.record("indexes", null, () -> runPerTenant(executor, provisioned,
+                    tenantIndexService::ensureIndexes));
+            startupPhaseRecorder.record("archive-tables", null, () -> runPerTenant(executor, provisioned,
+                    movementArchiveService::ensureArchiveTables));
+            startupPhaseRecorder.record("snapshot-tables", null, () -> runPerTenant(executor, provisioned,
+                    stockSnapshotService::ensureSnapshotTable));
+            startupPhaseRecorder.record("forecast-tables", null, () -> runPerTenant(executor, provisioned,
+                    demandForecastService::ensureForecastTable));
+
+            Set<String> initialized = startupPhaseRecorder.record("initialization-check", null,
+                    () -> databaseInitializationService.findInitializedTenants(tenants));
+
+            List<String> pending = new ArrayList<>();
+            for (String tenant : tenants) {
+                if (initialized.contains(tenant)) {
+                    log.info("📋 Tenant '{}' already initialized, skipping", tenant);
+                    startupPhaseRecorder.skipped("seed", tenant);
+                } else {
+                    pending.add(tenant);
+                }
+            }
+
+            startupPhaseRecorder.record("seed", null, () -> runPerTenant(executor, pending, tenant ->
+                    startupPhaseRecorder.record("seed", tenant, () -> {
+                        databaseInitializationService.initializeCoreData(tenant);
+                        dataLoader.initializeTenantData(tenant);
+                    })));
+
+            log.info("✅ Startup initialization completed successfully!");
+            if (!pending.isEmpty()) {
+                dataLoader.logDefaultCredentials();
+            }
+
+        } catch (Exception e) {
+            log.error("❌ Startup initialization failed: {}", e.getMessage(), e);
+            throw new RuntimeException("Multi-tenant startup initialization failed", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Run a task for every tenant on the executor and wait for all of them,
+     * failing with the first error once every task has finished or timed out
+     */
+    private void runPerTenant(ExecutorService executor, List<String> tenants, TenantTask task) {
+        // plain futures, so cancelling a timed-out task interrupts its thread
+        Map<String, Future<?>> futures = new LinkedHashMap<>();
+        for (String tenant : tenants) {
+            futures.put(tenant, executor.submit(() -> task.run(tenant)));
+        }
+
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Future<?>> entry : futures.entrySet()) {
+            try {
+                entry.getValue().get(tenantTimeoutSeconds, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                failures.add(entry.getKey() + ": timed out after " + tenantTimeoutSeconds + "s");
+            } catch (ExecutionException e) {
+                failures.add(entry.getKey() + ": " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for tenant initialization", e);
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Tenant initialization failed - " + String.join("; ", failures));
+        }
+    }
+
+    private ThreadFactory startupThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "startup-init-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @FunctionalInterface
+    private interface TenantTask {
+        void run(String tenantId);
+    }
+}
@@ -0,0 +1,83 @@
+package dev.oasis.stockify.config.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Records the duration of each startup phase and publishes it as the
+ * {@code stockify.startup.phase} timer and through the {@code startupphases} actuator endpoint (JMX only).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class StartupPhaseRecorder {
+
+    private final MeterRegistry meterRegistry;
+
+    private final List<PhaseTiming> timings = new CopyOnWriteArrayList<>();
+
+    /** Run a phase and record how long it took */
+    public <T> T record(String phase, String tenantId, Supplier<T> action) {
+        long start = System.nanoTime();
+        String status = "FAILED";
+        try {
+            T result = action.get();
+            status = "COMPLETED";
+            return result;
+        } finally {
+            add(phase, tenantId, status, System.nanoTime() - start);
+        }
+    }
+
+    /** Run a phase and record how long it took */
+    public void record(String phase, String tenantId, Runnable action) {
+        record(phase, tenantId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /** Record a phase that was skipped */
+    public void skipped(String phase, String tenantId) {
+        add(phase, tenantId, "SKIPPED", 0L);
+    }
+
+    public List<PhaseTiming> getTimings() {
+        return new ArrayList<>(timings);
+    }
+
+    private void add(String phase, String tenantId, String status, long nanos) {
+        String tenantTag = tenantId != null ? tenantId : "all";
+        timings.add(new PhaseTiming(phase, tenantTag, status, nanos / 1_000_000, LocalDateTime.now()));
+        Timer.builder("stockify.startup.phase")
+                .description("Duration of application startup phases")
+                .tag("phase", phase)
+                .tag("tenant", tenantTag)
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(Duration.ofNanos(nanos));
+        log.info("⏱️ Startup phase '{}' [{}] {} in {} ms", phase, tenantTag, status, nanos / 1_000_000);
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class PhaseTiming {
+        private String phase;
+        private String tenantId;
+        private String status;
+        private long durationMs;
+        private LocalDateTime finishedAt;
+    }
+}
@@ -0,0 +1,36 @@
+package dev.oasis.stockify.config.startup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint with startup phase timings. Not exposed over HTTP, since the timings name every tenant;
+ * reachable over JMX when spring.jmx.enabled is set
+ */
+@Component
+@Endpoint(id = "startupphases")
+@RequiredArgsConstructor
+public class StartupPhasesEndpoint {
+
+    private final StartupPhaseRecorder startupPhaseRecorder;
+
+    @ReadOperation
+    public Map<String, Object> phases() {
+        List<StartupPhaseRecorder.PhaseTiming> timings = startupPhaseRecorder.getTimings();
+        long total = timings.stream()
+                .filter(t -> "all".equals(t.getTenantId()))
+                .mapToLong(StartupPhaseRecorder.PhaseTiming::getDurationMs)
+                .sum();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totalMs", total);
+        result.put("phases", timings);
+        return result;
+    }
+}
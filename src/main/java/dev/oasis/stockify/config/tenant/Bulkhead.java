@@ -0,0 +1,20 @@
+package dev.oasis.stockify.config.tenant;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the method inside the current tenant's bulkhead for an operation class such as "import",
+ * "export" or "analysis"; limits come from {@code stockify.bulkhead.<name>.*}, see {@link TenantBulkhead}
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    /** Operation class */
+    String value();
+}
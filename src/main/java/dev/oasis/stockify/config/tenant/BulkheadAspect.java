@@ -0,0 +1,28 @@
+package dev.oasis.stockify.config.tenant;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link Bulkhead} to Spring bean methods, outside any transaction so waiting callers hold no connection
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class BulkheadAspect {
+
+    private final TenantBulkhead tenantBulkhead;
+
+    @Around("@annotation(bulkhead)")
+    public Object limit(ProceedingJoinPoint joinPoint, Bulkhead bulkhead) throws Throwable {
+        try (TenantBulkhead.Permit permit = tenantBulkhead.enter(bulkhead.value(), TenantContext.getCurrentTenant())) {
+            return joinPoint.proceed();
+        }
+    }
+}
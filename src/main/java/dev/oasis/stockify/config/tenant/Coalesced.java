@@ -0,0 +1,21 @@
+package dev.oasis.stockify.config.tenant;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Concurrent calls with equal arguments in the same tenant share one execution of the method, and its result
+ * is reused for {@code stockify.coalescing.<name>.ttl-ms}; see {@link TenantRequestCoalescer}.
+ * Only for read-only methods whose result callers do not modify.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+
+    /** Operation name */
+    String value();
+}
@@ -0,0 +1,30 @@
+package dev.oasis.stockify.config.tenant;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Applies {@link Coalesced} to Spring bean methods, outermost so that joined callers take no bulkhead permit,
+ * transaction or connection while they wait
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class CoalescingAspect {
+
+    private final TenantRequestCoalescer tenantRequestCoalescer;
+
+    @Around("@annotation(coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, Coalesced coalesced) throws Throwable {
+        return tenantRequestCoalescer.execute(coalesced.value(), TenantContext.getCurrentTenant(),
+                Arrays.asList(joinPoint.getArgs()), joinPoint::proceed);
+    }
+}
@@ -1,5 +1,6 @@
 package dev.oasis.stockify.config.tenant;
 
+import dev.oasis.stockify.config.metrics.StatementCounter;
 import org.hibernate.resource.jdbc.spi.StatementInspector;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -15,6 +16,7 @@ public class ForceSchemaStatementInspector implements StatementInspector {
     
     @Override
     public String inspect(String sql) {
+        StatementCounter.increment(sql);
         String currentTenant = TenantContext.getCurrentTenant();
         
         // Only rewrite if we have a non-public tenant
@@ -1,5 +1,6 @@
 package dev.oasis.stockify.config.tenant;
 
+import dev.oasis.stockify.config.metrics.TenantMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
@@ -21,6 +22,8 @@ import java.sql.SQLException;
 public class PostgreSQLMultiTenantConnectionProvider implements MultiTenantConnectionProvider<String> {
     
     private final DataSource dataSource;
+    private final TenantMetrics tenantMetrics;
+    private final TenantBulkhead tenantBulkhead;
 
     // Constructor-based initialization logging via @PostConstruct
     @jakarta.annotation.PostConstruct
@@ -38,15 +41,24 @@ public class PostgreSQLMultiTenantConnectionProvider implements MultiTenantConne
         connection.close();
     }    @Override
     public Connection getConnection(String tenantIdentifier) throws SQLException {
+        // per-tenant quota, so one tenant cannot hold the whole shared pool
+        if (!tenantBulkhead.acquireConnection(tenantIdentifier)) {
+            throw new SQLException("Connection quota exhausted for tenant: " + tenantIdentifier);
+        }
         Connection connection = null;
         try {
+            long start = System.nanoTime();
             connection = getAnyConnection();
+            long acquired = System.nanoTime();
+            tenantMetrics.recordNanos("stockify.db.connection.acquire", tenantIdentifier, acquired - start);
             
             // PostgreSQL'e özel optimizasyon: search_path kullan
             String schema = tenantIdentifier != null ? tenantIdentifier.toLowerCase() : "public";
             
-            // Schema'nın var olduğundan emin ol
-            ensureSchemaExists(connection, schema);
+            // Schema'nın var olduğundan emin ol; a read replica cannot run DDL and gets schemas from the primary
+            if (!connection.isReadOnly()) {
+                ensureSchemaExists(connection, schema);
+            }
             
             // FORCE PostgreSQL search_path - SADECE ilgili schema kullan, public'i TAMAMEN engelle
             String searchPath = String.format("\"%s\"", schema);
@@ -104,6 +116,7 @@ public class PostgreSQLMultiTenantConnectionProvider implements MultiTenantConne
                 }
             }
             
+            tenantMetrics.recordNanos("stockify.db.schema.switch", tenantIdentifier, System.nanoTime() - acquired);
             log.info("🐘 PostgreSQL connection FORCED to schema '{}' for tenant '{}'", 
                     schema, tenantIdentifier);
             
@@ -118,10 +131,19 @@ public class PostgreSQLMultiTenantConnectionProvider implements MultiTenantConne
                     log.warn("Failed to close connection after error: {}", closeEx.getMessage());
                 }
             }
+            tenantBulkhead.releaseConnection(tenantIdentifier);
             throw new SQLException("Failed to configure PostgreSQL connection for tenant: " + tenantIdentifier, e);
         }
     }    @Override
     public void releaseConnection(String tenantIdentifier, Connection connection) throws SQLException {
+        try {
+            releaseTenantConnection(tenantIdentifier, connection);
+        } finally {
+            tenantBulkhead.releaseConnection(tenantIdentifier);
+        }
+    }
+
+    private void releaseTenantConnection(String tenantIdentifier, Connection connection) throws SQLException {
         if (connection != null && !connection.isClosed()) {
             try {                // Reset to default search_path before releasing
                 try (var stmt = connection.createStatement()) {
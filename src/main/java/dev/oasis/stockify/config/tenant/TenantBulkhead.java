@@ -0,0 +1,151 @@
+package dev.oasis.stockify.config.tenant;
+
+import dev.oasis.stockify.config.metrics.TenantMetrics;
+import dev.oasis.stockify.exception.BulkheadFullException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tenant bulkheads in front of the shared Hikari pool.
+ * <ul>
+ *     <li>a connection quota caps the pooled connections one tenant holds through Hibernate at once</li>
+ *     <li>heavy operation classes (import, export, analysis) have a concurrency limit per tenant and one across
+ *     all tenants, from {@code stockify.bulkhead.<name>.per-tenant} and {@code .global}</li>
+ * </ul>
+ * Callers queue in arrival order for up to the configured wait and are then rejected, so a burst from one tenant
+ * fails fast for that tenant instead of draining the pool for everyone. Waits ({@code stockify.bulkhead.wait})
+ * and rejections ({@code stockify.bulkhead.rejected}) are metered per tenant and bulkhead.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TenantBulkhead {
+
+    public static final String CONNECTIONS = "connections";
+
+    private static final String ALL_TENANTS = "*";
+
+    private final TenantMetrics tenantMetrics;
+    private final Environment environment;
+
+    @Value("${stockify.bulkhead.connections.per-tenant:5}")
+    private int connectionsPerTenant;
+
+    @Value("${stockify.bulkhead.connections.wait-ms:2000}")
+    private long connectionWaitMs;
+
+    @Value("${stockify.bulkhead.default-per-tenant:2}")
+    private int defaultPerTenant;
+
+    @Value("${stockify.bulkhead.default-global:8}")
+    private int defaultGlobal;
+
+    @Value("${stockify.bulkhead.wait-ms:5000}")
+    private long operationWaitMs;
+
+    private final Map<String, Semaphore> semaphores = new ConcurrentHashMap<>();
+
+    /**
+     * Take one of the tenant's connection permits; false when the quota stays exhausted for the whole wait
+     */
+    public boolean acquireConnection(String tenantId) {
+        String tenant = normalize(tenantId);
+        return acquire(semaphore(CONNECTIONS, tenant, connectionsPerTenant), CONNECTIONS, tenant, connectionWaitMs);
+    }
+
+    public void releaseConnection(String tenantId) {
+        semaphore(CONNECTIONS, normalize(tenantId), connectionsPerTenant).release();
+    }
+
+    /**
+     * Enter the tenant's bulkhead for an operation class; close the permit when the operation is done
+     * @throws BulkheadFullException when the tenant or global limit stays reached for the whole wait
+     */
+    public Permit enter(String operation, String tenantId) {
+        String tenant = normalize(tenantId);
+        Semaphore perTenant = semaphore(operation, tenant, limit(operation, "per-tenant", defaultPerTenant));
+        if (!acquire(perTenant, operation, tenant, operationWaitMs)) {
+            throw new BulkheadFullException(operation, tenant);
+        }
+        Semaphore global = semaphore(operation, ALL_TENANTS, limit(operation, "global", defaultGlobal));
+        if (!acquire(global, operation, tenant, operationWaitMs)) {
+            perTenant.release();
+            throw new BulkheadFullException(operation, tenant);
+        }
+        return new Permit(perTenant, global);
+    }
+
+    /**
+     * Permits still free in a tenant's bulkhead, for diagnostics
+     */
+    public int available(String operation, String tenantId) {
+        Semaphore semaphore = semaphores.get(operation + "|" + normalize(tenantId));
+        return semaphore != null ? semaphore.availablePermits() : -1;
+    }
+
+    private boolean acquire(Semaphore semaphore, String bulkhead, String tenant, long waitMs) {
+        if (semaphore.tryAcquire()) {
+            return true;
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        tenantMetrics.recordNanos("stockify.bulkhead.wait", tenant, System.nanoTime() - start, "bulkhead", bulkhead);
+        if (!acquired) {
+            tenantMetrics.count("stockify.bulkhead.rejected", tenant, 1, "bulkhead", bulkhead);
+            log.warn("🚧 Bulkhead '{}' full for tenant {} after {} ms, rejecting", bulkhead, tenant, waitMs);
+        }
+        return acquired;
+    }
+
+    private Semaphore semaphore(String bulkhead, String tenant, int permits) {
+        // fair, so queued callers are served in arrival order
+        return semaphores.computeIfAbsent(bulkhead + "|" + tenant, key -> new Semaphore(Math.max(1, permits), true));
+    }
+
+    private int limit(String operation, String scope, int defaultLimit) {
+        return environment.getProperty("stockify.bulkhead." + operation + "." + scope, Integer.class, defaultLimit);
+    }
+
+    private String normalize(String tenantId) {
+        return tenantId != null && !tenantId.isBlank() ? tenantId.toLowerCase(Locale.ROOT) : "public";
+    }
+
+    /**
+     * Held slots of one operation; closing releases them
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final Semaphore perTenant;
+        private final Semaphore global;
+        private boolean released;
+
+        private Permit(Semaphore perTenant, Semaphore global) {
+            this.perTenant = perTenant;
+            this.global = global;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                global.release();
+                perTenant.release();
+            }
+        }
+    }
+}
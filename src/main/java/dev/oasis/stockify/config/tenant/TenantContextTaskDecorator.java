@@ -0,0 +1,51 @@
+package dev.oasis.stockify.config.tenant;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+
+/**
+ * Carries the submitting thread's tenant, MDC and security context over to the thread that runs the task,
+ * and puts the worker's own context back afterwards, whether the task succeeds or fails. Works the same
+ * for pooled, per-task and virtual threads, and for caller-runs rejection where both are the same thread.
+ */
+public class TenantContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    @NonNull
+    public Runnable decorate(@NonNull Runnable runnable) {
+        String tenant = TenantContext.getCurrentTenant();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+
+        return () -> {
+            String previousTenant = TenantContext.getCurrentTenant();
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+            try {
+                restore(tenant, mdc, securityContext);
+                runnable.run();
+            } finally {
+                restore(previousTenant, previousMdc, previousSecurityContext);
+            }
+        };
+    }
+
+    private static void restore(String tenant, Map<String, String> mdc, SecurityContext securityContext) {
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        } else {
+            MDC.clear();
+        }
+        if (tenant != null) {
+            TenantContext.setCurrentTenant(tenant);
+        } else {
+            TenantContext.clear();
+        }
+        SecurityContextHolder.setContext(securityContext);
+    }
+}
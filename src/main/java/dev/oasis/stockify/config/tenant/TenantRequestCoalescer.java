@@ -0,0 +1,131 @@
+package dev.oasis.stockify.config.tenant;
+
+import dev.oasis.stockify.config.metrics.TenantMetrics;
+import dev.oasis.stockify.event.EntityChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight for heavy reads: the first call for a (tenant, operation, arguments) key runs on its own thread,
+ * identical calls arriving meanwhile wait for and share its result, and a successful result is reused for a short
+ * TTL to absorb bursts such as a morning login wave. Failures are shared with the waiting callers but never kept.
+ * Any committed entity change of a tenant ({@link EntityChangedEvent}) retires its results, so nobody joins a
+ * computation that started before their own write. Calls are counted as {@code stockify.coalescing.requests}
+ * with {@code result} leader, joined or cached.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TenantRequestCoalescer {
+
+    private final TenantMetrics tenantMetrics;
+    private final Environment environment;
+
+    @Value("${stockify.coalescing.default-ttl-ms:2000}")
+    private long defaultTtlMs;
+
+    @Value("${stockify.coalescing.max-entries:1000}")
+    private int maxEntries;
+
+    private final Map<List<Object>, Flight> flights = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Work whose result is shared; may throw whatever the underlying method throws
+     */
+    @FunctionalInterface
+    public interface Loader {
+        Object load() throws Throwable;
+    }
+
+    /**
+     * Result of the loader for the key, computed here or taken from an in-flight or recent identical call
+     */
+    public Object execute(String operation, String tenantId, List<Object> arguments, Loader loader) throws Throwable {
+        String tenant = normalize(tenantId);
+        long version = versions.computeIfAbsent(tenant, k -> new AtomicLong()).get();
+        List<Object> key = Arrays.asList(tenant, operation, arguments);
+
+        while (true) {
+            long now = System.currentTimeMillis();
+            Flight current = flights.get(key);
+            if (current != null && current.version >= version && !current.future.isCompletedExceptionally()
+                    && (!current.future.isDone() || now < current.expiresAt)) {
+                tenantMetrics.count("stockify.coalescing.requests", tenant, 1,
+                        "operation", operation, "result", current.future.isDone() ? "cached" : "joined");
+                return await(current);
+            }
+
+            Flight mine = new Flight(version);
+            boolean claimed = current == null ? flights.putIfAbsent(key, mine) == null : flights.replace(key, current, mine);
+            if (claimed) {
+                tenantMetrics.count("stockify.coalescing.requests", tenant, 1, "operation", operation, "result", "leader");
+                return lead(key, mine, operation, loader);
+            }
+            // another caller claimed the key in between; look again
+        }
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        versions.computeIfAbsent(normalize(event.getTenantId()), k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private Object lead(List<Object> key, Flight flight, String operation, Loader loader) throws Throwable {
+        Object value;
+        try {
+            value = loader.load();
+        } catch (Throwable t) {
+            flights.remove(key, flight);
+            flight.future.completeExceptionally(t);
+            throw t;
+        }
+
+        long ttlMs = environment.getProperty("stockify.coalescing." + operation + ".ttl-ms", Long.class, defaultTtlMs);
+        flight.expiresAt = System.currentTimeMillis() + ttlMs;
+        flight.future.complete(value);
+        if (ttlMs <= 0) {
+            flights.remove(key, flight);
+        } else if (flights.size() > maxEntries) {
+            long now = System.currentTimeMillis();
+            flights.values().removeIf(f -> f.future.isDone() && now >= f.expiresAt);
+            log.debug("🧹 Coalescing map over {} entries, dropped expired results", maxEntries);
+        }
+        return value;
+    }
+
+    private Object await(Flight flight) throws Throwable {
+        try {
+            return flight.future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    private String normalize(String tenantId) {
+        return tenantId != null ? tenantId.toLowerCase(Locale.ROOT) : "public";
+    }
+
+    private static class Flight {
+        private final long version;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private volatile long expiresAt;
+
+        private Flight(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import dev.oasis.stockify.service.ContactMessageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -40,7 +41,7 @@ public class AdminContactMessageController {
             Model model) {
         
         try {
-            Page<ContactMessage> messages;
+            Slice<ContactMessage> messages;
             
             // If any search parameters are provided, use search, otherwise get all
             if (email != null || subject != null || name != null || isRead != null || responded != null) {
@@ -52,8 +53,11 @@ public class AdminContactMessageController {
             // Add pagination and data to model
             model.addAttribute("messages", messages.getContent());
             model.addAttribute("currentPage", messages.getNumber());
-            model.addAttribute("totalPages", messages.getTotalPages());
-            model.addAttribute("totalElements", messages.getTotalElements());
+            // filtered searches on large tables come back without a total
+            Page<ContactMessage> counted = messages instanceof Page<ContactMessage> p ? p : null;
+            model.addAttribute("totalPages", counted != null ? counted.getTotalPages() : null);
+            model.addAttribute("totalElements", counted != null ? counted.getTotalElements() : null);
+            model.addAttribute("hasNext", messages.hasNext());
             model.addAttribute("pageSize", size);
             
             // Add search parameters back to model
@@ -1,13 +1,17 @@
 package dev.oasis.stockify.controller;
 
+import dev.oasis.stockify.config.tenant.Bulkhead;
 import dev.oasis.stockify.dto.ProductCreateDTO;
 import dev.oasis.stockify.dto.ProductResponseDTO;
+import dev.oasis.stockify.dto.ProductStatsDTO;
 import dev.oasis.stockify.dto.ProductCategoryResponseDTO;
 import dev.oasis.stockify.dto.ProductCategoryCreateDTO;
 import dev.oasis.stockify.dto.QuickRestockRequestDTO;
 import dev.oasis.stockify.dto.QuickRestockResponseDTO;
 import dev.oasis.stockify.exception.FileOperationException;
+import dev.oasis.stockify.service.CatalogVersionService;
 import dev.oasis.stockify.service.ProductService;
+import dev.oasis.stockify.service.ProductStreamService;
 import dev.oasis.stockify.service.ProductCategoryService;
 import dev.oasis.stockify.service.ProductImportExportService;
 import dev.oasis.stockify.repository.AppUserRepository;
@@ -21,8 +25,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -49,11 +57,15 @@ import java.util.Optional;
 @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
 public class AdminProductController { 
     
+    private static final List<String> API_FIELDS = List.of("id", "title", "sku");
+
     private final ProductService productService;
     private final ProductCategoryService categoryService;
     private final ProductImportExportService importExportService;
     private final AppUserRepository appUserRepository;
     private final ControllerTenantUtil tenantResolutionUtil;
+    private final CatalogVersionService catalogVersionService;
+    private final ProductStreamService productStreamService;
 
     
     
@@ -87,7 +99,7 @@ public class AdminProductController {
             log.debug("📊 Step 3: Created sort: {} {}", sortBy, sortDir);
             
             Pageable pageable = PageRequest.of(page, size, sort);
-            Page<ProductResponseDTO> products;
+            Slice<ProductResponseDTO> products;
             
             if (search != null && !search.trim().isEmpty()) {
                 log.debug("🔍 Step 4a: Searching products with term: {} for tenant: {}", search, tenantId);
@@ -97,23 +109,22 @@ public class AdminProductController {
                 log.debug("� Step 4b: Listing all products for tenant: {}", tenantId);
                 products = productService.getProductsPage(pageable);
             }
+            // searches on large catalogs come back without a total; the template then shows previous/next only
+            Page<ProductResponseDTO> counted = products instanceof Page<ProductResponseDTO> p ? p : null;
             log.info("� Step 5: Retrieved {} products (page {} of {})", 
-                products.getNumberOfElements(), page + 1, products.getTotalPages());
+                products.getNumberOfElements(), page + 1, counted != null ? counted.getTotalPages() : "?");
 
             // Get counts for badges
-            log.debug("📊 Step 6: Getting all products for badge counts");
-            List<ProductResponseDTO> allProducts = productService.getAllProducts();
-            long totalProducts = allProducts.size();
-            log.debug("📊 Step 7: Calculating low stock count");
-            long lowStockCount = allProducts.stream()
-                .filter(p -> p.getStockLevel() <= p.getLowStockThreshold())
-                .count();
-            log.info("📊 Step 8: Badge counts - Total: {}, Low Stock: {}", totalProducts, lowStockCount);
+            log.debug("📊 Step 6: Getting product statistics for badge counts");
+            ProductStatsDTO stats = productService.getProductStats();
+            long totalProducts = stats.getTotalProducts();
+            long lowStockCount = stats.getLowStockCount();
+            log.info("📊 Step 7: Badge counts - Total: {}, Low Stock: {}", totalProducts, lowStockCount);
 
             // Get categories for the categories tab
-            log.debug("📋 Step 9: Getting categories");
+            log.debug("📋 Step 8: Getting categories");
             List<ProductCategoryResponseDTO> categories = categoryService.getAllCategories();
-            log.info("📋 Step 10: Found {} categories", categories.size());
+            log.info("📋 Step 9: Found {} categories", categories.size());
 
             model.addAttribute("products", products);
             model.addAttribute("currentPage", page);
@@ -121,8 +132,9 @@ public class AdminProductController {
             model.addAttribute("sortBy", sortBy);
             model.addAttribute("sortDir", sortDir);
             model.addAttribute("currentTenantId", tenantId);
-            model.addAttribute("totalPages", products.getTotalPages());
-            model.addAttribute("totalElements", products.getTotalElements());
+            model.addAttribute("totalPages", counted != null ? counted.getTotalPages() : null);
+            model.addAttribute("totalElements", counted != null ? counted.getTotalElements() : null);
+            model.addAttribute("hasNext", products.hasNext());
             model.addAttribute("tenantId", tenantId);
             model.addAttribute("totalProducts", totalProducts);
             model.addAttribute("lowStockCount", lowStockCount);
@@ -342,6 +354,7 @@ public class AdminProductController {
      * Export products to CSV
      */
     @GetMapping("/export")
+    @Bulkhead("export")
     public void exportProducts(@RequestParam(defaultValue = "csv") String format,
                               HttpServletRequest request,
                               Authentication authentication,
@@ -413,37 +426,27 @@ public class AdminProductController {
     }    
     
     /**
-     * Get low stock products as JSON data for AJAX calls
+     * Get a page of low stock products, most urgent first, as JSON data for AJAX calls.
+     * The total number of low stock products is returned in the X-Total-Count header.
      */
     @GetMapping("/low-stock-data")
     @ResponseBody
-    public ResponseEntity<List<ProductResponseDTO>> getLowStockProductsData(HttpServletRequest request, Authentication authentication) {
+    public ResponseEntity<List<ProductResponseDTO>> getLowStockProductsData(@RequestParam(defaultValue = "0") int page,
+                                                                            @RequestParam(defaultValue = "100") int size,
+                                                                            HttpServletRequest request, Authentication authentication) {
         log.info("🔍 AJAX Call: getLowStockProductsData started");
         
         try {
-            log.debug("📋 Step 1: Getting current tenant ID");
             String tenantId = tenantResolutionUtil.resolveTenantId(request, authentication, true);
-            log.info("📊 Step 2: Getting low stock products data for tenant: {}", tenantId);
-            
-            log.debug("📦 Step 3: Calling productService.getAllProducts()");
-            List<ProductResponseDTO> allProducts = productService.getAllProducts();
-            log.info("📦 Step 4: Found {} total products for tenant: {}", allProducts.size(), tenantId);
+            log.info("📊 Getting low stock products data for tenant: {}", tenantId);
             
-            log.debug("🔽 Step 5: Filtering low stock products");
-            List<ProductResponseDTO> lowStockProducts = allProducts.stream()
-                .filter(p -> {
-                    boolean isLowStock = p.getStockLevel() <= p.getLowStockThreshold();
-                    log.debug("🔍 Product {} - Stock: {}, Threshold: {}, IsLowStock: {}", 
-                        p.getTitle(), p.getStockLevel(), p.getLowStockThreshold(), isLowStock);
-                    return isLowStock;
-                })
-                .toList();
-                
-            log.info("🔍 Step 6: Found {} low stock products for tenant: {}", 
-                lowStockProducts.size(), tenantId);
+            Page<ProductResponseDTO> lowStockProducts = productService.getLowStockProducts(
+                    PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 500)));
+            log.info("🔍 Found {} low stock products for tenant: {}", lowStockProducts.getTotalElements(), tenantId);
             
-            log.debug("✅ Step 7: Returning successful response");
-            return ResponseEntity.ok(lowStockProducts);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(lowStockProducts.getTotalElements()))
+                    .body(lowStockProducts.getContent());
             
         } catch (Exception e) {
             log.error("❌ CRITICAL: Failed to get low stock products data at step: {}", 
@@ -627,31 +630,25 @@ public class AdminProductController {
     }
 
     /**
-     * Get all products as JSON for AJAX (id, title, sku)
+     * Get all products as JSON for AJAX (id, title, sku), streamed from the database
      */
     @GetMapping("/api")
-    @ResponseBody
-    public ResponseEntity<List<Map<String, Object>>> getAllProductsForApi(HttpServletRequest request, Authentication authentication) {
-        try {
-            String tenantId = tenantResolutionUtil.resolveTenantId(request, authentication, true);
-            log.info("🔗 [API] Getting all products for AJAX for tenant: {}", tenantId);
-
-            List<ProductResponseDTO> products = productService.getAllProducts();
-            // Sadece gerekli alanları döndür
-            List<Map<String, Object>> result = products.stream()
-                .map(p -> {
-                    Map<String, Object> map = new java.util.HashMap<>();
-                    map.put("id", p.getId());
-                    map.put("title", p.getTitle());
-                    map.put("sku", p.getSku());
-                    return map;
-                })
-                .toList();
-
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            log.error("❌ [API] Failed to get products for AJAX: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(List.of());
+    public void getAllProductsForApi(HttpServletRequest request, HttpServletResponse response,
+                                     Authentication authentication) throws IOException {
+        String tenantId = tenantResolutionUtil.resolveTenantId(request, authentication, true);
+        // read the version before the products, so a concurrent write can only make the tag older than the body
+        String etag = catalogVersionService.etag(tenantId);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        // no-cache instead of the default no-store, so browsers keep the body and revalidate with If-None-Match
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        if (catalogVersionService.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            log.debug("🔗 [API] Product list unchanged for tenant: {}", tenantId);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
         }
+        log.info("🔗 [API] Getting all products for AJAX for tenant: {}", tenantId);
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        productStreamService.writeAll(tenantId, API_FIELDS, response.getOutputStream());
     }
 }
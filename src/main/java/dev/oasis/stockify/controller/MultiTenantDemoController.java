@@ -92,7 +92,7 @@ public class MultiTenantDemoController {
                     "id", p.getId(),
                     "sku", p.getSku(),
                     "title", p.getTitle(),
-                    "category", p.getCategory(),
+                    "category", categoryName(p),
                     "stockLevel", p.getStockLevel()
                 )).toList());
             
@@ -212,4 +212,14 @@ public class MultiTenantDemoController {
                schemaName.equalsIgnoreCase("SYS") ||
                schemaName.equalsIgnoreCase("SYSAUX");
     }
+
+    /**
+     * Name of the referenced category, or the stored name for products not linked to one yet
+     */
+    private String categoryName(Product product) {
+        if (product.getProductCategory() != null) {
+            return product.getProductCategory().getName();
+        }
+        return product.getCategory() != null ? product.getCategory() : "";
+    }
 }
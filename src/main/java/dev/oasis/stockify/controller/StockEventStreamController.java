@@ -0,0 +1,37 @@
+package dev.oasis.stockify.controller;
+
+import dev.oasis.stockify.service.StockEventStreamService;
+import dev.oasis.stockify.util.ControllerTenantUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Events stream of stock levels and notification badges for the current tenant
+ */
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+public class StockEventStreamController {
+
+    private final StockEventStreamService stockEventStreamService;
+    private final ControllerTenantUtil tenantResolutionUtil;
+
+    @ModelAttribute
+    public void setupTenantContext(HttpServletRequest request) {
+        tenantResolutionUtil.setupTenantContext(request);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                             @RequestParam(required = false) String since) {
+        return stockEventStreamService.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
@@ -1,16 +1,19 @@
 package dev.oasis.stockify.controller;
 
 import dev.oasis.stockify.dto.BulkStockMovementCreateDTO;
+import dev.oasis.stockify.dto.CursorPageDTO;
 import dev.oasis.stockify.dto.StockAnalysisDTO;
 import dev.oasis.stockify.dto.StockAnalysisRequestDTO;
 import dev.oasis.stockify.dto.StockMovementCreateDTO;
 import dev.oasis.stockify.dto.StockMovementResponseDTO;
 import dev.oasis.stockify.dto.ValidationErrorDTO;
+import dev.oasis.stockify.exception.BulkheadFullException;
 import dev.oasis.stockify.model.StockMovement;
-import dev.oasis.stockify.service.StockAnalysisService;
+import dev.oasis.stockify.service.StockAnalysisCacheService;
 import dev.oasis.stockify.service.StockMovementService;
 import dev.oasis.stockify.util.ControllerTenantUtil;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -22,6 +25,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -38,7 +42,7 @@ import java.util.Map;
 public class StockMovementController {
 
     private final StockMovementService stockMovementService;
-    private final StockAnalysisService stockAnalysisService;
+    private final StockAnalysisCacheService stockAnalysisCacheService;
     private final ControllerTenantUtil tenantResolutionUtil;
 
      
@@ -139,6 +143,32 @@ public class StockMovementController {
         }
     }
 
+    /**
+     * Keyset listing (AJAX) - pass nextCursor from the previous response to get the next page
+     */
+    @GetMapping("/cursor")
+    @ResponseBody
+    public ResponseEntity<?> getStockMovementsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "none") String count) {
+        try {
+            StockMovement.MovementType movementType = (type != null && !type.isBlank())
+                    ? StockMovement.MovementType.valueOf(type.trim().toUpperCase())
+                    : null;
+            CursorPageDTO<StockMovementResponseDTO> page = stockMovementService.getStockMovementsByCursor(
+                    cursor, Math.max(1, Math.min(size, 100)), search, movementType, CursorPageDTO.CountMode.fromParam(count));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("❌ Error fetching stock movements by cursor: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to load stock movements"));
+        }
+    }
+
     /**
      * Create stock movement
      */
@@ -191,6 +221,9 @@ public class StockMovementController {
                     "message", "Successfully processed " + results.size() + " stock movements",
                     "movements", results
             ));
+        } catch (BulkheadFullException e) {
+            // a full bulkhead is not a bad request; GlobalExceptionHandler answers 429 with Retry-After
+            throw e;
         } catch (Exception e) {
             log.error("❌ Error processing bulk stock movement upload: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body(Map.of(
@@ -235,6 +268,24 @@ public class StockMovementController {
         }
     }
 
+    /**
+     * Export movements of a date range to CSV, including archived months
+     */
+    @GetMapping("/export")
+    public void exportMovements(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            HttpServletRequest request,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        String tenantId = tenantResolutionUtil.resolveTenantId(request, authentication, true);
+        log.info("📤 Exporting stock movements {} - {} for tenant: {}", start, end, tenantId);
+
+        response.setContentType("text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=stock_movements_" + tenantId + "_" + start + "_" + end + ".csv");
+        stockMovementService.exportMovementsToCsv(response.getWriter(), start, end);
+    }
+
     /**
      * Stock analysis endpoint
      */
@@ -262,9 +313,11 @@ public class StockMovementController {
                     .includeExpired(true)
                     .build();
 
-            StockAnalysisDTO analysis = stockAnalysisService.generateStockAnalysis(analysisRequest);
+            StockAnalysisDTO analysis = stockAnalysisCacheService.getStockAnalysis(analysisRequest);
             return ResponseEntity.ok(analysis);
 
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             log.error("❌ Error generating stock analysis: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body(Map.of(
@@ -452,6 +505,8 @@ public class StockMovementController {
                     "success", true,
                     "message", "Successfully processed " + processedCount + " stock movements from CSV"
             ));
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             log.error("❌ Error processing CSV upload: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body(Map.of(
@@ -1,17 +1,24 @@
 package dev.oasis.stockify.controller;
 
 import dev.oasis.stockify.dto.ProductResponseDTO;
+import dev.oasis.stockify.dto.ProductStatsDTO;
 import dev.oasis.stockify.dto.ProductCategoryResponseDTO;
+import dev.oasis.stockify.service.CatalogVersionService;
 import dev.oasis.stockify.service.ProductService;
+import dev.oasis.stockify.service.ProductStreamService;
 import dev.oasis.stockify.service.ProductCategoryService;
 import dev.oasis.stockify.util.ControllerTenantUtil;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +29,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,9 +46,13 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserProductController {
 
+    private static final List<String> API_FIELDS = List.of("id", "title", "sku");
+
     private final ProductService productService;
     private final ProductCategoryService categoryService;
     private final ControllerTenantUtil tenantResolutionUtil;
+    private final CatalogVersionService catalogVersionService;
+    private final ProductStreamService productStreamService;
 
     /**
      * Ensure tenant context is set for each request
@@ -111,7 +123,7 @@ public class UserProductController {
         
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<ProductResponseDTO> products;
+        Slice<ProductResponseDTO> products;
         if (search != null && !search.trim().isEmpty()) {
             products = productService.searchProducts(search, pageable);
             model.addAttribute("search", search);
@@ -120,11 +132,9 @@ public class UserProductController {
             products = productService.getProductsPage(pageable);
             log.debug("📋 User listing all products for tenant: {}", tenantId);
         }        // Get counts for badges
-        List<ProductResponseDTO> allProducts = productService.getAllProducts();
-        long totalProducts = allProducts.size();
-        long lowStockCount = allProducts.stream()
-            .filter(p -> p.isLowStock()) // Use DTO method for accurate low stock detection
-            .count();
+        ProductStatsDTO stats = productService.getProductStats();
+        long totalProducts = stats.getTotalProducts();
+        long lowStockCount = stats.getLowStockCount();
 
         // Get categories for the categories tab
         List<ProductCategoryResponseDTO> categories;
@@ -142,8 +152,11 @@ public class UserProductController {
         model.addAttribute("pageSize", size);
         model.addAttribute("sortBy", validatedSortBy); // Use validated sort field
         model.addAttribute("sortDir", sortDir);
-        model.addAttribute("totalPages", products.getTotalPages());
-        model.addAttribute("totalElements", products.getTotalElements());
+        // searches on large catalogs come back without a total; the template then shows previous/next only
+        Page<ProductResponseDTO> counted = products instanceof Page<ProductResponseDTO> p ? p : null;
+        model.addAttribute("totalPages", counted != null ? counted.getTotalPages() : null);
+        model.addAttribute("totalElements", counted != null ? counted.getTotalElements() : null);
+        model.addAttribute("hasNext", products.hasNext());
         model.addAttribute("tenantId", tenantId);
         model.addAttribute("totalProducts", totalProducts);
         model.addAttribute("lowStockCount", lowStockCount);
@@ -156,7 +169,7 @@ public class UserProductController {
         log.debug("📊 Found {} total products, {} low stock for tenant: {}", 
             totalProducts, lowStockCount, tenantId);
 
-        log.debug("📊 Found {} products for tenant: {}", products.getTotalElements(), tenantId);
+        log.debug("📊 Showing {} products for tenant: {}", products.getNumberOfElements(), tenantId);
         return "user/products";
     }
 
@@ -174,26 +187,29 @@ public class UserProductController {
     }
 
     /**
-     * Get low stock products as JSON data for AJAX calls
+     * Get a page of low stock products, most urgent first, as JSON data for AJAX calls.
+     * The total number of low stock products is returned in the X-Total-Count header.
      */
     @GetMapping(value = "/low-stock-data", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseBody
-    public List<ProductResponseDTO> getLowStockProductsData(HttpServletRequest request, Authentication authentication) {
+    public ResponseEntity<List<ProductResponseDTO>> getLowStockProductsData(@RequestParam(defaultValue = "0") int page,
+                                                                            @RequestParam(defaultValue = "100") int size,
+                                                                            HttpServletRequest request, Authentication authentication) {
         String tenantId = tenantResolutionUtil.resolveTenantId(request, authentication, true);
         log.info("📊 Getting low stock products data for tenant: {}", tenantId);
         
         try {
-            List<ProductResponseDTO> lowStockProducts = productService.getAllProducts()
-                .stream()
-                .filter(p -> p.isLowStock()) // Use DTO method for accurate low stock detection
-                .toList();
+            Page<ProductResponseDTO> lowStockProducts = productService.getLowStockProducts(
+                    PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 500)));
                 
             log.info("✅ Found {} low stock products for tenant: {}",
-                lowStockProducts.size(), tenantId);
-            return lowStockProducts;
+                lowStockProducts.getTotalElements(), tenantId);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(lowStockProducts.getTotalElements()))
+                    .body(lowStockProducts.getContent());
         } catch (Exception e) {
             log.error("❌ Failed to get low stock products data for tenant: {}", tenantId, e);
-            return List.of(); // Return empty list on error
+            return ResponseEntity.ok(List.of()); // Return empty list on error
         }
     }
 
@@ -243,30 +259,23 @@ public class UserProductController {
     }
 
     /**
-     * Get all products as JSON for AJAX (id, title, sku)
+     * Get all products as JSON for AJAX (id, title, sku), streamed from the database
      */
     @GetMapping("/api")
-    @ResponseBody
-    public ResponseEntity<List<Map<String, Object>>> getAllProductsForApi(HttpServletRequest request, Authentication authentication) {
-        try {
-            String tenantId = tenantResolutionUtil.resolveTenantId(request, authentication, true);
-            log.info("🔗 [API] Getting all products for AJAX for tenant: {}", tenantId);
-
-            List<ProductResponseDTO> products = productService.getAllProducts();
-            List<Map<String, Object>> result = products.stream()
-                .map(p -> {
-                    Map<String, Object> map = new java.util.HashMap<>();
-                    map.put("id", p.getId());
-                    map.put("title", p.getTitle());
-                    map.put("sku", p.getSku());
-                    return map;
-                })
-                .toList();
-
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            log.error("❌ [API] Failed to get products for AJAX: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(List.of());
+    public void getAllProductsForApi(HttpServletRequest request, HttpServletResponse response,
+                                     Authentication authentication) throws IOException {
+        String tenantId = tenantResolutionUtil.resolveTenantId(request, authentication, true);
+        String etag = catalogVersionService.etag(tenantId);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        if (catalogVersionService.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            log.debug("🔗 [API] Product list unchanged for tenant: {}", tenantId);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
         }
+        log.info("🔗 [API] Getting all products for AJAX for tenant: {}", tenantId);
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        productStreamService.writeAll(tenantId, API_FIELDS, response.getOutputStream());
     }
 }
@@ -1,9 +1,11 @@
 package dev.oasis.stockify.controller;
 
 import dev.oasis.stockify.dto.BulkStockMovementCreateDTO;
+import dev.oasis.stockify.dto.CursorPageDTO;
 import dev.oasis.stockify.dto.StockMovementCreateDTO;
 import dev.oasis.stockify.dto.StockMovementResponseDTO;
 import dev.oasis.stockify.dto.ValidationErrorDTO;
+import dev.oasis.stockify.model.StockMovement;
 import dev.oasis.stockify.service.StockMovementService;
 
 import dev.oasis.stockify.util.ControllerTenantUtil;
@@ -133,6 +135,32 @@ public class UserStockMovementController {
         }
     }
 
+    /**
+     * Keyset listing (AJAX) - pass nextCursor from the previous response to get the next page
+     */
+    @GetMapping("/cursor")
+    @ResponseBody
+    public ResponseEntity<?> getStockMovementsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "none") String count) {
+        try {
+            StockMovement.MovementType movementType = (type != null && !type.isBlank())
+                    ? StockMovement.MovementType.valueOf(type.trim().toUpperCase())
+                    : null;
+            CursorPageDTO<StockMovementResponseDTO> page = stockMovementService.getStockMovementsByCursor(
+                    cursor, Math.max(1, Math.min(size, 100)), search, movementType, CursorPageDTO.CountMode.fromParam(count));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("❌ Error fetching stock movements by cursor for user: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to load stock movements"));
+        }
+    }
+
     /**
      * Create new stock movement (AJAX)
      */
@@ -0,0 +1,64 @@
+package dev.oasis.stockify.controller.api;
+
+import dev.oasis.stockify.dto.InventoryValuationDTO;
+import dev.oasis.stockify.dto.ReorderSuggestionDTO;
+import dev.oasis.stockify.service.DemandForecastService;
+import dev.oasis.stockify.service.StockSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * Point-in-time inventory and valuation built from stock snapshots, and reorder suggestions
+ */
+@RestController
+@RequestMapping("/api/inventory")
+@PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+@RequiredArgsConstructor
+@Slf4j
+public class ApiInventoryController {
+
+    private final StockSnapshotService stockSnapshotService;
+    private final DemandForecastService demandForecastService;
+
+    @GetMapping("/at")
+    public ResponseEntity<InventoryValuationDTO> getInventoryAt(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        log.info("📸 API inventory request as of {}", asOf);
+        return ResponseEntity.ok(stockSnapshotService.getInventoryAt(asOf));
+    }
+
+    @GetMapping("/valuation/month-end")
+    public ResponseEntity<InventoryValuationDTO> getMonthEndValuation(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        log.info("📸 API month-end valuation request for {}", month);
+        return ResponseEntity.ok(stockSnapshotService.getMonthEndValuation(month));
+    }
+
+    @GetMapping("/reorder")
+    public ResponseEntity<Slice<ReorderSuggestionDTO>> getReorderSuggestions(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(demandForecastService.findReorderSuggestions(
+                PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 500))));
+    }
+
+    @PostMapping("/snapshots")
+    public ResponseEntity<Map<String, Object>> takeSnapshot() {
+        LocalDateTime snapshotAt = stockSnapshotService.takeSnapshot();
+        return ResponseEntity.ok(Map.of("snapshotAt", snapshotAt));
+    }
+}
@@ -0,0 +1,48 @@
+package dev.oasis.stockify.controller.api;
+
+import dev.oasis.stockify.config.tenant.TenantContext;
+import dev.oasis.stockify.service.ProductStreamService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Catalog sync for integrations: cursor-paginated product pages streamed from the database,
+ * with {@code fields=} to select only the needed fields
+ */
+@RestController
+@RequestMapping("/api/products")
+@PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ADMIN', 'USER')")
+@RequiredArgsConstructor
+@Slf4j
+public class ApiProductController {
+
+    private final ProductStreamService productStreamService;
+
+    @GetMapping
+    public void getProducts(@RequestParam(required = false) String cursor,
+                            @RequestParam(required = false) Integer limit,
+                            @RequestParam(required = false) String fields,
+                            HttpServletResponse response) throws IOException {
+        // validated before the first byte is written, so a bad request still gets a 400
+        List<String> selected = productStreamService.parseFields(fields);
+        long afterId = productStreamService.decodeCursor(cursor);
+        int pageSize = productStreamService.pageSize(limit);
+        String tenant = TenantContext.getCurrentTenant();
+        String schema = tenant != null ? tenant.toLowerCase(Locale.ROOT) : "public";
+
+        log.debug("📤 API product page after {} ({} rows, {} fields) for tenant {}", afterId, pageSize, selected.size(), schema);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        productStreamService.writePage(schema, selected, afterId, pageSize, response.getOutputStream());
+    }
+}
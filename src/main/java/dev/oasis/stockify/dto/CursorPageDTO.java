@@ -0,0 +1,42 @@
+package dev.oasis.stockify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) listing
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    /** Opaque token for the next page, null on the last page */
+    private String nextCursor;
+    /** Only set when a count mode other than NONE was requested */
+    private Long totalCount;
+    private boolean totalCountApproximate;
+
+    public enum CountMode {
+        NONE, EXACT, APPROXIMATE;
+
+        public static CountMode fromParam(String value) {
+            if (value == null || value.isBlank()) {
+                return NONE;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid count mode: " + value + ". Use none, exact or approximate");
+            }
+        }
+    }
+}
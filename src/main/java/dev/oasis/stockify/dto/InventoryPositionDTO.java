@@ -0,0 +1,27 @@
+package dev.oasis.stockify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Stock level of one product at a point in time
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryPositionDTO {
+    private Long productId;
+    private String title;
+    private String sku;
+    private String category;
+    private Integer stockLevel;
+    private BigDecimal unitPrice;
+    private BigDecimal value;
+    /** The product has been deleted since; title, sku and category come from the snapshot */
+    private boolean deleted;
+}
@@ -0,0 +1,27 @@
+package dev.oasis.stockify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inventory at a point in time, reconstructed from the nearest stock snapshot plus the movements in between
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryValuationDTO {
+    private LocalDateTime asOf;
+    /** Snapshot the result was replayed from, null when replayed back from the live stock levels */
+    private LocalDateTime snapshotAt;
+    private long productCount;
+    private long totalUnits;
+    private BigDecimal totalValue;
+    private List<InventoryPositionDTO> positions;
+}
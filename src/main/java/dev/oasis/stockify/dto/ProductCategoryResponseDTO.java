@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
  * DTO for displaying product category information
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonIgnoreProperties(ignoreUnknown = true)
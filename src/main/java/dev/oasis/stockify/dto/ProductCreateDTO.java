@@ -49,6 +49,10 @@ public class ProductCreateDTO {
     @Min(value = 1, message = "Düşük stok eşiği en az 1 olmalıdır")
     @Builder.Default
     private int lowStockThreshold = 5;
+
+    // when true the nightly reorder job maintains lowStockThreshold from demand
+    @Builder.Default
+    private Boolean autoThreshold = false;
     
     private String etsyProductId;
     
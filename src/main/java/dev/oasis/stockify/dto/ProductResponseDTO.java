@@ -24,6 +24,7 @@ public class ProductResponseDTO {
     private String description;
     private String sku;
     private String category;
+    private Long categoryId;
     private BigDecimal price;
     private Integer stockLevel;
     private Integer lowStockThreshold;
@@ -0,0 +1,18 @@
+package dev.oasis.stockify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Header numbers of the product list pages
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStatsDTO {
+    private long totalProducts;
+    private long lowStockCount;
+}
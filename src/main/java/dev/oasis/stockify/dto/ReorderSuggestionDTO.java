@@ -0,0 +1,33 @@
+package dev.oasis.stockify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Product at or below its computed reorder point with the suggested order quantity
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderSuggestionDTO {
+    private Long productId;
+    private String title;
+    private String sku;
+    private String category;
+    private Integer stockLevel;
+    private Integer lowStockThreshold;
+    private Integer reorderPoint;
+    private Integer safetyStock;
+    private Integer reorderQuantity;
+    private Double forecastDailyUsage;
+    private Integer daysRemaining;
+    private LocalDate depletionDate;
+    private String riskLevel;
+    private LocalDateTime computedAt;
+}
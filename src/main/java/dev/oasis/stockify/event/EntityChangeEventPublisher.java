@@ -0,0 +1,89 @@
+package dev.oasis.stockify.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bridges Hibernate post-commit entity events to Spring {@link EntityChangedEvent}s so caches and
+ * version counters can react to every write path, including plain repository saves.
+ * Bulk JPQL updates and raw JDBC writes do not produce events.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class EntityChangeEventPublisher implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        log.info("✅ Registered entity change listeners");
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getSession().getTenantIdentifier(), event.getEntity(), event.getId(), EntityChangedEvent.ChangeType.INSERT);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getSession().getTenantIdentifier(), event.getEntity(), event.getId(), EntityChangedEvent.ChangeType.UPDATE);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getSession().getTenantIdentifier(), event.getEntity(), event.getId(), EntityChangedEvent.ChangeType.DELETE);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // nothing changed
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // nothing changed
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // nothing changed
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+
+    private void publish(String tenantId, Object entity, Object id, EntityChangedEvent.ChangeType changeType) {
+        try {
+            applicationEventPublisher.publishEvent(
+                    new EntityChangedEvent(tenantId != null ? tenantId : "public", entity.getClass(), id, changeType, entity));
+        } catch (Exception e) {
+            // a failing listener must not surface as a failed commit
+            log.warn("⚠️ Entity change listener failed for {} {}: {}", entity.getClass().getSimpleName(), id, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package dev.oasis.stockify.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published after a transaction that inserted, updated or deleted an entity has committed
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class EntityChangedEvent {
+
+    public enum ChangeType { INSERT, UPDATE, DELETE }
+
+    private final String tenantId;
+    private final Class<?> entityType;
+    private final Object entityId;
+    private final ChangeType changeType;
+    /** The entity instance as it was flushed; do not modify */
+    private final Object entity;
+}
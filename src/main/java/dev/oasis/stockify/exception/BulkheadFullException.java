@@ -0,0 +1,19 @@
+package dev.oasis.stockify.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a tenant's bulkhead stays full for longer than the allowed wait
+ */
+@Getter
+public class BulkheadFullException extends RuntimeException {
+
+    private final String bulkhead;
+    private final String tenantId;
+
+    public BulkheadFullException(String bulkhead, String tenantId) {
+        super("Too many concurrent " + bulkhead + " operations for tenant " + tenantId + ", please retry shortly");
+        this.bulkhead = bulkhead;
+        this.tenantId = tenantId;
+    }
+}
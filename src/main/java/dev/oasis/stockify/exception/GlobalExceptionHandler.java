@@ -1,6 +1,7 @@
 package dev.oasis.stockify.exception;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -196,6 +197,19 @@ public class GlobalExceptionHandler {
         );        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
     }
 
+    // Handle tenant bulkhead rejections; the client may retry once the tenant's running operations finish
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<Object> handleBulkheadFullException(BulkheadFullException ex) {
+        Map<String, Object> body = createErrorResponse(
+            "Too Many Requests", 
+            ex.getMessage(), 
+            HttpStatus.TOO_MANY_REQUESTS
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, "5")
+            .body(body);
+    }
+
     // General exception handler as fallback
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleGeneralException(Exception ex) {
@@ -3,9 +3,11 @@ package dev.oasis.stockify.mapper;
 import dev.oasis.stockify.dto.ProductCreateDTO;
 import dev.oasis.stockify.dto.ProductResponseDTO;
 import dev.oasis.stockify.model.Product;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +31,7 @@ public class ProductMapper {
         product.setCategory(productCreateDTO.getCategory());        product.setPrice(productCreateDTO.getPrice());
         product.setStockLevel(productCreateDTO.getStockLevel());
         product.setLowStockThreshold(productCreateDTO.getLowStockThreshold());
+        product.setAutoThreshold(Boolean.TRUE.equals(productCreateDTO.getAutoThreshold()));
         product.setEtsyProductId(productCreateDTO.getEtsyProductId());
         product.setBarcode(productCreateDTO.getBarcode());
         product.setQrCode(productCreateDTO.getQrCode());
@@ -59,6 +62,10 @@ public class ProductMapper {
         product.setCategory(productCreateDTO.getCategory());
         product.setPrice(productCreateDTO.getPrice());
         product.setStockLevel(productCreateDTO.getStockLevel());
+        // a threshold changed by hand is no longer maintained by the reorder job
+        if (!Objects.equals(product.getLowStockThreshold(), productCreateDTO.getLowStockThreshold())) {
+            product.setAutoThreshold(Boolean.TRUE.equals(productCreateDTO.getAutoThreshold()));
+        }
         product.setLowStockThreshold(productCreateDTO.getLowStockThreshold());
         product.setBarcode(productCreateDTO.getBarcode());
         product.setQrCode(productCreateDTO.getQrCode());
@@ -103,7 +110,14 @@ public class ProductMapper {
         productResponseDTO.setTitle(product.getTitle());
         productResponseDTO.setDescription(product.getDescription());
         productResponseDTO.setSku(product.getSku());
-        productResponseDTO.setCategory(product.getCategory());        productResponseDTO.setPrice(product.getPrice());
+        if (product.getProductCategory() != null) {
+            productResponseDTO.setCategoryId(product.getProductCategory().getId());
+            // a read that did not fetch the category falls back to the stored name instead of failing outside the session
+            productResponseDTO.setCategory(Hibernate.isInitialized(product.getProductCategory())
+                    ? product.getProductCategory().getName() : product.getCategory());
+        } else {
+            productResponseDTO.setCategory(product.getCategory());
+        }        productResponseDTO.setPrice(product.getPrice());
         productResponseDTO.setStockLevel(product.getStockLevel());        productResponseDTO.setLowStockThreshold(product.getLowStockThreshold());        productResponseDTO.setEtsyProductId(product.getEtsyProductId());
         productResponseDTO.setBarcode(product.getBarcode());
         productResponseDTO.setQrCode(product.getQrCode());
@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class ContactMessage {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contact_messages_id_seq")
+    @SequenceGenerator(name = "contact_messages_id_seq", sequenceName = "contact_messages_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "first_name", nullable = false, length = 100)
@@ -4,22 +4,24 @@ package dev.oasis.stockify.model;
  * Enum for subscription plan types
  */
 public enum PlanType {
-    TRIAL("trial", 2, 100, 30, "Trial Plan"),
-    BASIC("basic", 5, 1000, -1, "Basic Plan"),
-    PREMIUM("premium", 20, -1, -1, "Premium Plan"),
-    ENTERPRISE("enterprise", -1, -1, -1, "Enterprise Plan");
+    TRIAL("trial", 2, 100, 30, 90, "Trial Plan"),
+    BASIC("basic", 5, 1000, -1, 365, "Basic Plan"),
+    PREMIUM("premium", 20, -1, -1, 730, "Premium Plan"),
+    ENTERPRISE("enterprise", -1, -1, -1, 1825, "Enterprise Plan");
     
     private final String code;
     private final int maxUsers;
     private final int maxProducts;
     private final int trialDays;
+    private final int movementRetentionDays;
     private final String displayName;
     
-    PlanType(String code, int maxUsers, int maxProducts, int trialDays, String displayName) {
+    PlanType(String code, int maxUsers, int maxProducts, int trialDays, int movementRetentionDays, String displayName) {
         this.code = code;
         this.maxUsers = maxUsers;
         this.maxProducts = maxProducts;
         this.trialDays = trialDays;
+        this.movementRetentionDays = movementRetentionDays;
         this.displayName = displayName;
     }
     
@@ -39,6 +41,13 @@ public enum PlanType {
         return trialDays; 
     }
     
+    /**
+     * Days stock movements stay in the database before they are moved to the archive
+     */
+    public int getMovementRetentionDays() {
+        return movementRetentionDays;
+    }
+    
     public String getDisplayName() { 
         return displayName; 
     }
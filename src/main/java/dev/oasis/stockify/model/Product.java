@@ -2,16 +2,23 @@ package dev.oasis.stockify.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
 @Table(name = "product")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_id_seq")
+    @SequenceGenerator(name = "product_id_seq", sequenceName = "product_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -24,9 +31,17 @@ public class Product {
     @Column(name = "description")
     private String description;
 
+    // Name as entered; display, filters and counts go through productCategory so a rename is a single-row update
     @Column(name = "category")
     private String category;
 
+    // lazy: repository reads that are rendered fetch it through the "productCategory" entity graph
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private ProductCategory productCategory;
+
     @Column(name = "price")
     private BigDecimal price;
 
@@ -35,6 +50,15 @@ public class Product {
 
     @Column(name = "low_stock_threshold")
     private Integer lowStockThreshold;    
+
+    // Maintained from the computed reorder point by the nightly forecast job
+    @Column(name = "auto_threshold")
+    private Boolean autoThreshold = false;
+
+    // Stored generated column, stock minus threshold; zero or below means low stock (partial index idx_product_low_stock)
+    @Column(name = "stock_headroom", insertable = false, updatable = false,
+            columnDefinition = "integer GENERATED ALWAYS AS (stock_level - low_stock_threshold) STORED")
+    private Integer stockHeadroom;
     
     @Column(name = "etsy_product_id")
     private String etsyProductId;
@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -14,13 +17,17 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "product_categories")
+@BatchSize(size = 100)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-category")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProductCategory {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_categories_id_seq")
+    @SequenceGenerator(name = "product_categories_id_seq", sequenceName = "product_categories_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 100)
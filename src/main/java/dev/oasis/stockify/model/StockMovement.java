@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class StockMovement {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movement_id_seq")
+    @SequenceGenerator(name = "stock_movement_id_seq", sequenceName = "stock_movement_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 @Table(name = "stock_notification")
 public class StockNotification {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_notification_id_seq")
+    @SequenceGenerator(name = "stock_notification_id_seq", sequenceName = "stock_notification_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
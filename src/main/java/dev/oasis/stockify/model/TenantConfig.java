@@ -1,6 +1,8 @@
 package dev.oasis.stockify.model;
 
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import jakarta.persistence.*;
 import java.util.Date;
@@ -10,6 +12,8 @@ import java.util.Date;
  */
 @Entity
 @Table(name = "tenant_config")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tenant-config")
 @Data
 public class TenantConfig {
     
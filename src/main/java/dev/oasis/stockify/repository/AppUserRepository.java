@@ -2,8 +2,11 @@ package dev.oasis.stockify.repository;
 
 import dev.oasis.stockify.model.AppUser;
 import dev.oasis.stockify.model.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
@@ -14,6 +17,7 @@ import java.util.Optional;
 
 @Repository
 public interface AppUserRepository extends JpaRepository<AppUser, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<AppUser> findByUsername(String username);
     
     Optional<AppUser> findByEmail(String email);
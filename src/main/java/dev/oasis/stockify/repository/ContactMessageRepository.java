@@ -3,6 +3,7 @@ package dev.oasis.stockify.repository;
 import dev.oasis.stockify.model.ContactMessage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -79,7 +80,7 @@ public interface ContactMessageRepository extends JpaRepository<ContactMessage,
            "(:isRead IS NULL OR cm.isRead = :isRead) AND " +
            "(:responded IS NULL OR cm.responded = :responded) " +
            "ORDER BY cm.createdAt DESC")
-    Page<ContactMessage> searchMessages(
+    Slice<ContactMessage> searchMessages(
         @Param("email") String email,
         @Param("subject") String subject,
         @Param("name") String name,
@@ -88,6 +89,28 @@ public interface ContactMessageRepository extends JpaRepository<ContactMessage,
         Pageable pageable
     );
     
+    /**
+     * Count messages matching the search criteria
+     */
+    @Query("SELECT COUNT(cm) FROM ContactMessage cm WHERE " +
+           "(:email IS NULL OR LOWER(cm.email) LIKE LOWER(CONCAT('%', :email, '%'))) AND " +
+           "(:subject IS NULL OR LOWER(cm.subject) LIKE LOWER(CONCAT('%', :subject, '%'))) AND " +
+           "(:name IS NULL OR LOWER(CONCAT(cm.firstName, ' ', cm.lastName)) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
+           "(:isRead IS NULL OR cm.isRead = :isRead) AND " +
+           "(:responded IS NULL OR cm.responded = :responded)")
+    long countSearchMessages(
+        @Param("email") String email,
+        @Param("subject") String subject,
+        @Param("name") String name,
+        @Param("isRead") Boolean isRead,
+        @Param("responded") Boolean responded
+    );
+
+    /**
+     * Find a page of messages without counting the table
+     */
+    Slice<ContactMessage> findAllBy(Pageable pageable);
+
     /**
      * Find all messages ordered by creation date (newest first)
      */
@@ -1,8 +1,11 @@
 package dev.oasis.stockify.repository;
 
 import dev.oasis.stockify.model.ProductCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -28,6 +31,12 @@ public interface ProductCategoryRepository extends JpaRepository<ProductCategory
      * Find category by name (case insensitive)
      */
     Optional<ProductCategory> findByNameIgnoreCase(String name);
+
+    /**
+     * Oldest category with the name (case insensitive), tolerating duplicates
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<ProductCategory> findFirstByNameIgnoreCaseOrderByIdAsc(String name);
     
     /**
      * Check if category name exists (case insensitive) excluding given id
@@ -42,6 +51,6 @@ public interface ProductCategoryRepository extends JpaRepository<ProductCategory
     /**
      * Get category with product count
      */
-    @Query("SELECT c FROM ProductCategory c LEFT JOIN Product p ON p.category = c.name WHERE c.id = :id")
+    @Query("SELECT c FROM ProductCategory c LEFT JOIN Product p ON p.productCategory = c WHERE c.id = :id")
     Optional<ProductCategory> findByIdWithProductCount(Long id);
 }
@@ -1,59 +1,103 @@
 package dev.oasis.stockify.repository;
 
 import dev.oasis.stockify.model.Product;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    @Query("SELECT p FROM Product p WHERE " +
+
+    // the category is lazy; every read whose products get rendered fetches it in the same statement
+    @Override
+    @EntityGraph(attributePaths = "productCategory")
+    List<Product> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "productCategory")
+    Optional<Product> findById(Long id);
+
+    @EntityGraph(attributePaths = "productCategory")
+    @Query("SELECT p FROM Product p LEFT JOIN p.productCategory c WHERE " +
+           "LOWER(p.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(c.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    Slice<Product> search(@Param("searchTerm") String searchTerm, Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Product p LEFT JOIN p.productCategory c WHERE " +
            "LOWER(p.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(p.category) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    Page<Product> search(@Param("searchTerm") String searchTerm, Pageable pageable);
+           "LOWER(c.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    long countSearch(@Param("searchTerm") String searchTerm);
 
+    @EntityGraph(attributePaths = "productCategory")
+    Slice<Product> findAllBy(Pageable pageable);
+
+    @EntityGraph(attributePaths = "productCategory")
     Optional<Product> findBySku(String sku);
     
-    @Query("SELECT p FROM Product p WHERE p.stockLevel <= p.lowStockThreshold")
-    List<Product> findLowStockProducts();
-    
-    @Query("SELECT COUNT(p) FROM Product p WHERE p.stockLevel <= p.lowStockThreshold")
+    /**
+     * Low-stock products, furthest below their threshold first; served by the partial index on stock_headroom
+     */
+    @EntityGraph(attributePaths = "productCategory")
+    @Query("SELECT p FROM Product p WHERE p.stockHeadroom <= 0 ORDER BY p.stockHeadroom, p.id")
+    Slice<Product> findLowStock(Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.stockHeadroom <= 0")
     long countLowStockProducts();
     
     @Query("SELECT COUNT(p) FROM Product p WHERE p.stockLevel = 0")
     long countOutOfStockProducts();
     
+    @EntityGraph(attributePaths = "productCategory")
     @Query("SELECT p FROM Product p WHERE p.isActive = true")
     List<Product> findActiveProducts();
 
     long countByIsActive(Boolean isActive);
 
-     @Query("SELECT p FROM Product p WHERE p.category = :category")
-    List<Product> findByCategory(@Param("category") String category);
+    @EntityGraph(attributePaths = "productCategory")
+    @Query("SELECT p FROM Product p WHERE p.productCategory.id = :categoryId")
+    List<Product> findByCategoryId(@Param("categoryId") Long categoryId);
     
-    @Query("SELECT COUNT(p) FROM Product p WHERE LOWER(p.category) = LOWER(:category)")
-    long countByCategoryIgnoreCase(@Param("category") String category);
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.productCategory.id = :categoryId")
+    long countByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT p.productCategory.id, COUNT(p) FROM Product p WHERE p.productCategory IS NOT NULL GROUP BY p.productCategory.id")
+    List<Object[]> countGroupedByCategory();
     
     @Query("SELECT COALESCE(SUM(p.price * p.stockLevel), 0) FROM Product p")
     Double calculateTotalInventoryValue();
+
+    @Query("SELECT COALESCE(SUM(p.stockLevel), 0) FROM Product p")
+    long sumStockLevel();
     
     // Barcode and QR Code related methods
+    @EntityGraph(attributePaths = "productCategory")
     Optional<Product> findByBarcode(String barcode);
     
+    @EntityGraph(attributePaths = "productCategory")
     Optional<Product> findByQrCode(String qrCode);
     
+    @EntityGraph(attributePaths = "productCategory")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Product> findByBarcodeAndScanEnabledTrue(String barcode);
     
+    @EntityGraph(attributePaths = "productCategory")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Product> findByQrCodeAndScanEnabledTrue(String qrCode);
     
     Optional<Product> findByBarcodeAndIdNot(String barcode, Long id);
     
     Optional<Product> findByQrCodeAndIdNot(String qrCode, Long id);
     
+    @EntityGraph(attributePaths = "productCategory")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT p FROM Product p WHERE (p.barcode = :scanCode OR p.qrCode = :scanCode) AND p.scanEnabled = true")
     Optional<Product> findByScanCodeAndScanEnabledTrue(@Param("scanCode") String scanCode);
 }
@@ -3,6 +3,7 @@ package dev.oasis.stockify.repository;
 import dev.oasis.stockify.model.StockMovement;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,7 +13,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 /**
- * Repository for stock movement operations
+ * Repository for stock movement operations.
+ * stock_movement is range partitioned by month on created_at: keep date filters as plain comparisons
+ * on sm.createdAt so Postgres can prune the partitions outside the range.
  */
 @Repository
 public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
@@ -45,7 +48,7 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
      * Find recent stock movements
      */
     @Query("SELECT sm FROM StockMovement sm JOIN FETCH sm.product ORDER BY sm.createdAt DESC")
-    Page<StockMovement> findRecent(Pageable pageable);
+    Slice<StockMovement> findRecent(Pageable pageable);
 
     /**
      * Count total stock movements
@@ -59,6 +62,12 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
     @Query("SELECT COUNT(sm) FROM StockMovement sm WHERE sm.movementType = :movementType")
     long countByMovementType(@Param("movementType") StockMovement.MovementType movementType);
 
+    /**
+     * Count stock movements per type in a single pass
+     */
+    @Query("SELECT sm.movementType, COUNT(sm) FROM StockMovement sm GROUP BY sm.movementType")
+    List<Object[]> countGroupedByMovementType();
+
     /**
      * Find stock movements by reference ID
      */
@@ -84,7 +93,7 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
             AND (:type IS NULL OR sm.movementType = :type)
         ORDER BY sm.createdAt DESC
     """)
-    Page<StockMovement> searchMovements(@Param("search") String search, @Param("type") StockMovement.MovementType type, Pageable pageable);
+    Slice<StockMovement> searchMovements(@Param("search") String search, @Param("type") StockMovement.MovementType type, Pageable pageable);
 
     /**
      * Find stock movements by product ID and movement type within date range
@@ -121,4 +130,92 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
     List<StockMovement> findByCreatedAtBetween(
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * First keyset page, newest first. Pass a Pageable of size + 1 to detect a next page.
+     */
+    @Query("""
+        SELECT sm FROM StockMovement sm
+        JOIN FETCH sm.product p
+        WHERE
+            (:search IS NULL OR LOWER(p.title) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(sm.referenceId) LIKE LOWER(CONCAT('%', :search, '%')))
+            AND (:type IS NULL OR sm.movementType = :type)
+        ORDER BY sm.createdAt DESC, sm.id DESC
+    """)
+    List<StockMovement> findKeysetFirst(@Param("search") String search,
+                                        @Param("type") StockMovement.MovementType type,
+                                        Pageable pageable);
+
+    /**
+     * Keyset page seeking past (createdAt, id) of the last row of the previous page
+     */
+    @Query("""
+        SELECT sm FROM StockMovement sm
+        JOIN FETCH sm.product p
+        WHERE
+            (sm.createdAt, sm.id) < (:createdAt, :id)
+            AND (:search IS NULL OR LOWER(p.title) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(sm.referenceId) LIKE LOWER(CONCAT('%', :search, '%')))
+            AND (:type IS NULL OR sm.movementType = :type)
+        ORDER BY sm.createdAt DESC, sm.id DESC
+    """)
+    List<StockMovement> findKeysetAfter(@Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        @Param("search") String search,
+                                        @Param("type") StockMovement.MovementType type,
+                                        Pageable pageable);
+
+    /**
+     * Chunk of a date range, oldest first, seeking past (createdAt, id) of the last row of the previous chunk
+     */
+    @Query("""
+        SELECT sm FROM StockMovement sm
+        JOIN FETCH sm.product
+        WHERE sm.createdAt BETWEEN :startDate AND :endDate
+            AND (sm.createdAt, sm.id) > (:createdAt, :id)
+        ORDER BY sm.createdAt, sm.id
+    """)
+    List<StockMovement> findRangeChunkAfter(@Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    /**
+     * Exact count for the search filters used by the keyset listing
+     */
+    @Query("""
+        SELECT COUNT(sm) FROM StockMovement sm
+        JOIN sm.product p
+        WHERE
+            (:search IS NULL OR LOWER(p.title) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(sm.referenceId) LIKE LOWER(CONCAT('%', :search, '%')))
+            AND (:type IS NULL OR sm.movementType = :type)
+    """)
+    long countMovements(@Param("search") String search, @Param("type") StockMovement.MovementType type);
+
+    /**
+     * Count for the search filters, stopping once the cap is reached
+     */
+    @Query(value = """
+        SELECT COUNT(*) FROM (
+            SELECT 1 FROM stock_movement sm
+            JOIN product p ON p.id = sm.product_id
+            WHERE
+                (CAST(:search AS varchar) IS NULL
+                    OR LOWER(p.title) LIKE LOWER('%' || CAST(:search AS varchar) || '%')
+                    OR LOWER(sm.reference_id) LIKE LOWER('%' || CAST(:search AS varchar) || '%'))
+                AND (CAST(:type AS varchar) IS NULL OR sm.movement_type = CAST(:type AS varchar))
+            LIMIT :cap
+        ) capped
+    """, nativeQuery = true)
+    long countMovementsCapped(@Param("search") String search, @Param("type") String type, @Param("cap") int cap);
+
+    /**
+     * Row estimate from planner statistics for the current tenant's stock_movement table, summed over its partitions
+     */
+    @Query(value = """
+        SELECT CAST(SUM(c.reltuples) FILTER (WHERE c.reltuples >= 0) AS bigint) FROM pg_class c
+        WHERE (c.oid = to_regclass('stock_movement') AND c.relkind = 'r')
+           OR c.oid IN (SELECT i.inhrelid FROM pg_inherits i WHERE i.inhparent = to_regclass('stock_movement'))
+    """, nativeQuery = true)
+    Long estimateRowCount();
 }
@@ -17,6 +17,8 @@ public interface StockNotificationRepository extends JpaRepository<StockNotifica
     List<StockNotification> findAll();
 
     boolean existsByProductAndReadFalse(Product product);
+
+    long countByReadFalse();
     
     @Modifying
     @Query("UPDATE StockNotification n SET n.read = true, n.readAt = CURRENT_TIMESTAMP WHERE n.read = false")
@@ -9,6 +9,7 @@ import dev.oasis.stockify.model.Product;
 import dev.oasis.stockify.model.StockMovement;
 import dev.oasis.stockify.repository.ProductRepository;
 import dev.oasis.stockify.util.ServiceTenantUtil;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -62,6 +63,7 @@ public class BarcodeService {
      * Process barcode scan for stock operations
      */
     @Transactional
+    @Timed(value = "stockify.barcode.scan", description = "Barcode scan processing latency")
     public BarcodeScanResponseDTO processScan(BarcodeScanRequestDTO scanRequest, Long userId) {
         log.info("📱 Processing {} scan: {} with action: {}", 
                 scanRequest.getScanType().getDisplayName(), 
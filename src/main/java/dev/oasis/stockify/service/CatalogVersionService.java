@@ -0,0 +1,117 @@
+package dev.oasis.stockify.service;
+
+import dev.oasis.stockify.event.EntityChangedEvent;
+import dev.oasis.stockify.model.Product;
+import dev.oasis.stockify.model.ProductCategory;
+import dev.oasis.stockify.model.StockMovement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-tenant version of the product catalog, bumped on every product, category or stock write and exposed as a strong ETag,
+ * so product JSON endpoints can answer a matching If-None-Match with 304 before touching the database.
+ * Versions live in memory: the tag carries this node's start epoch, so a restart yields a new tag rather than a
+ * false 304, and a time bucket bounds how long a write made on another instance can go unnoticed.
+ * Per-product versions let caches of one product's data outlive writes to other products.
+ */
+@Service
+@Slf4j
+public class CatalogVersionService {
+
+    @Value("${stockify.catalog.etag-ttl-seconds:60}")
+    private long etagTtlSeconds;
+
+    /** Distinguishes versions of this node's run from those of a previous one */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> productVersions = new ConcurrentHashMap<>();
+    /** Bumps that name no product, which therefore change every product's version */
+    private final Map<String, AtomicLong> bulkVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Current strong ETag of the tenant's catalog, quoted as sent in the header
+     */
+    public String etag(String tenantId) {
+        long version = counter(versions, normalize(tenantId)).get();
+        long bucket = System.currentTimeMillis() / Math.max(1, etagTtlSeconds * 1000);
+        return "\"" + epoch + "-" + version + "-" + Long.toString(bucket, 36) + "\"";
+    }
+
+    /**
+     * Current version of the tenant's catalog, or of one product of it when the id is given
+     */
+    public String version(String tenantId, Long productId) {
+        String tenant = normalize(tenantId);
+        if (productId == null) {
+            return Long.toString(counter(versions, tenant).get());
+        }
+        return counter(bulkVersions, tenant).get() + "." + counter(productVersions, tenant + "|" + productId).get();
+    }
+
+    /**
+     * Whether an If-None-Match header names the tag; weak comparison, as RFC 9110 asks for If-None-Match
+     */
+    public boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Mark the tenant's catalog as changed; for writes that bypass Hibernate events
+     */
+    public void bump(String tenantId) {
+        String tenant = normalize(tenantId);
+        counter(bulkVersions, tenant).incrementAndGet();
+        counter(versions, tenant).incrementAndGet();
+    }
+
+    /**
+     * Mark one product of the tenant as changed
+     */
+    public void bump(String tenantId, Long productId) {
+        String tenant = normalize(tenantId);
+        if (productId != null) {
+            counter(productVersions, tenant + "|" + productId).incrementAndGet();
+        }
+        counter(versions, tenant).incrementAndGet();
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.getEntityType() == Product.class) {
+            bump(event.getTenantId(), event.getEntityId() instanceof Long id ? id : null);
+        } else if (event.getEntityType() == StockMovement.class) {
+            StockMovement movement = (StockMovement) event.getEntity();
+            bump(event.getTenantId(), movement != null && movement.getProduct() != null ? movement.getProduct().getId() : null);
+        } else if (event.getEntityType() == ProductCategory.class) {
+            // products render their category's name, so a rename or deletion changes every product
+            bump(event.getTenantId());
+        }
+    }
+
+    private AtomicLong counter(Map<String, AtomicLong> counters, String key) {
+        return counters.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    private String normalize(String tenantId) {
+        return tenantId != null ? tenantId.toLowerCase(Locale.ROOT) : "public";
+    }
+}
@@ -0,0 +1,65 @@
+package dev.oasis.stockify.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Moves products from the free-text category column to a foreign key on product_categories.
+ * Category names used by products but missing from product_categories are created first, then every
+ * product without a key is mapped by case-insensitive name. Safe to run on every startup: only
+ * products that still have no key are touched.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CategoryKeyMigrationService {
+
+    /** product_categories.name is varchar(100) */
+    private static final String CATEGORY_NAME = "lower(left(trim(p.category), 100))";
+
+    private final DataSource dataSource;
+
+    /**
+     * Add the category key to a schema's products and backfill it from the category names
+     */
+    public void migrateSchema(String schema) {
+        String product = "\"" + schema + "\".product";
+        String categories = "\"" + schema + "\".product_categories";
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("ALTER TABLE " + product + " ADD COLUMN IF NOT EXISTS category_id bigint");
+
+            int created = stmt.executeUpdate("INSERT INTO " + categories +
+                    " (name, description, is_active, sort_order, created_at, updated_at)" +
+                    " SELECT min(left(trim(p.category), 100)), 'Created from existing products', true, 100, now(), now()" +
+                    " FROM " + product + " p" +
+                    " WHERE p.category_id IS NULL AND trim(p.category) <> ''" +
+                    " AND NOT EXISTS (SELECT 1 FROM " + categories + " c WHERE lower(c.name) = " + CATEGORY_NAME + ")" +
+                    " GROUP BY " + CATEGORY_NAME);
+
+            int mapped = stmt.executeUpdate("UPDATE " + product + " p SET category_id =" +
+                    " (SELECT min(c.id) FROM " + categories + " c WHERE lower(c.name) = " + CATEGORY_NAME + ")" +
+                    " WHERE p.category_id IS NULL AND trim(p.category) <> ''");
+
+            stmt.execute("DO $$ BEGIN" +
+                    " IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'product_category_id_fkey'" +
+                    " AND conrelid = '" + product.replace("'", "''") + "'::regclass) THEN" +
+                    " ALTER TABLE " + product + " ADD CONSTRAINT product_category_id_fkey" +
+                    " FOREIGN KEY (category_id) REFERENCES " + categories + "(id);" +
+                    " END IF; END $$");
+
+            if (created > 0 || mapped > 0) {
+                log.info("🏷️ Category keys backfilled in schema {}: {} categories created, {} products mapped",
+                        schema, created, mapped);
+            }
+        } catch (SQLException e) {
+            log.error("❌ Error migrating category keys in schema {}: {}", schema, e.getMessage());
+            throw new RuntimeException("Failed to migrate category keys in schema: " + schema, e);
+        }
+    }
+}
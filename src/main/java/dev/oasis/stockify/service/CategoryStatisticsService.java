@@ -0,0 +1,49 @@
+package dev.oasis.stockify.service;
+
+import dev.oasis.stockify.model.Product;
+import dev.oasis.stockify.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Product counts per category from a single GROUP BY on the category key, cached per tenant until a product changes
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CategoryStatisticsService {
+
+    private final ProductRepository productRepository;
+    private final CountingService countingService;
+
+    /**
+     * Product count per category id
+     */
+    public Map<Long, Long> getProductCountsByCategory() {
+        return countingService.cached(Product.class, "category-counts", () -> {
+            List<Object[]> rows = productRepository.countGroupedByCategory();
+            Map<Long, Long> counts = new HashMap<>(rows.size() * 2);
+            for (Object[] row : rows) {
+                counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+            }
+            log.debug("📊 Loaded product counts for {} categories", counts.size());
+            return Collections.unmodifiableMap(counts);
+        });
+    }
+
+    /**
+     * Products in a category
+     */
+    public long getProductCount(Long categoryId) {
+        if (categoryId == null) {
+            return 0;
+        }
+        return getProductCountsByCategory().getOrDefault(categoryId, 0L);
+    }
+}
@@ -9,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +29,7 @@ public class ContactMessageService {
     
     private final ContactMessageRepository contactMessageRepository;
     private final ContactMessageMapper contactMessageMapper;
+    private final CountingService countingService;
     
     /**
      * Save a new contact message
@@ -67,7 +69,8 @@ public class ContactMessageService {
     @Transactional(readOnly = true)
     public Page<ContactMessage> getAllContactMessages(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return contactMessageRepository.findAll(pageable);
+        Slice<ContactMessage> messages = contactMessageRepository.findAllBy(pageable);
+        return countingService.page(messages, ContactMessage.class, contactMessageRepository::count);
     }
     
     /**
@@ -142,10 +145,13 @@ public class ContactMessageService {
      * Search messages
      */
     @Transactional(readOnly = true)
-    public Page<ContactMessage> searchMessages(String email, String subject, String name, 
+    public Slice<ContactMessage> searchMessages(String email, String subject, String name, 
                                              Boolean isRead, Boolean responded, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return contactMessageRepository.searchMessages(email, subject, name, isRead, responded, pageable);
+        Slice<ContactMessage> messages = contactMessageRepository.searchMessages(email, subject, name, isRead, responded, pageable);
+        String filterKey = email + "|" + subject + "|" + name + "|" + isRead + "|" + responded;
+        return countingService.filteredPage(messages, ContactMessage.class, filterKey,
+                () -> contactMessageRepository.countSearchMessages(email, subject, name, isRead, responded));
     }
     
     /**
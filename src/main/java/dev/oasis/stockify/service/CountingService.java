@@ -0,0 +1,181 @@
+package dev.oasis.stockify.service;
+
+import dev.oasis.stockify.config.metrics.TenantMetrics;
+import dev.oasis.stockify.event.EntityChangedEvent;
+import dev.oasis.stockify.util.ServiceTenantUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Row counts for list pages without running COUNT(*) on every request.
+ * <ul>
+ *     <li>unfiltered totals come from planner statistics once a table is larger than the estimate threshold</li>
+ *     <li>exact counts are cached per tenant and invalidated when the entity's version changes</li>
+ *     <li>filtered listings on large tables return a plain {@link Slice} that only knows whether a next page exists</li>
+ * </ul>
+ * Versions are bumped from {@link EntityChangedEvent}s, with a TTL as a backstop for writes that
+ * bypass Hibernate events and for other application instances.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CountingService {
+
+    private final ServiceTenantUtil serviceTenantUtil;
+    private final TenantMetrics tenantMetrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${stockify.counting.estimate-threshold:100000}")
+    private long estimateThreshold;
+
+    @Value("${stockify.counting.cache-ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    @Value("${stockify.counting.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<String, CachedValue> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Row estimate from planner statistics, or -1 when the table (or none of its partitions) has been analyzed
+     */
+    public long estimate(Class<?> entityType) {
+        String schema = currentTenant();
+        // partitioned parents have no statistics of their own, so sum over the partitions
+        Object result = entityManager.createNativeQuery(
+                        "SELECT CAST(SUM(c.reltuples) FILTER (WHERE c.reltuples >= 0) AS bigint) FROM pg_class c " +
+                        "WHERE (c.oid = to_regclass(CAST(:relation AS text)) AND c.relkind = 'r') " +
+                        "OR c.oid IN (SELECT i.inhrelid FROM pg_inherits i WHERE i.inhparent = to_regclass(CAST(:relation AS text)))")
+                .setParameter("relation", "\"" + schema + "\"." + tableName(entityType))
+                .getResultList()
+                .stream()
+                .findFirst()
+                .orElse(null);
+        return result != null ? ((Number) result).longValue() : -1;
+    }
+
+    /**
+     * Whether the table is large enough that exact counts should be avoided
+     */
+    public boolean isLarge(Class<?> entityType) {
+        return estimate(entityType) >= estimateThreshold;
+    }
+
+    /**
+     * Total rows of an unfiltered table: the planner estimate for large tables, otherwise a cached exact count
+     */
+    public long totalCount(Class<?> entityType, Supplier<Long> exactCounter) {
+        long estimate = estimate(entityType);
+        if (estimate >= estimateThreshold) {
+            return estimate;
+        }
+        return cached(entityType, "total", exactCounter);
+    }
+
+    /**
+     * Exact value cached for the current tenant until the entity's version changes or the TTL expires
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T cached(Class<?> entityType, String key, Supplier<T> loader) {
+        String tenant = currentTenant();
+        String versionKey = tenant + "|" + entityType.getSimpleName();
+        String cacheKey = versionKey + "|" + key;
+        long version = versions.computeIfAbsent(versionKey, k -> new AtomicLong()).get();
+        long now = System.currentTimeMillis();
+
+        CachedValue entry = cache.get(cacheKey);
+        if (entry != null && entry.version == version && now - entry.computedAt < cacheTtlSeconds * 1000) {
+            tenantMetrics.cacheAccess("counts", tenant, true);
+            return (T) entry.value;
+        }
+        tenantMetrics.cacheAccess("counts", tenant, false);
+
+        T value = loader.get();
+        if (cache.size() >= maxEntries) {
+            log.debug("🧹 Count cache reached {} entries, clearing", maxEntries);
+            cache.clear();
+        }
+        // store the version read before loading so a concurrent write invalidates this entry
+        cache.put(cacheKey, new CachedValue(version, now, value));
+        return value;
+    }
+
+    /**
+     * Page for an unfiltered listing
+     */
+    public <T> Page<T> page(Slice<T> slice, Class<?> entityType, Supplier<Long> exactCounter) {
+        if (!slice.hasNext() && slice.getNumber() == 0) {
+            return new PageImpl<>(slice.getContent(), slice.getPageable(), slice.getNumberOfElements());
+        }
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), totalCount(entityType, exactCounter));
+    }
+
+    /**
+     * Filtered listing: a {@link Page} with a cached exact count on normal tables; on large ones the slice itself,
+     * so callers render previous/next instead of a total they do not have
+     */
+    public <T> Slice<T> filteredPage(Slice<T> slice, Class<?> entityType, String filterKey, Supplier<Long> exactCounter) {
+        if (!slice.hasNext() && slice.getNumber() == 0) {
+            return new PageImpl<>(slice.getContent(), slice.getPageable(), slice.getNumberOfElements());
+        }
+        if (isLarge(entityType)) {
+            return slice;
+        }
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), cached(entityType, "filter:" + filterKey, exactCounter));
+    }
+
+    /**
+     * Invalidate the cached counts of an entity type for a tenant
+     */
+    public void invalidate(String tenantId, Class<?> entityType) {
+        versions.computeIfAbsent(normalize(tenantId) + "|" + entityType.getSimpleName(), k -> new AtomicLong()).incrementAndGet();
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        invalidate(event.getTenantId(), event.getEntityType());
+    }
+
+    private String currentTenant() {
+        return normalize(serviceTenantUtil.getCurrentTenant());
+    }
+
+    // tenants from a JWT or login body keep their casing, cache entries are keyed lowercase
+    private String normalize(String tenantId) {
+        return tenantId != null ? tenantId.toLowerCase(Locale.ROOT) : "public";
+    }
+
+    private String tableName(Class<?> entityType) {
+        Table table = entityType.getAnnotation(Table.class);
+        if (table == null || table.name().isEmpty()) {
+            throw new IllegalArgumentException("No @Table name on " + entityType.getSimpleName());
+        }
+        return table.name();
+    }
+
+    @AllArgsConstructor
+    private static class CachedValue {
+        private final long version;
+        private final long computedAt;
+        private final Object value;
+    }
+}
@@ -1,9 +1,9 @@
 package dev.oasis.stockify.service;
 
+import dev.oasis.stockify.config.tenant.Coalesced;
 import dev.oasis.stockify.dto.DashboardMetricsDTO;
 import dev.oasis.stockify.dto.DashboardStatsDTO;
 import dev.oasis.stockify.dto.StockMovementResponseDTO;
-import dev.oasis.stockify.model.Product;
 import dev.oasis.stockify.repository.AppUserRepository;
 import dev.oasis.stockify.repository.ProductRepository;
 import dev.oasis.stockify.repository.StockNotificationRepository;
@@ -33,6 +33,7 @@ public class DashboardService {
         meterRegistry.gauge("sales.daily", 0.0);
     }   
     
+    @Coalesced("dashboard-metrics")
     public DashboardMetricsDTO getDashboardMetrics() {
         String currentTenant = serviceTenantUtil.getCurrentTenant();
         log.debug("🏢 Getting dashboard metrics for tenant: {}", currentTenant);
@@ -193,16 +194,10 @@ public class DashboardService {
     }
 
     public DashboardStatsDTO getDashboardStats() {
-        List<Product> products = productRepository.findAll();
-
-        long totalProducts = products.size();
-        int totalStock = products.stream()
-                .mapToInt(Product::getStockLevel)
-                .sum();
-
-        long lowStockCount = products.stream()
-                .filter(Product::isLowStock)
-                .count();
+        // aggregates in the database instead of loading every product
+        long totalProducts = productRepository.count();
+        int totalStock = (int) Math.min(productRepository.sumStockLevel(), Integer.MAX_VALUE);
+        long lowStockCount = productRepository.countLowStockProducts();
 
         return new DashboardStatsDTO(totalProducts, totalStock, lowStockCount);
     }
@@ -8,8 +8,6 @@ import dev.oasis.stockify.repository.ContactMessageRepository;
 import dev.oasis.stockify.util.ServiceTenantUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.CommandLineRunner;
-import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,21 +15,30 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
- * Database initialization service that creates tenant schemas and waits for JPA to create tables
- * Then initializes data after tables are available
+ * Database initialization service that creates tenant schemas and tables and seeds the core users.
+ * Driven by {@link dev.oasis.stockify.config.startup.StartupOrchestrator}, which runs the per-schema
+ * steps in parallel and only proceeds once the tables are verified to exist.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Order(1)
-public class DatabaseInitializationService implements CommandLineRunner {
+public class DatabaseInitializationService {
+
+    /** Tenant schema names that are safe to splice into SQL */
+    static final Pattern SCHEMA_NAME = Pattern.compile("^[a-z][a-z0-9_]*$");
 
     private final DataSource dataSource;
     private final AppUserRepository appUserRepository;
@@ -42,128 +49,116 @@ public class DatabaseInitializationService implements CommandLineRunner {
     // List of tenant schemas to create
     private final List<String> tenantSchemas = Arrays.asList("public", "com", "rezonans");
 
-    @Override
-    public void run(String... args) throws Exception {
-        log.info("🚀 Starting database initialization...");
-        
-        try {
-            // 1. Create schemas first
-            createSchemas();
-            
-            // 2. Create tables in all schemas
-            createTablesInAllSchemas();
-            
-            // 3. Wait for JPA to be ready, then initialize data
-            initializeDataWithRetry();
-            
-            log.info("✅ Database initialization completed successfully!");
-            
-        } catch (Exception e) {
-            log.error("❌ Database initialization failed: {}", e.getMessage(), e);
-            // Don't throw exception to allow app to start
-            log.warn("⚠️ App will continue without initial data");
-        }
+    public List<String> getTenantSchemas() {
+        return tenantSchemas;
     }
 
     /**
-     * Initialize data with retry mechanism - waits for JPA to create tables
+     * Verify in a single query that the tables exist in every tenant schema.
+     * Table creation is synchronous, so this is a readiness check rather than a wait loop.
      */
-    private void initializeDataWithRetry() {
-        log.info("⏳ Waiting for JPA to create tables before initializing data...");
-        
-        // Try to initialize data with retries to wait for JPA table creation
-        int maxRetries = 10;
-        int retryDelay = 2000; // 2 seconds
-        
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            try {
-                log.info("📊 Attempting data initialization (attempt {}/{})", attempt, maxRetries);
-                
-                // Check if tables exist and initialize data
-                if (tablesExist()) {
-                    initializeData();
-                    log.info("✅ Data initialization successful on attempt {}", attempt);
-                    return;
-                } else {
-                    log.info("⏳ Tables not yet created by JPA, waiting...");
-                }
-                
-                // Wait before next attempt
-                if (attempt < maxRetries) {
-                    Thread.sleep(retryDelay);
-                }
-                
-            } catch (Exception e) {
-                log.warn("⚠️ Attempt {} failed: {}", attempt, e.getMessage());
-                
-                if (attempt < maxRetries) {
-                    try {
-                        Thread.sleep(retryDelay);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                } else {
-                    log.error("❌ All {} attempts failed. Data initialization skipped.", maxRetries);
+    public void verifyTablesReady() {
+        String sql = "SELECT table_schema FROM information_schema.tables " +
+                     "WHERE table_name = 'app_user' AND table_schema = ANY (?)";
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setArray(1, connection.createArrayOf("varchar", tenantSchemas.toArray()));
+
+            Set<String> ready = new HashSet<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ready.add(rs.getString(1));
                 }
             }
+
+            List<String> missing = tenantSchemas.stream().filter(s -> !ready.contains(s)).toList();
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("Tables missing in schemas: " + missing);
+            }
+            log.info("✓ Tables exist in all schemas: {}", tenantSchemas);
+
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to verify tenant tables: " + e.getMessage(), e);
         }
-        
-        log.warn("⚠️ Data initialization skipped - tables may not be ready yet");
     }
 
     /**
-     * Check if required tables exist in all tenant schemas
+     * List every schema that contains the tenant tables, including tenants created at runtime
      */
-    private boolean tablesExist() {
-        try (Connection connection = dataSource.getConnection()) {
-            DatabaseMetaData metaData = connection.getMetaData();
-            
-            // Check for app_user table in all schemas
-            for (String schema : tenantSchemas) {
-                try (ResultSet rs = metaData.getTables(null, schema, "app_user", new String[]{"TABLE"})) {
-                    if (!rs.next()) {
-                        log.debug("❌ Table app_user does not exist yet in {} schema", schema);
-                        return false;
-                    }
-                }
+    public List<String> findProvisionedSchemas() {
+        String sql = "SELECT DISTINCT table_schema FROM information_schema.tables " +
+                     "WHERE table_name = 'stock_movement' ORDER BY table_schema";
+        List<String> schemas = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                schemas.add(rs.getString(1));
             }
-            
-            log.debug("✓ Tables exist in all schemas");
-            return true;
-            
-        } catch (Exception e) {
-            log.debug("❌ Error checking table existence: {}", e.getMessage());
-            return false;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to list tenant schemas: " + e.getMessage(), e);
         }
+        return schemas;
     }
 
     /**
-     * Initialize data for all tenants
+     * Find the tenants that already have users and products (and the superadmin for public)
+     * with one UNION ALL query instead of several repository calls per tenant.
      */
-    private void initializeData() {
-        log.info("📊 Initializing database data...");
-        
-        for (String tenant : tenantSchemas) {
-            try {
-                log.info("🔄 Initializing data for tenant: {}", tenant);
-                serviceTenantUtil.setCurrentTenant(tenant);
-                
-                if ("public".equals(tenant)) {
-                    initializePublicSchemaData();
-                } else {
-                    initializeTenantSpecificData(tenant);
+    public Set<String> findInitializedTenants(List<String> tenants) {
+        if (tenants.isEmpty()) {
+            return Set.of();
+        }
+
+        StringBuilder sql = new StringBuilder();
+        for (String tenant : tenants) {
+            if (!SCHEMA_NAME.matcher(tenant).matches()) {
+                throw new IllegalArgumentException("Invalid tenant schema name: " + tenant);
+            }
+            if (sql.length() > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("SELECT '").append(tenant).append("' AS tenant_id, ")
+               .append("EXISTS (SELECT 1 FROM ").append(tenant).append(".app_user) ")
+               .append("AND EXISTS (SELECT 1 FROM ").append(tenant).append(".product)");
+            if ("public".equals(tenant)) {
+                sql.append(" AND EXISTS (SELECT 1 FROM public.app_user WHERE username = 'superadmin')");
+            }
+            sql.append(" AS initialized");
+        }
+
+        Set<String> initialized = new HashSet<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql.toString())) {
+            while (rs.next()) {
+                if (rs.getBoolean("initialized")) {
+                    initialized.add(rs.getString("tenant_id"));
                 }
-                
-                log.info("✅ Data initialized for tenant: {}", tenant);
-                
-            } catch (Exception e) {
-                log.error("❌ Error initializing data for tenant {}: {}", tenant, e.getMessage());
-                // Continue with other tenants
-            } finally {
-                serviceTenantUtil.clearCurrentTenant();
             }
+        } catch (SQLException e) {
+            // assuming none would seed every existing tenant a second time
+            log.error("❌ Could not check tenant initialization state: {}", e.getMessage());
+            throw new RuntimeException("Failed to check tenant initialization state", e);
         }
+        return initialized;
+    }
+
+    /**
+     * Initialize core data (admin users, contact message) for a single tenant
+     */
+    public void initializeCoreData(String tenant) {
+        log.info("🔄 Initializing data for tenant: {}", tenant);
+        serviceTenantUtil.executeInTenant(tenant, () -> {
+            if ("public".equals(tenant)) {
+                initializePublicSchemaData();
+            } else {
+                initializeTenantSpecificData(tenant);
+            }
+            return null;
+        });
+        log.info("✅ Data initialized for tenant: {}", tenant);
     }
 
     /**
@@ -210,7 +205,7 @@ public class DatabaseInitializationService implements CommandLineRunner {
     /**
      * Create all tenant schemas
      */
-    private void createSchemas() {
+    public void createSchemas() {
         log.info("📋 Creating database schemas...");
         
         try (Connection connection = dataSource.getConnection()) {
@@ -244,27 +239,10 @@ public class DatabaseInitializationService implements CommandLineRunner {
         }
     }
 
-    /**
-     * Create tables in all tenant schemas using JPA
-     */
-    private void createTablesInAllSchemas() {
-        log.info("🗃️ Creating tables in all tenant schemas...");
-        
-        for (String schema : tenantSchemas) {
-            try {
-                log.info("📋 Creating tables in schema: {}", schema);
-                createTablesInSchema(schema);
-                log.info("✅ Tables created in schema: {}", schema);
-            } catch (Exception e) {
-                log.error("❌ Failed to create tables in schema {}: {}", schema, e.getMessage());
-            }
-        }
-    }
-
     /**
      * Create tables in a specific schema using raw SQL
      */
-    private void createTablesInSchema(String schema) {
+    public void createTablesInSchema(String schema) {
         try (Connection connection = dataSource.getConnection();
              Statement stmt = connection.createStatement()) {
             
@@ -332,9 +310,12 @@ public class DatabaseInitializationService implements CommandLineRunner {
                 "    description varchar(255)," +
                 "    sku varchar(255) UNIQUE," +
                 "    category varchar(255)," +
+                "    category_id bigint REFERENCES " + schema + ".product_categories(id)," +
                 "    price numeric(38,2)," +
                 "    stock_level integer," +
                 "    low_stock_threshold integer," +
+                "    auto_threshold boolean DEFAULT FALSE," +
+                "    stock_headroom integer GENERATED ALWAYS AS (stock_level - low_stock_threshold) STORED," +
                 "    is_active boolean," +
                 "    is_featured boolean," +
                 "    etsy_product_id varchar(255)," +
@@ -348,7 +329,7 @@ public class DatabaseInitializationService implements CommandLineRunner {
                 ")",
                 
                 "CREATE TABLE IF NOT EXISTS " + schema + ".stock_movement (" +
-                "    id bigserial PRIMARY KEY," +
+                "    id bigserial," +
                 "    product_id bigint NOT NULL," +
                 "    movement_type varchar(255) NOT NULL CHECK (movement_type IN ('IN','OUT','ADJUSTMENT','RETURN','TRANSFER','DAMAGED','EXPIRED'))," +
                 "    quantity integer NOT NULL," +
@@ -356,10 +337,11 @@ public class DatabaseInitializationService implements CommandLineRunner {
                 "    new_stock integer NOT NULL," +
                 "    notes varchar(255)," +
                 "    reference_id varchar(255)," +
-                "    created_at timestamp(6)," +
+                "    created_at timestamp(6) NOT NULL," +
                 "    created_by bigint," +
+                "    PRIMARY KEY (id, created_at)," +
                 "    FOREIGN KEY (product_id) REFERENCES " + schema + ".product(id)" +
-                ")",
+                ") PARTITION BY RANGE (created_at)",
                 
                 "CREATE TABLE IF NOT EXISTS " + schema + ".stock_notification (" +
                 "    id bigserial PRIMARY KEY," +
@@ -0,0 +1,450 @@
+package dev.oasis.stockify.service;
+
+import dev.oasis.stockify.config.datasource.TenantWriteTracker;
+import dev.oasis.stockify.dto.ReorderSuggestionDTO;
+import dev.oasis.stockify.model.Product;
+import dev.oasis.stockify.util.DemandForecaster;
+import dev.oasis.stockify.util.ServiceTenantUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nightly demand forecast for every product of every tenant.
+ * Products are processed in id-ordered chunks: the outbound history of a chunk (hot partitions plus the daily
+ * rollups of archived months) is streamed once into one primitive per-product daily array, the models are
+ * fitted for all products in parallel on a fork-join pool and the results are upserted in JDBC batches into
+ * {@code product_forecast}. The chunk arrays are reused, so memory is bounded by chunk-size x history-days ints.
+ * The same pass computes reorder points (lead-time demand plus safety stock from the forecast error) and
+ * suggested order quantities, and copies the reorder point into {@code low_stock_threshold} of products
+ * whose threshold is maintained automatically. Tenants run a few at a time inside a fixed nightly window.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DemandForecastService {
+
+    private static final String OUTBOUND_TYPES = "'OUT', 'TRANSFER', 'DAMAGED', 'EXPIRED'";
+    private static final int FIT_THRESHOLD = 256;
+    private static final int BATCH_SIZE = 500;
+
+    private final DataSource dataSource;
+    private final DatabaseInitializationService databaseInitializationService;
+    private final ServiceTenantUtil serviceTenantUtil;
+    private final EntityCacheService entityCacheService;
+    private final CatalogVersionService catalogVersionService;
+    private final CountingService countingService;
+
+    @Value("${stockify.forecast.history-days:182}")
+    private int historyDays;
+
+    @Value("${stockify.forecast.chunk-size:10000}")
+    private int chunkSize;
+
+    @Value("${stockify.forecast.parallelism:0}")
+    private int parallelism;
+
+    @Value("${stockify.forecast.tenant-parallelism:4}")
+    private int tenantParallelism;
+
+    @Value("${stockify.forecast.window-minutes:120}")
+    private long windowMinutes;
+
+    @Value("${stockify.reorder.lead-time-days:14}")
+    private int leadTimeDays;
+
+    @Value("${stockify.reorder.service-level-z:1.65}")
+    private double serviceLevelZ;
+
+    @Value("${stockify.reorder.cover-days:30}")
+    private int coverDays;
+
+
+    private TenantWriteTracker tenantWriteTracker;
+
+    /**
+     * Only present with a read replica; raw JDBC writes are not seen by the tracker's entity listener
+     */
+    @Autowired(required = false)
+    void setTenantWriteTracker(TenantWriteTracker tenantWriteTracker) {
+        this.tenantWriteTracker = tenantWriteTracker;
+    }
+
+    private volatile ForkJoinPool pool;
+
+    @Scheduled(cron = "${stockify.forecast.cron:0 45 1 * * *}")
+    public void forecastAllTenants() {
+        List<String> schemas = databaseInitializationService.findProvisionedSchemas();
+        long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(windowMinutes);
+        LocalDate today = LocalDate.now();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(tenantParallelism, schemas.size())));
+        for (String schema : schemas) {
+            executor.execute(() -> {
+                if (System.currentTimeMillis() > deadline) {
+                    log.warn("⚠️ Demand forecast window of {} min exceeded, skipping schema {}", windowMinutes, schema);
+                    return;
+                }
+                try {
+                    forecastTenant(schema, today);
+                } catch (RuntimeException e) {
+                    log.error("❌ Demand forecast failed for schema {}: {}", schema, e.getMessage());
+                }
+            });
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(windowMinutes, TimeUnit.MINUTES)) {
+                log.warn("⚠️ Demand forecast still running after the {} min window", windowMinutes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Create the forecast table in the given schema
+     */
+    public void ensureForecastTable(String schema) {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("ALTER TABLE " + qualified(schema, "product") + " ADD COLUMN IF NOT EXISTS auto_threshold boolean DEFAULT FALSE");
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + qualified(schema, "product_forecast") + " (" +
+                    "    product_id bigint PRIMARY KEY REFERENCES " + qualified(schema, "product") + "(id) ON DELETE CASCADE," +
+                    "    current_stock integer NOT NULL," +
+                    "    avg_daily_usage double precision NOT NULL," +
+                    "    forecast_daily_usage double precision NOT NULL," +
+                    "    days_remaining integer," +
+                    "    depletion_date date," +
+                    "    reorder_point integer NOT NULL," +
+                    "    safety_stock integer NOT NULL," +
+                    "    reorder_quantity integer NOT NULL," +
+                    "    risk_level varchar(16) NOT NULL," +
+                    "    model varchar(16) NOT NULL," +
+                    "    computed_at timestamp(6) NOT NULL" +
+                    ")");
+        } catch (SQLException e) {
+            log.error("❌ Error creating forecast table in schema {}: {}", schema, e.getMessage());
+            throw new RuntimeException("Failed to create forecast table in schema: " + schema, e);
+        }
+    }
+
+    /**
+     * Forecast every product of the schema from the history-days full days before {@code today}
+     */
+    public long forecastTenant(String schema, LocalDate today) {
+        long started = System.currentTimeMillis();
+        LocalDateTime computedAt = LocalDateTime.now();
+        LocalDate from = today.minusDays(historyDays);
+        long lastId = 0;
+        long products = 0;
+
+        Chunk chunk = new Chunk(chunkSize, historyDays);
+        try (Connection connection = dataSource.getConnection()) {
+            while (true) {
+                loadProducts(connection, schema, chunk, lastId);
+                if (chunk.size == 0) {
+                    break;
+                }
+                loadHistory(connection, schema, chunk, from, today);
+                forkJoinPool().invoke(new FitTask(chunk, 0, chunk.size));
+                saveForecasts(connection, schema, chunk, today, computedAt);
+
+                products += chunk.size;
+                lastId = chunk.ids[chunk.size - 1];
+            }
+        } catch (SQLException e) {
+            log.error("❌ Error forecasting demand for schema {}: {}", schema, e.getMessage());
+            throw new RuntimeException("Failed to forecast demand for schema: " + schema, e);
+        }
+        // auto thresholds were written with JDBC, behind the back of cached products
+        entityCacheService.evict(Product.class);
+        // and behind the cached low-stock counts
+        countingService.invalidate(schema, Product.class);
+        catalogVersionService.bump(schema);
+        if (tenantWriteTracker != null) {
+            tenantWriteTracker.markWrite(schema);
+        }
+
+        log.info("📈 Demand forecast for {} products in schema {} took {} ms", products, schema,
+                System.currentTimeMillis() - started);
+        return products;
+    }
+
+    private void loadProducts(Connection connection, String schema, Chunk chunk, long afterId) throws SQLException {
+        chunk.reset();
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT id, COALESCE(stock_level, 0) FROM " + qualified(schema, "product") + " WHERE id > ? ORDER BY id LIMIT ?")) {
+            ps.setLong(1, afterId);
+            ps.setInt(2, chunkSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    chunk.ids[chunk.size] = rs.getLong(1);
+                    chunk.stocks[chunk.size] = rs.getInt(2);
+                    chunk.size++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stream the chunk's daily outbound quantities into its usage array with a cursor
+     */
+    private void loadHistory(Connection connection, String schema, Chunk chunk, LocalDate from, LocalDate to) throws SQLException {
+        String sql = "SELECT product_id, created_at::date - ?, SUM(ABS(quantity)) FROM " + qualified(schema, "stock_movement") +
+                     " WHERE movement_type IN (" + OUTBOUND_TYPES + ") AND created_at >= ? AND created_at < ?" +
+                     " AND product_id BETWEEN ? AND ? GROUP BY 1, 2" +
+                     " UNION ALL" +
+                     " SELECT product_id, day - ?, ABS(quantity_sum) FROM " + qualified(schema, "stock_movement_rollup") +
+                     " WHERE movement_type IN (" + OUTBOUND_TYPES + ") AND day >= ? AND day < ?" +
+                     " AND product_id BETWEEN ? AND ?";
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setFetchSize(10_000);
+            ps.setDate(1, Date.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(from.atStartOfDay()));
+            ps.setTimestamp(3, Timestamp.valueOf(to.atStartOfDay()));
+            ps.setLong(4, chunk.ids[0]);
+            ps.setLong(5, chunk.ids[chunk.size - 1]);
+            ps.setDate(6, Date.valueOf(from));
+            ps.setDate(7, Date.valueOf(from));
+            ps.setDate(8, Date.valueOf(to));
+            ps.setLong(9, chunk.ids[0]);
+            ps.setLong(10, chunk.ids[chunk.size - 1]);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int index = Arrays.binarySearch(chunk.ids, 0, chunk.size, rs.getLong(1));
+                    int day = rs.getInt(2);
+                    if (index >= 0 && day >= 0 && day < historyDays) {
+                        chunk.usage[index * historyDays + day] += rs.getInt(3);
+                    }
+                }
+            }
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void saveForecasts(Connection connection, String schema, Chunk chunk, LocalDate today,
+                               LocalDateTime computedAt) throws SQLException {
+        String sql = "INSERT INTO " + qualified(schema, "product_forecast") +
+                     " (product_id, current_stock, avg_daily_usage, forecast_daily_usage, days_remaining, depletion_date," +
+                     " reorder_point, safety_stock, reorder_quantity, risk_level, model, computed_at)" +
+                     " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)" +
+                     " ON CONFLICT (product_id) DO UPDATE SET current_stock = EXCLUDED.current_stock," +
+                     " avg_daily_usage = EXCLUDED.avg_daily_usage, forecast_daily_usage = EXCLUDED.forecast_daily_usage," +
+                     " days_remaining = EXCLUDED.days_remaining, depletion_date = EXCLUDED.depletion_date," +
+                     " reorder_point = EXCLUDED.reorder_point, safety_stock = EXCLUDED.safety_stock," +
+                     " reorder_quantity = EXCLUDED.reorder_quantity, risk_level = EXCLUDED.risk_level," +
+                     " model = EXCLUDED.model, computed_at = EXCLUDED.computed_at";
+        // auto thresholds follow the reorder point; never below 1, the smallest threshold a user can enter
+        String thresholds = "UPDATE " + qualified(schema, "product") + " p SET low_stock_threshold = GREATEST(f.reorder_point, 1)" +
+                            " FROM " + qualified(schema, "product_forecast") + " f" +
+                            " WHERE f.product_id = p.id AND p.auto_threshold AND f.product_id BETWEEN ? AND ?" +
+                            " AND p.low_stock_threshold IS DISTINCT FROM GREATEST(f.reorder_point, 1)";
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            Timestamp computedAtValue = Timestamp.valueOf(computedAt);
+            for (int i = 0; i < chunk.size; i++) {
+                DemandForecaster.Forecast forecast = chunk.forecasts[i];
+                Integer daysRemaining = forecast.daysRemaining(chunk.stocks[i]);
+                ps.setLong(1, chunk.ids[i]);
+                ps.setInt(2, chunk.stocks[i]);
+                ps.setDouble(3, forecast.getAverageDailyUsage());
+                ps.setDouble(4, forecast.getDailyUsage());
+                if (daysRemaining != null) {
+                    ps.setInt(5, daysRemaining);
+                    ps.setDate(6, Date.valueOf(today.plusDays(daysRemaining)));
+                } else {
+                    ps.setNull(5, Types.INTEGER);
+                    ps.setNull(6, Types.DATE);
+                }
+                ps.setInt(7, forecast.reorderPoint(serviceLevelZ, leadTimeDays));
+                ps.setInt(8, forecast.safetyStock(serviceLevelZ, leadTimeDays));
+                ps.setInt(9, forecast.reorderQuantity(chunk.stocks[i], serviceLevelZ, leadTimeDays, coverDays));
+                ps.setString(10, DemandForecaster.riskLevel(chunk.stocks[i], daysRemaining));
+                ps.setString(11, forecast.getModel());
+                ps.setTimestamp(12, computedAtValue);
+                ps.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+            try (PreparedStatement update = connection.prepareStatement(thresholds)) {
+                update.setLong(1, chunk.ids[0]);
+                update.setLong(2, chunk.ids[chunk.size - 1]);
+                update.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Products of the current tenant at or below their reorder point, most urgent first
+     */
+    public Slice<ReorderSuggestionDTO> findReorderSuggestions(Pageable pageable) {
+        String schema = currentSchema();
+        String sql = "SELECT p.id, p.title, p.sku, COALESCE(c.name, p.category), p.stock_level, p.low_stock_threshold, f.reorder_point," +
+                     " f.safety_stock, f.reorder_quantity, f.forecast_daily_usage, f.days_remaining, f.depletion_date," +
+                     " f.risk_level, f.computed_at FROM " + qualified(schema, "product_forecast") + " f" +
+                     " JOIN " + qualified(schema, "product") + " p ON p.id = f.product_id" +
+                     " LEFT JOIN " + qualified(schema, "product_categories") + " c ON c.id = p.category_id" +
+                     " WHERE COALESCE(p.stock_level, 0) <= f.reorder_point" +
+                     " ORDER BY f.days_remaining NULLS LAST, f.reorder_quantity DESC, p.id LIMIT ? OFFSET ?";
+
+        List<ReorderSuggestionDTO> suggestions = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, pageable.getPageSize() + 1);
+            ps.setLong(2, pageable.getOffset());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Date depletionDate = rs.getDate(12);
+                    suggestions.add(ReorderSuggestionDTO.builder()
+                            .productId(rs.getLong(1))
+                            .title(rs.getString(2))
+                            .sku(rs.getString(3))
+                            .category(rs.getString(4))
+                            .stockLevel((Integer) rs.getObject(5))
+                            .lowStockThreshold((Integer) rs.getObject(6))
+                            .reorderPoint(rs.getInt(7))
+                            .safetyStock(rs.getInt(8))
+                            .reorderQuantity(rs.getInt(9))
+                            .forecastDailyUsage(rs.getDouble(10))
+                            .daysRemaining((Integer) rs.getObject(11))
+                            .depletionDate(depletionDate != null ? depletionDate.toLocalDate() : null)
+                            .riskLevel(rs.getString(13))
+                            .computedAt(rs.getTimestamp(14).toLocalDateTime())
+                            .build());
+                }
+            }
+        } catch (SQLException e) {
+            log.error("❌ Error reading reorder suggestions for schema {}: {}", schema, e.getMessage());
+            throw new RuntimeException("Failed to read reorder suggestions", e);
+        }
+
+        boolean hasNext = suggestions.size() > pageable.getPageSize();
+        if (hasNext) {
+            suggestions.remove(suggestions.size() - 1);
+        }
+        return new SliceImpl<>(suggestions, pageable, hasNext);
+    }
+
+    private String currentSchema() {
+        String tenant = serviceTenantUtil.getCurrentTenant();
+        return tenant != null ? tenant.toLowerCase() : "public";
+    }
+
+    private ForkJoinPool forkJoinPool() {
+        if (pool == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+                }
+            }
+        }
+        return pool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private String qualified(String schema, String relation) {
+        return "\"" + schema + "\"." + relation;
+    }
+
+    /**
+     * Products of one chunk with their usage series laid out back to back in a single array
+     */
+    private static final class Chunk {
+
+        private final long[] ids;
+        private final int[] stocks;
+        private final int[] usage;
+        private final int days;
+        private final DemandForecaster.Forecast[] forecasts;
+        private int size;
+
+        private Chunk(int capacity, int days) {
+            this.ids = new long[capacity];
+            this.stocks = new int[capacity];
+            this.usage = new int[capacity * days];
+            this.days = days;
+            this.forecasts = new DemandForecaster.Forecast[capacity];
+        }
+
+        private void reset() {
+            Arrays.fill(usage, 0, size * days, 0);
+            Arrays.fill(forecasts, 0, size, null);
+            size = 0;
+        }
+    }
+
+    /**
+     * Splits the chunk until ranges are small enough to fit sequentially
+     */
+    private static final class FitTask extends RecursiveAction {
+
+        private final Chunk chunk;
+        private final int from;
+        private final int to;
+
+        private FitTask(Chunk chunk, int from, int to) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    chunk.forecasts[i] = DemandForecaster.fit(chunk.usage, i * chunk.days, chunk.days);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new FitTask(chunk, from, middle), new FitTask(chunk, middle, to));
+        }
+    }
+}
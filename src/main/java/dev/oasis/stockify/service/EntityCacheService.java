@@ -0,0 +1,31 @@
+package dev.oasis.stockify.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the Hibernate second-level cache consistent with writes that bypass Hibernate (JDBC batch jobs,
+ * tenant config updates). Writes through JPA evict their own entries; these do not, so the caller evicts
+ * the entity region and the query cache once it has committed. Cached entries carry the tenant in their key,
+ * but a region can only be evicted as a whole, so every tenant's entries of that entity are dropped.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EntityCacheService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Drop cached instances of the entity and all cached query results
+     */
+    public void evict(Class<?> entityType) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictEntityData(entityType);
+        cache.evictQueryRegions();
+        log.debug("🧹 Evicted second-level cache of {} and cached queries", entityType.getSimpleName());
+    }
+}
@@ -0,0 +1,508 @@
+package dev.oasis.stockify.service;
+
+import dev.oasis.stockify.config.datasource.TenantWriteTracker;
+import dev.oasis.stockify.model.PlanType;
+import dev.oasis.stockify.model.Product;
+import dev.oasis.stockify.model.StockMovement;
+import dev.oasis.stockify.repository.ProductRepository;
+import dev.oasis.stockify.util.MovementColumnFile;
+import dev.oasis.stockify.util.ServiceTenantUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Cold storage for stock movements older than the tenant plan's retention window.
+ * <ul>
+ *     <li>whole months are written to compressed columnar files under {@code <archive-dir>/<tenant>/stock_movement/}</li>
+ *     <li>daily per-product rollups are kept in {@code stock_movement_rollup} so totals survive archival</li>
+ *     <li>{@code stock_movement_archive} registers every file; readers only trust registered files</li>
+ * </ul>
+ * A month is archived in one REPEATABLE READ transaction, so the file, the rollups and the removed rows all
+ * come from the same snapshot. Months that have their own partition are dropped instead of deleted, which
+ * keeps the hot table and its vacuum cost flat.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class MovementArchiveService {
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final DataSource dataSource;
+    private final DatabaseInitializationService databaseInitializationService;
+    private final ProductRepository productRepository;
+    private final CountingService countingService;
+    private final CatalogVersionService catalogVersionService;
+    private final ServiceTenantUtil serviceTenantUtil;
+
+    @Value("${stockify.archive.dir:data/archive}")
+    private String archiveDir;
+
+    @Value("${stockify.archive.enabled:true}")
+    private boolean enabled;
+
+
+    private TenantWriteTracker tenantWriteTracker;
+
+    /**
+     * Only present with a read replica; raw JDBC writes are not seen by the tracker's entity listener
+     */
+    @Autowired(required = false)
+    void setTenantWriteTracker(TenantWriteTracker tenantWriteTracker) {
+        this.tenantWriteTracker = tenantWriteTracker;
+    }
+
+    /**
+     * Archive the expired months of every tenant
+     */
+    @Scheduled(cron = "${stockify.archive.cron:0 0 3 * * *}")
+    public void archiveExpiredMovements() {
+        if (!enabled) {
+            return;
+        }
+        for (String schema : databaseInitializationService.findProvisionedSchemas()) {
+            try {
+                archiveTenant(schema);
+            } catch (RuntimeException e) {
+                log.error("❌ Movement archival failed for schema {}: {}", schema, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Create the rollup and archive registry tables in the given schema
+     */
+    public void ensureArchiveTables(String schema) {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + qualified(schema, "stock_movement_rollup") + " (" +
+                    "    day date NOT NULL," +
+                    "    product_id bigint NOT NULL," +
+                    "    movement_type varchar(255) NOT NULL," +
+                    "    movement_count bigint NOT NULL," +
+                    "    quantity_sum bigint NOT NULL," +
+                    "    PRIMARY KEY (day, product_id, movement_type)" +
+                    ")");
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + qualified(schema, "stock_movement_archive") + " (" +
+                    "    month date NOT NULL," +
+                    "    generation integer NOT NULL," +
+                    "    file_path varchar(1000) NOT NULL," +
+                    "    row_count bigint NOT NULL," +
+                    "    archived_at timestamp(6) NOT NULL," +
+                    "    PRIMARY KEY (month, generation)" +
+                    ")");
+        } catch (SQLException e) {
+            log.error("❌ Error creating archive tables in schema {}: {}", schema, e.getMessage());
+            throw new RuntimeException("Failed to create archive tables in schema: " + schema, e);
+        }
+    }
+
+    /**
+     * Archive every whole month older than the tenant's retention window, returns the archived row count
+     */
+    public long archiveTenant(String schema) {
+        PlanType plan = tenantPlan(schema);
+        LocalDate cutoff = LocalDate.now().minusDays(plan.getMovementRetentionDays()).withDayOfMonth(1);
+
+        LocalDate month = oldestHotMonth(schema, cutoff);
+        long archived = 0;
+        for (; month != null && month.isBefore(cutoff); month = month.plusMonths(1)) {
+            archived += archiveMonth(schema, month);
+        }
+
+        if (archived > 0) {
+            countingService.invalidate(schema, StockMovement.class);
+            // archived rows are read back from cold storage, so results built on the hot rows are stale
+            catalogVersionService.bump(schema);
+            if (tenantWriteTracker != null) {
+                tenantWriteTracker.markWrite(schema);
+            }
+            log.info("🧊 Archived {} movements before {} for schema {} ({} plan)", archived, cutoff, schema, plan.getCode());
+        }
+        return archived;
+    }
+
+    /**
+     * Start of the first month still served from the database for the current tenant, or null if nothing is archived
+     */
+    public LocalDateTime archivedUntil() {
+        String sql = "SELECT MAX(month) FROM " + qualified(currentSchema(), "stock_movement_archive");
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            Date month = rs.next() ? rs.getDate(1) : null;
+            return month != null ? month.toLocalDate().plusMonths(1).atStartOfDay() : null;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to read movement archive registry", e);
+        }
+    }
+
+    /**
+     * Whether a range starting at {@code from} needs archived movements
+     */
+    public boolean reachesArchive(LocalDateTime from) {
+        LocalDateTime until = archivedUntil();
+        return until != null && from.isBefore(until);
+    }
+
+    /**
+     * Archived movements of the current tenant in the range, optionally for one product and type, oldest first
+     */
+    public List<StockMovement> findArchived(LocalDateTime from, LocalDateTime to, Long productId, StockMovement.MovementType type) {
+        List<StockMovement> result = new ArrayList<>();
+        forEachArchived(from, to, productId, type, result::add);
+        return result;
+    }
+
+    /**
+     * Stream archived movements of the current tenant in the range, oldest first. Each file is sorted on
+     * (createdAt, id), so the generations of a month are merged on that key with one row group per file in memory.
+     */
+    public void forEachArchived(LocalDateTime from, LocalDateTime to, Long productId, StockMovement.MovementType type,
+                                Consumer<StockMovement> consumer) {
+        Map<Long, Product> products = new HashMap<>();
+        List<StockMovement> batch = new ArrayList<>();
+        for (List<Path> generations : registeredFiles(currentSchema(), from.toLocalDate().withDayOfMonth(1), to.toLocalDate()).values()) {
+            List<ArchiveCursor> cursors = new ArrayList<>();
+            try {
+                PriorityQueue<ArchiveCursor> queue = new PriorityQueue<>(Comparator
+                        .comparing((ArchiveCursor c) -> c.head().getCreatedAt())
+                        .thenComparing(c -> c.head().getId()));
+                for (Path file : generations) {
+                    ArchiveCursor cursor = new ArchiveCursor(file, MovementColumnFile.reader(file));
+                    cursors.add(cursor);
+                    if (cursor.advance()) {
+                        queue.add(cursor);
+                    }
+                }
+                while (!queue.isEmpty()) {
+                    ArchiveCursor cursor = queue.poll();
+                    StockMovement movement = cursor.head();
+                    if (!movement.getCreatedAt().isBefore(from) && !movement.getCreatedAt().isAfter(to)
+                            && (productId == null || productId.equals(movement.getProduct().getId()))
+                            && (type == null || type == movement.getMovementType())) {
+                        batch.add(movement);
+                        if (batch.size() >= MovementColumnFile.ROW_GROUP_SIZE) {
+                            flush(batch, products, consumer);
+                        }
+                    }
+                    if (cursor.advance()) {
+                        queue.add(cursor);
+                    }
+                }
+                flush(batch, products, consumer);
+            } catch (IOException e) {
+                log.error("❌ Error reading movement archive {}: {}", generations, e.getMessage());
+                throw new RuntimeException("Failed to read movement archive: " + generations, e);
+            } finally {
+                for (ArchiveCursor cursor : cursors) {
+                    cursor.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Movement counts per type that have been moved to the archive for the current tenant
+     */
+    public Map<StockMovement.MovementType, Long> archivedCountsByType() {
+        String sql = "SELECT movement_type, SUM(movement_count) FROM " + qualified(currentSchema(), "stock_movement_rollup") +
+                     " GROUP BY movement_type";
+        Map<StockMovement.MovementType, Long> counts = new EnumMap<>(StockMovement.MovementType.class);
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                counts.put(StockMovement.MovementType.valueOf(rs.getString(1)), rs.getLong(2));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to read movement rollups", e);
+        }
+        return counts;
+    }
+
+    private long archiveMonth(String schema, LocalDate month) {
+        Timestamp start = Timestamp.valueOf(month.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(month.plusMonths(1).atStartOfDay());
+        String table = qualified(schema, StockMovementPartitionService.TABLE);
+        String partitionName = StockMovementPartitionService.TABLE + "_p" + month.format(PARTITION_SUFFIX);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try {
+                boolean ownPartition = partitionExists(connection, schema, partitionName);
+                if (ownPartition) {
+                    // block new rows for this month before the snapshot is taken
+                    execute(connection, "LOCK TABLE " + qualified(schema, partitionName) + " IN SHARE MODE");
+                }
+
+                int generation = nextGeneration(connection, schema, month);
+                Path file = archivePath(schema, month, generation);
+                long rows = writeMonth(connection, table, start, end, file);
+                if (rows == 0) {
+                    connection.rollback();
+                    Files.deleteIfExists(file);
+                    return 0;
+                }
+
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "INSERT INTO " + qualified(schema, "stock_movement_rollup") + " AS r " +
+                        "(day, product_id, movement_type, movement_count, quantity_sum) " +
+                        "SELECT CAST(created_at AS date), product_id, movement_type, COUNT(*), SUM(quantity) FROM " + table +
+                        " WHERE created_at >= ? AND created_at < ? GROUP BY 1, 2, 3 " +
+                        "ON CONFLICT (day, product_id, movement_type) DO UPDATE SET " +
+                        "movement_count = r.movement_count + EXCLUDED.movement_count, " +
+                        "quantity_sum = r.quantity_sum + EXCLUDED.quantity_sum")) {
+                    ps.setTimestamp(1, start);
+                    ps.setTimestamp(2, end);
+                    ps.executeUpdate();
+                }
+
+                if (ownPartition) {
+                    execute(connection, "DROP TABLE " + qualified(schema, partitionName));
+                } else {
+                    try (PreparedStatement ps = connection.prepareStatement(
+                            "DELETE FROM " + table + " WHERE created_at >= ? AND created_at < ?")) {
+                        ps.setTimestamp(1, start);
+                        ps.setTimestamp(2, end);
+                        ps.executeUpdate();
+                    }
+                }
+
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "INSERT INTO " + qualified(schema, "stock_movement_archive") +
+                        " (month, generation, file_path, row_count, archived_at) VALUES (?, ?, ?, ?, now())")) {
+                    ps.setDate(1, Date.valueOf(month));
+                    ps.setInt(2, generation);
+                    ps.setString(3, file.toString());
+                    ps.setLong(4, rows);
+                    ps.executeUpdate();
+                }
+
+                connection.commit();
+                log.info("🧊 Archived {} movements of {} for schema {} to {}", rows, month.format(MONTH), schema, file);
+                return rows;
+            } catch (SQLException | IOException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException | IOException e) {
+            log.error("❌ Error archiving {} movements for schema {}: {}", month.format(MONTH), schema, e.getMessage());
+            throw new RuntimeException("Failed to archive movements of " + month.format(MONTH) + " for schema: " + schema, e);
+        }
+    }
+
+    /**
+     * Write the month to a temporary file and move it into place; an unregistered file left behind by a
+     * failed transaction is overwritten by the next run, which reuses the same generation
+     */
+    private long writeMonth(Connection connection, String table, Timestamp start, Timestamp end, Path file)
+            throws SQLException, IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long rows;
+        String sql = "SELECT id, product_id, movement_type, quantity, previous_stock, new_stock, created_at, created_by, " +
+                     "reference_id, notes FROM " + table + " WHERE created_at >= ? AND created_at < ? ORDER BY created_at, id";
+        try (MovementColumnFile.Writer writer = MovementColumnFile.writer(temp);
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setFetchSize(MovementColumnFile.ROW_GROUP_SIZE);
+            ps.setTimestamp(1, start);
+            ps.setTimestamp(2, end);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long createdByValue = rs.getLong(8);
+                    Long createdBy = rs.wasNull() ? null : createdByValue;
+                    writer.write(rs.getLong(1), rs.getLong(2), StockMovement.MovementType.valueOf(rs.getString(3)),
+                            rs.getInt(4), rs.getInt(5), rs.getInt(6), rs.getTimestamp(7).toLocalDateTime(),
+                            createdBy, rs.getString(9), rs.getString(10));
+                }
+            }
+            rows = writer.getRows();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rows;
+    }
+
+    /**
+     * Registered files per month, months in order
+     */
+    private Map<LocalDate, List<Path>> registeredFiles(String schema, LocalDate fromMonth, LocalDate to) {
+        String sql = "SELECT month, file_path FROM " + qualified(schema, "stock_movement_archive") +
+                     " WHERE month >= ? AND month <= ? ORDER BY month, generation";
+        Map<LocalDate, List<Path>> files = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setDate(1, Date.valueOf(fromMonth));
+            ps.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    files.computeIfAbsent(rs.getDate(1).toLocalDate(), k -> new ArrayList<>()).add(Paths.get(rs.getString(2)));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to read movement archive registry", e);
+        }
+        return files;
+    }
+
+    private void flush(List<StockMovement> batch, Map<Long, Product> products, Consumer<StockMovement> consumer) {
+        attachProducts(batch, products);
+        batch.forEach(consumer);
+        batch.clear();
+    }
+
+    /**
+     * Replace the id-only product of archived movements with the current product, loading unseen ids in one query
+     */
+    private void attachProducts(List<StockMovement> movements, Map<Long, Product> products) {
+        Set<Long> missing = new HashSet<>();
+        for (StockMovement movement : movements) {
+            if (!products.containsKey(movement.getProduct().getId())) {
+                missing.add(movement.getProduct().getId());
+            }
+        }
+        if (!missing.isEmpty()) {
+            productRepository.findAllById(missing).forEach(p -> products.put(p.getId(), p));
+            missing.forEach(id -> products.putIfAbsent(id, null));
+        }
+        for (StockMovement movement : movements) {
+            Product product = products.get(movement.getProduct().getId());
+            if (product != null) {
+                movement.setProduct(product);
+            }
+        }
+    }
+
+    private LocalDate oldestHotMonth(String schema, LocalDate cutoff) {
+        String sql = "SELECT MIN(created_at) FROM " + qualified(schema, StockMovementPartitionService.TABLE) + " WHERE created_at < ?";
+        try (Connection connection = dataSource.getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(cutoff.atStartOfDay()));
+            try (ResultSet rs = ps.executeQuery()) {
+                Timestamp oldest = rs.next() ? rs.getTimestamp(1) : null;
+                return oldest != null ? oldest.toLocalDateTime().toLocalDate().withDayOfMonth(1) : null;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find archivable movements for schema: " + schema, e);
+        }
+    }
+
+    private PlanType tenantPlan(String schema) {
+        String sql = "SELECT config_value FROM " + qualified(schema, "tenant_config") + " WHERE config_key = 'subscription_plan'";
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return PlanType.fromCode(rs.next() ? rs.getString(1) : null);
+        } catch (SQLException e) {
+            log.warn("⚠️ Could not read subscription plan for schema {}, using trial retention: {}", schema, e.getMessage());
+            return PlanType.TRIAL;
+        }
+    }
+
+    private int nextGeneration(Connection connection, String schema, LocalDate month) throws SQLException {
+        String sql = "SELECT COALESCE(MAX(generation), 0) + 1 FROM " + qualified(schema, "stock_movement_archive") + " WHERE month = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setDate(1, Date.valueOf(month));
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private boolean partitionExists(Connection connection, String schema, String partition) throws SQLException {
+        String sql = "SELECT 1 FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                     "WHERE i.inhparent = to_regclass(?) AND c.relname = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, qualified(schema, StockMovementPartitionService.TABLE));
+            ps.setString(2, partition);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private Path archivePath(String schema, LocalDate month, int generation) {
+        return Paths.get(archiveDir, schema, StockMovementPartitionService.TABLE,
+                month.format(MONTH) + "-" + generation + ".smc.gz").toAbsolutePath();
+    }
+
+    private void execute(Connection connection, String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private String currentSchema() {
+        String tenant = serviceTenantUtil.getCurrentTenant();
+        return tenant != null ? tenant.toLowerCase() : "public";
+    }
+
+    private String qualified(String schema, String relation) {
+        return "\"" + schema + "\"." + relation;
+    }
+
+    /**
+     * Read position in one archive file: the current row and the rest of its row group
+     */
+    private static class ArchiveCursor {
+        private final Path file;
+        private final MovementColumnFile.Reader reader;
+        private List<StockMovement> group = List.of();
+        private int position = -1;
+
+        private ArchiveCursor(Path file, MovementColumnFile.Reader reader) {
+            this.file = file;
+            this.reader = reader;
+        }
+
+        private StockMovement head() {
+            return group.get(position);
+        }
+
+        private boolean advance() throws IOException {
+            if (++position < group.size()) {
+                return true;
+            }
+            group = reader.nextGroup();
+            position = 0;
+            return !group.isEmpty();
+        }
+
+        private void close() {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                log.warn("⚠️ Could not close movement archive {}: {}", file, e.getMessage());
+            }
+        }
+    }
+}
@@ -14,7 +14,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -28,6 +32,8 @@ public class ProductCategoryService {
     
     private final ProductCategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final CategoryStatisticsService categoryStatisticsService;
+    private final CountingService countingService;
     private final ProductCategoryMapper categoryMapper;
     private final ServiceTenantUtil serviceTenantUtil;
     
@@ -43,10 +49,11 @@ public class ProductCategoryService {
             throw new IllegalStateException("Tenant context is required for category operations");
         }
         
-        List<ProductCategory> categories = categoryRepository.findByIsActiveTrueOrderBySortOrderAscNameAsc();
+        List<ProductCategoryResponseDTO> categories = countingService.cached(ProductCategory.class, "active",
+                () -> toResponseDTOs(categoryRepository.findByIsActiveTrueOrderBySortOrderAscNameAsc()));
         log.debug("📂 Found {} active categories for tenant: {}", categories.size(), currentTenant);
         return categories.stream()
-                .map(categoryMapper::toResponseDTO)
+                .map(category -> category.toBuilder().build())
                 .collect(Collectors.toList());
     }
     
@@ -55,9 +62,13 @@ public class ProductCategoryService {
      */
     public List<ProductCategoryResponseDTO> getAllCategories() {
         log.debug("📂 Fetching all categories for admin");
-        List<ProductCategory> categories = categoryRepository.findAllByOrderBySortOrderAscNameAsc();
+        List<ProductCategoryResponseDTO> categories = countingService.cached(ProductCategory.class, "all",
+                () -> toResponseDTOs(categoryRepository.findAllByOrderBySortOrderAscNameAsc()));
+        Map<Long, Long> productCounts = categoryStatisticsService.getProductCountsByCategory();
         return categories.stream()
-                .map(this::enrichWithProductCount)
+                .map(category -> category.toBuilder()
+                        .productCount(productCounts.getOrDefault(category.getId(), 0L))
+                        .build())
                 .collect(Collectors.toList());
     }
     
@@ -67,7 +78,7 @@ public class ProductCategoryService {
     public Optional<ProductCategoryResponseDTO> getCategoryById(Long id) {
         log.debug("🔍 Fetching category with ID: {}", id);
         return categoryRepository.findById(id)
-                .map(this::enrichWithProductCount);
+                .map(category -> enrichWithProductCount(category, categoryStatisticsService.getProductCountsByCategory()));
     }
     
     /**
@@ -123,7 +134,8 @@ public class ProductCategoryService {
                 .orElseThrow(() -> new EntityNotFoundException("Category not found with ID: " + id));
         
         // Check if category is being used by products
-        long productCount = productRepository.countByCategoryIgnoreCase(category.getName());
+        // exact count rather than the cached one, since this decides between soft and hard delete
+        long productCount = productRepository.countByCategoryId(category.getId());
         if (productCount > 0) {
             // Soft delete - mark as inactive
             category.setIsActive(false);
@@ -136,15 +148,58 @@ public class ProductCategoryService {
         }
     }
     
+    /**
+     * Detached copies for the shared cache; callers get their own copy of each, never a managed entity
+     */
+    private List<ProductCategoryResponseDTO> toResponseDTOs(List<ProductCategory> categories) {
+        return categories.stream()
+                .map(categoryMapper::toResponseDTO)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
     /**
      * Enrich category with product count
      */
-    private ProductCategoryResponseDTO enrichWithProductCount(ProductCategory category) {
+    private ProductCategoryResponseDTO enrichWithProductCount(ProductCategory category, Map<Long, Long> productCounts) {
         ProductCategoryResponseDTO dto = categoryMapper.toResponseDTO(category);
-        long productCount = productRepository.countByCategoryIgnoreCase(category.getName());
-        dto.setProductCount(productCount);
+        dto.setProductCount(productCounts.getOrDefault(category.getId(), 0L));
         return dto;
     }
+
+    /**
+     * Category a product refers to by name, matched case-insensitively and created when it does not exist yet
+     */
+    @Transactional
+    public ProductCategory resolveCategory(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String trimmed = name.trim();
+        // only ids are shared across requests; the reference belongs to the caller's persistence context
+        Long knownId = countingService.cached(ProductCategory.class, "ids-by-name", this::loadCategoryIdsByName)
+                .get(trimmed.toLowerCase(Locale.ROOT));
+        if (knownId != null) {
+            return categoryRepository.getReferenceById(knownId);
+        }
+        // not cached yet, e.g. created earlier in the same import
+        return categoryRepository.findFirstByNameIgnoreCaseOrderByIdAsc(trimmed).orElseGet(() -> {
+            ProductCategory category = new ProductCategory();
+            category.setName(trimmed.length() > 100 ? trimmed.substring(0, 100) : trimmed);
+            category.setDescription("Created from a product");
+            category.setIsActive(true);
+            category.setSortOrder(100);
+            log.info("➕ Creating category '{}' referenced by a product", category.getName());
+            return categoryRepository.save(category);
+        });
+    }
+
+    private Map<String, Long> loadCategoryIdsByName() {
+        Map<String, Long> byName = new HashMap<>();
+        for (ProductCategory category : categoryRepository.findAllByOrderBySortOrderAscNameAsc()) {
+            byName.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category.getId());
+        }
+        return Collections.unmodifiableMap(byName);
+    }
     
     /**
      * Initialize default categories for a tenant
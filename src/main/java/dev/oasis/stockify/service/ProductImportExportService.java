@@ -3,12 +3,17 @@ package dev.oasis.stockify.service;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVWriter;
 import com.opencsv.exceptions.CsvValidationException;
+import dev.oasis.stockify.config.metrics.TenantMetrics;
+import dev.oasis.stockify.config.tenant.Bulkhead;
+import dev.oasis.stockify.config.tenant.TenantContext;
 import dev.oasis.stockify.dto.ProductCreateDTO;
 import dev.oasis.stockify.dto.ProductResponseDTO;
 import dev.oasis.stockify.exception.FileOperationException;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -25,7 +30,13 @@ public class ProductImportExportService {
     private static final int BATCH_SIZE = 100;
 
     private final ProductService productService;
+    private final TenantMetrics tenantMetrics;
 
+    @Value("${stockify.reorder.default-threshold:5}")
+    private int defaultLowStockThreshold;
+
+    @Bulkhead("import")
+    @Timed(value = "stockify.import.duration", extraTags = {"type", "product", "format", "csv"})
     public List<ProductResponseDTO> importProductsFromCsv(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new FileOperationException("The uploaded file is empty");
@@ -69,6 +80,8 @@ public class ProductImportExportService {
             throw new FileOperationException("Error reading CSV file: " + e.getMessage());
         }
 
+        tenantMetrics.count("stockify.import.rows", TenantContext.getCurrentTenant(), importedProducts.size(),
+                "type", "product", "format", "csv");
         return importedProducts;
     }
 
@@ -99,6 +112,8 @@ public class ProductImportExportService {
     /**
      * Import products from Excel file
      */
+    @Bulkhead("import")
+    @Timed(value = "stockify.import.duration", extraTags = {"type", "product", "format", "excel"})
     public List<ProductResponseDTO> importProductsFromExcel(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new FileOperationException("The uploaded file is empty");
@@ -142,6 +157,8 @@ public class ProductImportExportService {
             throw new FileOperationException("Error reading Excel file: " + e.getMessage());
         }
 
+        tenantMetrics.count("stockify.import.rows", TenantContext.getCurrentTenant(), importedProducts.size(),
+                "type", "product", "format", "excel");
         return importedProducts;
     }
 
@@ -343,8 +360,7 @@ public class ProductImportExportService {
             throw new FileOperationException("Invalid quantity format: " + quantityStr);
         }
 
-        // Set a default low stock threshold
-        product.setLowStockThreshold(5);
+        applyLowStockThreshold(product, getOptionalValue(line, headerMap, "low stock threshold", null));
 
         return product;
     }
@@ -371,12 +387,35 @@ public class ProductImportExportService {
             throw new FileOperationException("Invalid quantity format");
         }
 
-        // Set a default low stock threshold
-        product.setLowStockThreshold(5);
+        applyLowStockThreshold(product, getOptionalCellValue(row, headerMap, "low stock threshold", null));
 
         return product;
     }
 
+    /**
+     * Use the threshold from the file when given, otherwise start from the default and let the
+     * nightly reorder job maintain it from the product's demand
+     */
+    private void applyLowStockThreshold(ProductCreateDTO product, String value) {
+        if (value == null) {
+            product.setLowStockThreshold(defaultLowStockThreshold);
+            product.setAutoThreshold(true);
+            return;
+        }
+        int threshold;
+        try {
+            threshold = new BigDecimal(value).intValue();
+        } catch (NumberFormatException e) {
+            throw new FileOperationException("Invalid low stock threshold format: " + value);
+        }
+        // same floor as the product form and the nightly reorder job
+        if (threshold < 1) {
+            throw new FileOperationException("Low stock threshold must be at least 1: " + value);
+        }
+        product.setLowStockThreshold(threshold);
+        product.setAutoThreshold(false);
+    }
+
     private String getRequiredValue(String[] line, Map<String, Integer> headerMap, String headerKey, String fieldName) {
         Integer index = headerMap.get(headerKey.toLowerCase());
         if (index == null || index >= line.length) {
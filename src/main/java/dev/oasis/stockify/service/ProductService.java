@@ -2,10 +2,12 @@ package dev.oasis.stockify.service;
 
 import dev.oasis.stockify.dto.ProductCreateDTO;
 import dev.oasis.stockify.dto.ProductResponseDTO;
+import dev.oasis.stockify.dto.ProductStatsDTO;
 import dev.oasis.stockify.dto.QuickRestockResponseDTO;
 import dev.oasis.stockify.dto.StockMovementCreateDTO;
 import dev.oasis.stockify.mapper.ProductMapper;
 import dev.oasis.stockify.model.Product;
+import dev.oasis.stockify.model.ProductCategory;
 import dev.oasis.stockify.model.StockMovement;
 import dev.oasis.stockify.repository.ProductRepository;
 import dev.oasis.stockify.util.ServiceTenantUtil;
@@ -14,6 +16,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import jakarta.transaction.Transactional;
 import java.util.List;
@@ -29,6 +32,8 @@ public class ProductService {
     private final StockNotificationService stockNotificationService;
     private final StockMovementService stockMovementService;
     private final ServiceTenantUtil serviceTenantUtil;
+    private final CountingService countingService;
+    private final ProductCategoryService productCategoryService;
 
         
     
@@ -50,7 +55,8 @@ public class ProductService {
      * @return a page of products
      */
     public Page<ProductResponseDTO> getProductsPage(Pageable pageable) {
-        Page<Product> productPage = productRepository.findAll(pageable);
+        Slice<Product> productSlice = productRepository.findAllBy(pageable);
+        Page<Product> productPage = countingService.page(productSlice, Product.class, productRepository::count);
         List<ProductResponseDTO> productDtos = productMapper.toDtoList(productPage.getContent());
         return new PageImpl<>(productDtos, pageable, productPage.getTotalElements());
     }
@@ -59,12 +65,40 @@ public class ProductService {
      * Searches for products by title or category
      * @param searchTerm the search term to match against title or category
      * @param pageable pagination information
-     * @return a page of matching products
+     * @return matching products; a {@link Page} when the total is known, otherwise a slice with only "has next"
      */
-    public Page<ProductResponseDTO> searchProducts(String searchTerm, Pageable pageable) {
-        Page<Product> productPage = productRepository.search(searchTerm, pageable);
-        List<ProductResponseDTO> productDtos = productMapper.toDtoList(productPage.getContent());
-        return new PageImpl<>(productDtos, pageable, productPage.getTotalElements());
+    public Slice<ProductResponseDTO> searchProducts(String searchTerm, Pageable pageable) {
+        Slice<Product> productSlice = productRepository.search(searchTerm, pageable);
+        return countingService.filteredPage(productSlice, Product.class, "search:" + searchTerm,
+                () -> productRepository.countSearch(searchTerm)).map(productMapper::toDto);
+    }
+
+    /**
+     * Retrieves low-stock products, most urgent first
+     * @param pageable pagination information
+     * @return a page of products at or below their low stock threshold
+     */
+    public Page<ProductResponseDTO> getLowStockProducts(Pageable pageable) {
+        Slice<Product> productSlice = productRepository.findLowStock(pageable);
+        // the count walks the same partial index, so it costs as much as the low-stock set, not the catalog
+        long total = !productSlice.hasNext() && productSlice.getNumber() == 0
+                ? productSlice.getNumberOfElements()
+                : countingService.cached(Product.class, "low-stock", productRepository::countLowStockProducts);
+        return new PageImpl<>(productMapper.toDtoList(productSlice.getContent()), pageable, total);
+    }
+
+    /**
+     * Header statistics of the product pages without loading the catalog: the total comes from the planner
+     * estimate on large catalogs, the low-stock count from the partial index; both are cached until products change
+     * @return total and low-stock product counts
+     */
+    public ProductStatsDTO getProductStats() {
+        long totalProducts = countingService.totalCount(Product.class, productRepository::count);
+        long lowStockCount = countingService.cached(Product.class, "low-stock", productRepository::countLowStockProducts);
+        return ProductStatsDTO.builder()
+                .totalProducts(totalProducts)
+                .lowStockCount(lowStockCount)
+                .build();
     }
 
     /**
@@ -105,6 +139,7 @@ public class ProductService {
 
         try {
             Product product = productMapper.toEntity(productCreateDTO);
+            applyCategory(product, productCreateDTO.getCategory());
             log.info("🚀 About to save product to repository for tenant: {}", currentTenant);
             Product savedProduct = productRepository.save(product);
             log.info("✅ Product saved successfully with ID: {} for tenant: {}", savedProduct.getId(), currentTenant);
@@ -137,6 +172,7 @@ public class ProductService {
 
             validateProductData(productCreateDTO);
             Product updatedProduct = productMapper.updateEntity(existingProduct, productCreateDTO);
+            applyCategory(updatedProduct, productCreateDTO.getCategory());
             Product saved = productRepository.saveAndFlush(updatedProduct); // Değişiklik burada
             stockNotificationService.checkAndCreateLowStockNotification(saved);
 
@@ -146,6 +182,14 @@ public class ProductService {
         }
     }
 
+    private void applyCategory(Product product, String categoryName) {
+        ProductCategory category = productCategoryService.resolveCategory(categoryName);
+        product.setProductCategory(category);
+        if (category != null) {
+            product.setCategory(category.getName());
+        }
+    }
+
     private void validateProductData(ProductCreateDTO productCreateDTO) {
         if (productCreateDTO == null) {
             throw new IllegalArgumentException("Product data cannot be null");
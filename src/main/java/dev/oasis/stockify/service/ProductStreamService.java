@@ -0,0 +1,285 @@
+package dev.oasis.stockify.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Product JSON written straight from a database cursor with Jackson's streaming generator, so memory stays
+ * constant whatever the catalog size. Only the requested fields are selected and written; pages are keyset
+ * paginated on id and continue from an opaque cursor. Field names match {@code ProductResponseDTO}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductStreamService {
+
+    private static final String CURSOR_VERSION = "p1";
+    private static final Map<String, Field> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", new Field("p.id", Type.LONG));
+        FIELDS.put("title", new Field("p.title", Type.STRING));
+        FIELDS.put("description", new Field("p.description", Type.STRING));
+        FIELDS.put("sku", new Field("p.sku", Type.STRING));
+        FIELDS.put("category", new Field("COALESCE(c.name, p.category)", Type.STRING));
+        FIELDS.put("categoryId", new Field("p.category_id", Type.LONG));
+        FIELDS.put("price", new Field("p.price", Type.DECIMAL));
+        FIELDS.put("stockLevel", new Field("p.stock_level", Type.INT));
+        FIELDS.put("lowStockThreshold", new Field("p.low_stock_threshold", Type.INT));
+        FIELDS.put("lowStock", new Field("COALESCE(p.stock_level <= p.low_stock_threshold, false)", Type.BOOLEAN));
+        FIELDS.put("etsyProductId", new Field("p.etsy_product_id", Type.STRING));
+        FIELDS.put("barcode", new Field("p.barcode", Type.STRING));
+        FIELDS.put("qrCode", new Field("p.qr_code", Type.STRING));
+        FIELDS.put("scanEnabled", new Field("p.scan_enabled", Type.BOOLEAN));
+        FIELDS.put("isActive", new Field("p.is_active", Type.BOOLEAN));
+        FIELDS.put("isFeatured", new Field("p.is_featured", Type.BOOLEAN));
+        FIELDS.put("createdAt", new Field("p.created_at", Type.TIMESTAMP));
+        FIELDS.put("updatedAt", new Field("p.updated_at", Type.TIMESTAMP));
+        FIELDS.put("createdBy", new Field("p.created_by", Type.LONG));
+        FIELDS.put("updatedBy", new Field("p.updated_by", Type.LONG));
+    }
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+
+    @Value("${stockify.api.products.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${stockify.api.products.default-page-size:500}")
+    private int defaultPageSize;
+
+    @Value("${stockify.api.products.max-page-size:5000}")
+    private int maxPageSize;
+
+    /**
+     * Field names from a comma-separated {@code fields} parameter, every field when it is blank
+     * @throws IllegalArgumentException for an unknown field
+     */
+    public List<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return new ArrayList<>(FIELDS.keySet());
+        }
+        List<String> selected = new ArrayList<>();
+        for (String name : fields.split(",")) {
+            String field = name.trim();
+            if (field.isEmpty() || selected.contains(field)) {
+                continue;
+            }
+            if (!FIELDS.containsKey(field)) {
+                throw new IllegalArgumentException("Unknown product field: " + field + ", expected one of " + FIELDS.keySet());
+            }
+            selected.add(field);
+        }
+        return selected;
+    }
+
+    /**
+     * Requested page size clamped to the configured maximum
+     */
+    public int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        return Math.min(Math.max(limit, 1), maxPageSize);
+    }
+
+    /**
+     * Id after which a page starts; 0 for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int bar = raw.indexOf('|');
+            if (bar < 0 || !CURSOR_VERSION.equals(raw.substring(0, bar))) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(raw.substring(bar + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    public String encodeCursor(long afterId) {
+        String raw = CURSOR_VERSION + "|" + afterId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write one page as {@code {"items":[...],"nextCursor":...}}; nextCursor is null on the last page
+     */
+    public void writePage(String schema, List<String> fields, long afterId, int limit, OutputStream out) throws IOException {
+        try (JsonGenerator generator = generator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            // one row past the page tells whether there is a next one without a count
+            long lastId = writeRows(generator, schema, fields, afterId, limit + 1, limit);
+            generator.writeEndArray();
+            if (lastId > 0) {
+                generator.writeStringField("nextCursor", encodeCursor(lastId));
+            } else {
+                generator.writeNullField("nextCursor");
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Write the whole catalog as a bare JSON array
+     */
+    public void writeAll(String schema, List<String> fields, OutputStream out) throws IOException {
+        try (JsonGenerator generator = generator(out)) {
+            generator.writeStartArray();
+            writeRows(generator, schema, fields, 0, Long.MAX_VALUE, Long.MAX_VALUE);
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Stream up to {@code written} rows after the id; returns the last written id if more rows followed, else 0
+     */
+    private long writeRows(JsonGenerator generator, String schema, List<String> fields, long afterId,
+                           long fetched, long written) throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT p.id");
+        for (String field : fields) {
+            sql.append(", ").append(FIELDS.get(field).sql);
+        }
+        sql.append(" FROM ").append(qualified(schema, "product")).append(" p");
+        if (fields.contains("category")) {
+            sql.append(" LEFT JOIN ").append(qualified(schema, "product_categories")).append(" c ON c.id = p.category_id");
+        }
+        sql.append(" WHERE p.id > ? ORDER BY p.id");
+        if (fetched != Long.MAX_VALUE) {
+            sql.append(" LIMIT ?");
+        }
+
+        long count = 0;
+        long lastId = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            // the driver only streams with a fetch size inside a transaction
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+                ps.setFetchSize(fetchSize);
+                ps.setLong(1, afterId);
+                if (fetched != Long.MAX_VALUE) {
+                    ps.setLong(2, fetched);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (count == written) {
+                            return lastId;
+                        }
+                        lastId = rs.getLong(1);
+                        writeRow(generator, rs, fields);
+                        count++;
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            log.error("❌ Error streaming products of schema {}: {}", schema, e.getMessage());
+            throw new RuntimeException("Failed to stream products of schema: " + schema, e);
+        }
+        log.debug("📤 Streamed {} products of schema {}", count, schema);
+        return 0;
+    }
+
+    private void writeRow(JsonGenerator generator, ResultSet rs, List<String> fields) throws SQLException, IOException {
+        generator.writeStartObject();
+        int column = 2;
+        for (String field : fields) {
+            generator.writeFieldName(field);
+            switch (FIELDS.get(field).type) {
+                case STRING -> generator.writeString(rs.getString(column));
+                case LONG -> {
+                    long value = rs.getLong(column);
+                    if (rs.wasNull()) {
+                        generator.writeNull();
+                    } else {
+                        generator.writeNumber(value);
+                    }
+                }
+                case INT -> {
+                    int value = rs.getInt(column);
+                    if (rs.wasNull()) {
+                        generator.writeNull();
+                    } else {
+                        generator.writeNumber(value);
+                    }
+                }
+                case DECIMAL -> {
+                    BigDecimal value = rs.getBigDecimal(column);
+                    if (value == null) {
+                        generator.writeNull();
+                    } else {
+                        generator.writeNumber(value);
+                    }
+                }
+                case BOOLEAN -> {
+                    boolean value = rs.getBoolean(column);
+                    if (rs.wasNull()) {
+                        generator.writeNull();
+                    } else {
+                        generator.writeBoolean(value);
+                    }
+                }
+                case TIMESTAMP -> {
+                    Timestamp value = rs.getTimestamp(column);
+                    // through the mapper, so dates look exactly like those of the DTO endpoints
+                    generator.writeObject(value != null ? value.toLocalDateTime() : null);
+                }
+            }
+            column++;
+        }
+        generator.writeEndObject();
+    }
+
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(out);
+        // the servlet container owns the response stream
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private String qualified(String schema, String relation) {
+        // the schema comes from the request's tenant and is spliced into the SQL, so only plain names pass
+        if (schema == null || !DatabaseInitializationService.SCHEMA_NAME.matcher(schema).matches()) {
+            throw new IllegalArgumentException("Invalid tenant schema name: " + schema);
+        }
+        return "\"" + schema + "\"." + relation;
+    }
+
+    private enum Type { STRING, LONG, INT, DECIMAL, BOOLEAN, TIMESTAMP }
+
+    @AllArgsConstructor
+    private static class Field {
+        private final String sql;
+        private final Type type;
+    }
+}
@@ -0,0 +1,109 @@
+package dev.oasis.stockify.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Migrates the id columns of every tenant schema to the pooled-lo sequences used by the entities.
+ * IDENTITY columns are converted to plain sequence defaults and every id sequence is switched to
+ * INCREMENT BY {@link #ALLOCATION_SIZE} and moved past the current max(id).
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SequenceMigrationService {
+
+    /** Must match the allocationSize of the @SequenceGenerator on the entities */
+    public static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> SEQUENCE_TABLES = List.of(
+            "app_user", "contact_messages", "product_categories", "product", "stock_movement", "stock_notification");
+
+    private final DataSource dataSource;
+
+    /**
+     * Migrate the id sequences of a single schema. Sequences already on the pooled increment are left alone.
+     */
+    public void migrateSchema(String schema) {
+        try (Connection connection = dataSource.getConnection()) {
+            for (String table : SEQUENCE_TABLES) {
+                if (tableExists(connection, schema, table)) {
+                    migrateTable(connection, schema, table);
+                }
+            }
+        } catch (SQLException e) {
+            log.error("❌ Error migrating id sequences in schema {}: {}", schema, e.getMessage());
+            throw new RuntimeException("Failed to migrate id sequences in schema: " + schema, e);
+        }
+    }
+
+    private void migrateTable(Connection connection, String schema, String table) throws SQLException {
+        String qualifiedTable = "\"" + schema + "\"." + table;
+        String sequence = table + "_id_seq";
+        String qualifiedSequence = "\"" + schema + "\"." + sequence;
+
+        boolean identity = isIdentity(connection, schema, table);
+        Integer increment = currentIncrement(connection, schema, sequence);
+        if (!identity && increment != null && increment == ALLOCATION_SIZE) {
+            return;
+        }
+
+        log.info("🔧 Migrating {}.id to pooled sequence {} (increment {})", qualifiedTable, qualifiedSequence, ALLOCATION_SIZE);
+        try (Statement stmt = connection.createStatement()) {
+            if (identity) {
+                stmt.execute("ALTER TABLE " + qualifiedTable + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+            }
+            stmt.execute("CREATE SEQUENCE IF NOT EXISTS " + qualifiedSequence);
+            stmt.execute("ALTER SEQUENCE " + qualifiedSequence + " INCREMENT BY " + ALLOCATION_SIZE
+                    + " OWNED BY " + qualifiedTable + ".id");
+            stmt.execute("ALTER TABLE " + qualifiedTable + " ALTER COLUMN id SET DEFAULT nextval('"
+                    + qualifiedSequence.replace("'", "''") + "')");
+            // pooled-lo hands out [value, value + increment), so the next value must be above every existing id
+            stmt.execute("SELECT setval('" + qualifiedSequence.replace("'", "''") + "', "
+                    + "COALESCE((SELECT MAX(id) FROM " + qualifiedTable + "), 0) + 1, false)");
+        }
+    }
+
+    private boolean tableExists(Connection connection, String schema, String table) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.tables WHERE table_schema = ? AND table_name = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, schema);
+            ps.setString(2, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private boolean isIdentity(Connection connection, String schema, String table) throws SQLException {
+        String sql = "SELECT is_identity FROM information_schema.columns " +
+                     "WHERE table_schema = ? AND table_name = ? AND column_name = 'id'";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, schema);
+            ps.setString(2, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && "YES".equalsIgnoreCase(rs.getString(1));
+            }
+        }
+    }
+
+    private Integer currentIncrement(Connection connection, String schema, String sequence) throws SQLException {
+        String sql = "SELECT increment_by FROM pg_sequences WHERE schemaname = ? AND sequencename = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, schema);
+            ps.setString(2, sequence);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package dev.oasis.stockify.service;
+
+import dev.oasis.stockify.config.metrics.TenantMetrics;
+import dev.oasis.stockify.dto.StockAnalysisDTO;
+import dev.oasis.stockify.dto.StockAnalysisRequestDTO;
+import dev.oasis.stockify.util.ServiceTenantUtil;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finished stock analyses per tenant and request, in front of {@link StockAnalysisService}.
+ * A hit is answered without a bulkhead permit, a transaction or a connection; only a miss enters the
+ * service's coalescing, bulkhead and read-only transaction. Results are valid while the catalog version they
+ * were computed at is current (per product for a product's analysis), on the day they were computed and
+ * within the max age.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StockAnalysisCacheService {
+
+    private final StockAnalysisService stockAnalysisService;
+    private final CatalogVersionService catalogVersionService;
+    private final ServiceTenantUtil serviceTenantUtil;
+    private final TenantMetrics tenantMetrics;
+
+    @Value("${stockify.analysis.cache.max-entries:500}")
+    private int cacheMaxEntries;
+
+    @Value("${stockify.analysis.cache.max-age-seconds:600}")
+    private long cacheMaxAgeSeconds;
+
+    private final Map<String, CachedAnalysis> analysisCache = new ConcurrentHashMap<>();
+
+    /**
+     * Stock analysis of the current tenant, from memory when still current
+     */
+    public StockAnalysisDTO getStockAnalysis(StockAnalysisRequestDTO request) {
+        String tenant = serviceTenantUtil.getCurrentTenant();
+        String currentTenant = tenant != null ? tenant.toLowerCase(Locale.ROOT) : "public";
+        // the window ends today, so a result is only valid on the day it was computed
+        String cacheKey = currentTenant + "|" + LocalDate.now() + "|" + request;
+        // read before computing, so a write during the computation invalidates the stored result
+        String version = catalogVersionService.version(currentTenant, request.getProductId());
+        long now = System.currentTimeMillis();
+
+        CachedAnalysis cached = analysisCache.get(cacheKey);
+        if (cached != null && cached.version.equals(version) && now - cached.computedAt < cacheMaxAgeSeconds * 1000) {
+            tenantMetrics.cacheAccess("analysis", currentTenant, true);
+            log.debug("📊 Serving cached stock analysis for tenant: {}, productId: {}", currentTenant, request.getProductId());
+            return cached.analysis;
+        }
+        tenantMetrics.cacheAccess("analysis", currentTenant, false);
+
+        StockAnalysisDTO analysis = stockAnalysisService.generateStockAnalysis(request);
+        if (analysisCache.size() >= cacheMaxEntries) {
+            log.debug("🧹 Analysis cache reached {} entries, clearing", cacheMaxEntries);
+            analysisCache.clear();
+        }
+        analysisCache.put(cacheKey, new CachedAnalysis(version, now, analysis));
+        return analysis;
+    }
+
+    @AllArgsConstructor
+    private static class CachedAnalysis {
+        private final String version;
+        private final long computedAt;
+        private final StockAnalysisDTO analysis;
+    }
+}
@@ -1,5 +1,7 @@
 package dev.oasis.stockify.service;
 
+import dev.oasis.stockify.config.tenant.Bulkhead;
+import dev.oasis.stockify.config.tenant.Coalesced;
 import dev.oasis.stockify.dto.StockAnalysisDTO;
 import dev.oasis.stockify.dto.StockAnalysisRequestDTO;
 import dev.oasis.stockify.dto.StockMovementResponseDTO;
@@ -7,10 +9,12 @@ import dev.oasis.stockify.model.Product;
 import dev.oasis.stockify.model.StockMovement;
 import dev.oasis.stockify.repository.ProductRepository;
 import dev.oasis.stockify.repository.StockMovementRepository;
+import dev.oasis.stockify.util.DemandForecaster;
 import dev.oasis.stockify.util.ServiceTenantUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -29,10 +33,15 @@ public class StockAnalysisService {
     private final StockMovementRepository stockMovementRepository;
     private final ProductRepository productRepository;
     private final ServiceTenantUtil serviceTenantUtil;
+    private final MovementArchiveService movementArchiveService;
 
     /**
-     * Generate comprehensive stock analysis
+     * Generate comprehensive stock analysis. Callers go through {@link StockAnalysisCacheService}, so only a
+     * cache miss takes a bulkhead permit and a connection.
      */
+    @Coalesced("analysis")
+    @Bulkhead("analysis")
+    @Transactional(readOnly = true)
     public StockAnalysisDTO generateStockAnalysis(StockAnalysisRequestDTO request) {
         String currentTenant = serviceTenantUtil.getCurrentTenant();
         log.info("📊 Generating stock analysis for tenant: {}, productId: {}, days: {}", 
@@ -41,8 +50,13 @@ public class StockAnalysisService {
         LocalDateTime startDate = LocalDateTime.now().minusDays(request.getDays());
         LocalDateTime endDate = LocalDateTime.now();
 
-        // Get filtered movements
+        // Get filtered movements, including archived months when the range reaches back that far
         List<StockMovement> movements = getFilteredMovements(request, startDate, endDate);
+        if (movementArchiveService.reachesArchive(startDate)) {
+            movements = new ArrayList<>(movements);
+            movements.addAll(movementArchiveService.findArchived(startDate, endDate, request.getProductId(), request.getMovementType()));
+            movements.sort(Comparator.comparing(StockMovement::getCreatedAt).reversed());
+        }
         
         // Calculate summary statistics
         int totalMovements = movements.size();
@@ -158,17 +172,7 @@ public class StockAnalysisService {
         if (avgDailyUsage > 0 && currentStock > 0) {
             daysRemaining = (int) Math.ceil(currentStock / avgDailyUsage);
             estimatedDepletionDate = LocalDate.now().plusDays(daysRemaining);
-
-            // Determine risk level
-            if (daysRemaining <= 7) {
-                riskLevel = "CRITICAL";
-            } else if (daysRemaining <= 30) {
-                riskLevel = "HIGH";
-            } else if (daysRemaining <= 60) {
-                riskLevel = "MEDIUM";
-            } else {
-                riskLevel = "LOW";
-            }
+            riskLevel = DemandForecaster.riskLevel(currentStock, daysRemaining);
         } else if (currentStock <= 0) {
             riskLevel = "CRITICAL";
         }
@@ -0,0 +1,444 @@
+package dev.oasis.stockify.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.oasis.stockify.event.EntityChangedEvent;
+import dev.oasis.stockify.model.Product;
+import dev.oasis.stockify.model.StockNotification;
+import dev.oasis.stockify.repository.ProductRepository;
+import dev.oasis.stockify.repository.StockNotificationRepository;
+import dev.oasis.stockify.util.ServiceTenantUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-tenant Server-Sent Events stream of stock level changes, new notifications and badge counts.
+ * Every event gets a tenant-wide version; the SSE id is "epoch-version", so a reconnecting browser
+ * (Last-Event-ID) or a client passing {@code since} gets only the events it missed from a bounded replay
+ * buffer, or a {@code reset} event when they are no longer buffered or the node has restarted.
+ * Each event is serialized and framed once on one of a few striped fan-out threads, which keeps the per-tenant
+ * order, and only queued there; every subscriber has a bounded queue drained by a shared writer pool, so a slow
+ * client can never hold up the tenant. A subscriber whose queue overflows or whose write stalls is dropped and
+ * reconnects with its last event id. Badge counts are recomputed at most once per interval per tenant, however
+ * many connections are open.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StockEventStreamService {
+
+    private final ServiceTenantUtil serviceTenantUtil;
+    private final ProductRepository productRepository;
+    private final StockNotificationRepository stockNotificationRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${stockify.sse.replay-size:500}")
+    private int replaySize;
+
+    @Value("${stockify.sse.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Value("${stockify.sse.fan-out-threads:4}")
+    private int fanOutThreads;
+
+    @Value("${stockify.sse.writer-threads:16}")
+    private int writerThreads;
+
+    @Value("${stockify.sse.subscriber-queue-size:512}")
+    private int subscriberQueueSize;
+
+    @Value("${stockify.sse.write-timeout-ms:10000}")
+    private long writeTimeoutMs;
+
+    /** Distinguishes versions of this node's run from those of a previous one */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, TenantChannel> channels = new ConcurrentHashMap<>();
+    private volatile ExecutorService[] stripes;
+    private volatile ExecutorService writers;
+
+    /**
+     * Open a stream for the current tenant, replaying what was missed after {@code resumeToken}
+     */
+    public SseEmitter subscribe(String resumeToken) {
+        String tenantId = currentTenant();
+        SseEmitter emitter = createEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes));
+        TenantChannel channel = channels.computeIfAbsent(tenantId, TenantChannel::new);
+        Subscriber subscriber = new Subscriber(channel, emitter);
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::detach);
+        emitter.onError(e -> subscriber.detach());
+
+        // counts are read here, in the request's tenant context, and sent unversioned as the first event
+        String badges = toJson(badgeCounts());
+        stripe(tenantId).execute(() -> {
+            subscriber.offer(SseEmitter.event().name("badges").data(badges).build());
+            List<StreamEvent> missed = channel.since(resumeToken);
+            if (missed == null || missed.size() >= subscriberQueueSize) {
+                subscriber.offer(SseEmitter.event().id(channel.token()).name("reset").data("{}").build());
+            } else {
+                missed.forEach(event -> subscriber.offer(event.frame));
+            }
+            channel.subscribers.add(subscriber);
+        });
+        log.debug("📡 SSE subscriber added for tenant {} (resume {}), {} open", tenantId, resumeToken,
+                channel.subscribers.size() + 1);
+        return emitter;
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        TenantChannel channel = channels.get(normalize(event.getTenantId()));
+        if (channel == null) {
+            return;
+        }
+        if (event.getEntityType() == Product.class) {
+            publish(channel, "stock", stockPayload(event));
+            channel.badgesDirty.set(true);
+        } else if (event.getEntityType() == StockNotification.class) {
+            if (event.getChangeType() == EntityChangedEvent.ChangeType.INSERT) {
+                publish(channel, "notification", notificationPayload((StockNotification) event.getEntity()));
+            }
+            channel.badgesDirty.set(true);
+        }
+    }
+
+    /**
+     * Recount the tenant's badges on the next run, for bulk writes that produce no {@link EntityChangedEvent}
+     */
+    public void markBadgesDirty(String tenantId) {
+        TenantChannel channel = channels.get(normalize(tenantId));
+        if (channel != null) {
+            channel.badgesDirty.set(true);
+        }
+    }
+
+    /**
+     * Recompute badge counts of tenants that changed since the last run and have subscribers
+     */
+    @Scheduled(fixedDelayString = "${stockify.sse.badge-interval-ms:1000}")
+    public void publishBadges() {
+        for (TenantChannel channel : channels.values()) {
+            if (channel.subscribers.isEmpty() || !channel.badgesDirty.compareAndSet(true, false)) {
+                continue;
+            }
+            try {
+                Map<String, Object> counts = serviceTenantUtil.executeInTenant(channel.tenantId, this::badgeCounts);
+                publish(channel, "badges", counts);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Badge counts failed for tenant {}: {}", channel.tenantId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Comment line that keeps idle connections open through proxies and drops dead ones, including
+     * subscribers whose current write has been blocked for longer than the write timeout
+     */
+    @Scheduled(fixedDelayString = "${stockify.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (TenantChannel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                long since = subscriber.sendingSince;
+                if (since != 0 && now - since > writeTimeoutMs) {
+                    log.warn("🐌 SSE write for tenant {} blocked for {} ms, dropping subscriber", channel.tenantId, now - since);
+                    subscriber.drop();
+                }
+            }
+            if (!channel.subscribers.isEmpty()) {
+                stripe(channel.tenantId).execute(() -> channel.broadcast(SseEmitter.event().comment("ping").build()));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (stripes != null) {
+            for (ExecutorService stripe : stripes) {
+                stripe.shutdownNow();
+            }
+        }
+        if (writers != null) {
+            writers.shutdownNow();
+        }
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void publish(TenantChannel channel, String name, Object payload) {
+        String json = toJson(payload);
+        stripe(channel.tenantId).execute(() -> channel.broadcast(channel.append(name, json).frame));
+    }
+
+    /**
+     * Emitter for one connection; tests substitute one that records or blocks
+     */
+    SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private Map<String, Object> stockPayload(EntityChangedEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("productId", event.getEntityId());
+        if (event.getChangeType() == EntityChangedEvent.ChangeType.DELETE) {
+            payload.put("deleted", true);
+            return payload;
+        }
+        Product product = (Product) event.getEntity();
+        payload.put("title", product.getTitle());
+        payload.put("stockLevel", product.getStockLevel());
+        payload.put("lowStockThreshold", product.getLowStockThreshold());
+        payload.put("lowStock", product.isLowStock());
+        return payload;
+    }
+
+    private Map<String, Object> notificationPayload(StockNotification notification) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", notification.getId());
+        payload.put("productId", notification.getProduct() != null ? notification.getProduct().getId() : null);
+        payload.put("type", notification.getNotificationType());
+        payload.put("priority", notification.getPriority());
+        payload.put("message", notification.getMessage());
+        payload.put("createdAt", String.valueOf(notification.getCreatedAt()));
+        return payload;
+    }
+
+    private Map<String, Object> badgeCounts() {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("lowStockProducts", productRepository.countLowStockProducts());
+        counts.put("outOfStockProducts", productRepository.countOutOfStockProducts());
+        counts.put("unreadNotifications", stockNotificationRepository.countByReadFalse());
+        return counts;
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize stream event", e);
+        }
+    }
+
+    private ExecutorService stripe(String tenantId) {
+        if (stripes == null) {
+            synchronized (this) {
+                if (stripes == null) {
+                    ExecutorService[] created = new ExecutorService[Math.max(1, fanOutThreads)];
+                    for (int i = 0; i < created.length; i++) {
+                        String name = "sse-fan-out-" + i;
+                        created[i] = Executors.newSingleThreadExecutor(runnable -> {
+                            Thread thread = new Thread(runnable, name);
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+                    }
+                    stripes = created;
+                }
+            }
+        }
+        return stripes[Math.floorMod(tenantId.hashCode(), stripes.length)];
+    }
+
+    private ExecutorService writers() {
+        if (writers == null) {
+            synchronized (this) {
+                if (writers == null) {
+                    AtomicInteger counter = new AtomicInteger();
+                    writers = Executors.newFixedThreadPool(Math.max(1, writerThreads), runnable -> {
+                        Thread thread = new Thread(runnable, "sse-writer-" + counter.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return writers;
+    }
+
+    private String currentTenant() {
+        return normalize(serviceTenantUtil.getCurrentTenant());
+    }
+
+    // channels are keyed lowercase, tenants from a JWT or login body keep their casing
+    private String normalize(String tenantId) {
+        return tenantId != null ? tenantId.toLowerCase(Locale.ROOT) : "public";
+    }
+
+    /**
+     * A versioned event, framed once and shared by every subscriber
+     */
+    private static final class StreamEvent {
+
+        private final Set<ResponseBodyEmitter.DataWithMediaType> frame;
+
+        private StreamEvent(String id, String name, String json) {
+            this.frame = SseEmitter.event().id(id).name(name).data(json).build();
+        }
+    }
+
+    /**
+     * Subscribers and replay buffer of one tenant; versions and the buffer are only touched on the tenant's stripe
+     */
+    private final class TenantChannel {
+
+        private final String tenantId;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final ArrayDeque<StreamEvent> replay = new ArrayDeque<>();
+        private final AtomicBoolean badgesDirty = new AtomicBoolean();
+        private long version;
+
+        private TenantChannel(String tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        private StreamEvent append(String name, String json) {
+            version++;
+            StreamEvent event = new StreamEvent(epoch + "-" + version, name, json);
+            replay.addLast(event);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            return event;
+        }
+
+        private String token() {
+            return epoch + "-" + version;
+        }
+
+        /**
+         * Buffered events after the token, an empty list for a fresh stream, or null when events were lost
+         */
+        private List<StreamEvent> since(String resumeToken) {
+            if (resumeToken == null || resumeToken.isBlank()) {
+                return List.of();
+            }
+            int dash = resumeToken.lastIndexOf('-');
+            long seen;
+            try {
+                seen = Long.parseLong(resumeToken.substring(dash + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (dash < 0 || !epoch.equals(resumeToken.substring(0, dash)) || seen > version) {
+                return null;
+            }
+            long oldest = version - replay.size() + 1;
+            if (seen < oldest - 1) {
+                return null;
+            }
+            List<StreamEvent> missed = new ArrayList<>();
+            long next = oldest;
+            for (StreamEvent event : replay) {
+                if (next++ > seen) {
+                    missed.add(event);
+                }
+            }
+            return missed;
+        }
+
+        private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(frame);
+            }
+        }
+    }
+
+    /**
+     * One connection with its own bounded queue; at most one writer thread drains it at a time, so its frames
+     * stay in order. The emitter is only completed by the writer, as a blocked send holds the emitter's lock.
+     */
+    private final class Subscriber {
+
+        private final TenantChannel channel;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean dropped;
+        /** Start of the send in progress, 0 while idle */
+        private volatile long sendingSince;
+
+        private Subscriber(TenantChannel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+            this.pending = new LinkedBlockingQueue<>(Math.max(1, subscriberQueueSize));
+        }
+
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (dropped) {
+                return;
+            }
+            if (!pending.offer(frame)) {
+                log.warn("🐌 SSE subscriber of tenant {} fell {} events behind, dropping it", channel.tenantId, pending.size());
+                drop();
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                writers().execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                while (!dropped && (frame = pending.poll()) != null) {
+                    sendingSince = System.currentTimeMillis();
+                    emitter.send(frame);
+                    sendingSince = 0;
+                }
+                if (dropped) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                detach();
+                emitter.completeWithError(e);
+            } finally {
+                sendingSince = 0;
+                draining.set(false);
+            }
+            // a frame offered between the last poll and releasing the flag would otherwise wait for the next event
+            if (!dropped && !pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        /**
+         * Stop delivering; the writer completes the emitter once its current send returns
+         */
+        private void drop() {
+            detach();
+            pending.clear();
+            schedule();
+        }
+
+        private void detach() {
+            dropped = true;
+            channel.subscribers.remove(this);
+        }
+    }
+}
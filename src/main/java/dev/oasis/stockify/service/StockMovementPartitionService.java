@@ -0,0 +1,403 @@
+package dev.oasis.stockify.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly range partitioning of stock_movement on created_at.
+ * <ul>
+ *     <li>{@code stock_movement_history} holds everything before the first monthly partition</li>
+ *     <li>{@code stock_movement_pYYYYMM} holds one month each and is created ahead of time by a nightly job</li>
+ *     <li>{@code stock_movement_default} catches rows past the last partition so inserts never fail</li>
+ * </ul>
+ * Existing non-partitioned tables are migrated by attaching them as the history partition instead of copying
+ * every row. Everything that reads the whole table (backfill, constraint validation, the (id, created_at)
+ * unique index) runs first without blocking writers; only the final rename and attach hold ACCESS EXCLUSIVE,
+ * and that step touches catalog metadata only.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StockMovementPartitionService {
+
+    public static final String TABLE = "stock_movement";
+    public static final String HISTORY_PARTITION = "stock_movement_history";
+    public static final String DEFAULT_PARTITION = "stock_movement_default";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('(\\d{4}-\\d{2}-\\d{2})");
+
+    private final DataSource dataSource;
+    private final DatabaseInitializationService databaseInitializationService;
+
+    @Value("${stockify.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${stockify.partitioning.backfill-batch-size:10000}")
+    private int backfillBatchSize;
+
+    @Value("${stockify.partitioning.lock-timeout:5s}")
+    private String lockTimeout;
+
+    /**
+     * Create the partitions of every tenant for the coming months
+     */
+    @Scheduled(cron = "${stockify.partitioning.cron:0 30 2 * * *}")
+    public void maintainPartitions() {
+        for (String schema : databaseInitializationService.findProvisionedSchemas()) {
+            try {
+                ensurePartitions(schema, currentMonth());
+            } catch (RuntimeException e) {
+                log.error("❌ Partition maintenance failed for schema {}: {}", schema, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Migrate the schema's stock_movement to a partitioned table if needed and create the upcoming partitions
+     */
+    public void ensurePartitioned(String schema) {
+        try (Connection connection = dataSource.getConnection()) {
+            String relkind = relationKind(connection, schema, TABLE);
+            if (relkind == null) {
+                return;
+            }
+            if (!"p".equals(relkind)) {
+                migrateToPartitioned(connection, schema);
+            }
+        } catch (SQLException e) {
+            log.error("❌ Error partitioning {} in schema {}: {}", TABLE, schema, e.getMessage());
+            throw new RuntimeException("Failed to partition " + TABLE + " in schema: " + schema, e);
+        }
+        ensurePartitions(schema, currentMonth());
+    }
+
+    /**
+     * Create the monthly partitions from {@code firstMonth} (or the end of the existing ones) until
+     * {@code monthsAhead} months from now. A partitioned table without partitions first gets a history
+     * partition for everything before {@code firstMonth}.
+     */
+    public void ensurePartitions(String schema, LocalDate firstMonth) {
+        String parent = qualified(schema, TABLE);
+        try (Connection connection = dataSource.getConnection()) {
+            LocalDate covered = coveredUntil(connection, schema);
+            LocalDate month = firstMonth.withDayOfMonth(1);
+            if (covered == null) {
+                execute(connection, "CREATE TABLE IF NOT EXISTS " + qualified(schema, HISTORY_PARTITION) +
+                        " PARTITION OF " + parent + " FOR VALUES FROM (MINVALUE) TO ('" + month + "')");
+            } else if (covered.isAfter(month)) {
+                month = covered;
+            }
+
+            LocalDate last = currentMonth().plusMonths(monthsAhead);
+            int created = 0;
+            for (; !month.isAfter(last); month = month.plusMonths(1)) {
+                createMonthlyPartition(connection, schema, month);
+                created++;
+            }
+
+            execute(connection, "CREATE TABLE IF NOT EXISTS " + qualified(schema, DEFAULT_PARTITION) +
+                    " PARTITION OF " + parent + " DEFAULT");
+            if (created > 0) {
+                log.info("🗓️ Created {} monthly partition(s) of {} in schema {} up to {}", created, TABLE, schema, last);
+            }
+        } catch (SQLException e) {
+            log.error("❌ Error creating {} partitions in schema {}: {}", TABLE, schema, e.getMessage());
+            throw new RuntimeException("Failed to create " + TABLE + " partitions in schema: " + schema, e);
+        }
+    }
+
+    /**
+     * Attach the existing table as the history partition of a new partitioned parent.
+     * The history range ends at the start of next month so every existing row fits it.
+     */
+    private void migrateToPartitioned(Connection connection, String schema) throws SQLException {
+        String table = qualified(schema, TABLE);
+        LocalDate boundary = currentMonth().plusMonths(1);
+        log.info("🔧 Migrating {} to monthly partitions (history until {})", table, boundary);
+
+        prepareForAttach(connection, schema, boundary);
+        swapInPartitionedParent(connection, schema, boundary);
+        log.info("✅ Migrated {} to a partitioned table", table);
+    }
+
+    /**
+     * Online part of the migration, in autocommit: everything that scans the table. NOT VALID constraints
+     * apply to new rows immediately and are validated under SHARE UPDATE EXCLUSIVE, which lets reads and
+     * writes continue; the unique index is built concurrently so ATTACH can adopt it for the primary key.
+     */
+    private void prepareForAttach(Connection connection, String schema, LocalDate boundary) throws SQLException {
+        String table = qualified(schema, TABLE);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try {
+            // the partition key has to be NOT NULL for the primary key on (id, created_at)
+            addCheckConstraint(connection, schema, HISTORY_PARTITION + "_created_at_not_null", "created_at IS NOT NULL");
+            backfillCreatedAt(connection, table);
+            execute(connection, "ALTER TABLE " + table + " VALIDATE CONSTRAINT " + HISTORY_PARTITION + "_created_at_not_null");
+
+            // a validated CHECK lets ATTACH skip its own scan; drop one an interrupted run made for another month
+            execute(connection, "ALTER TABLE " + table + " DROP CONSTRAINT IF EXISTS " + HISTORY_PARTITION + "_bound");
+            addCheckConstraint(connection, schema, HISTORY_PARTITION + "_bound", "created_at < '" + boundary + "'");
+            execute(connection, "ALTER TABLE " + table + " VALIDATE CONSTRAINT " + HISTORY_PARTITION + "_bound");
+
+            String index = HISTORY_PARTITION + "_id_created_at_key";
+            if (Boolean.FALSE.equals(indexValid(connection, schema, index))) {
+                // left behind by an interrupted concurrent build
+                execute(connection, "DROP INDEX CONCURRENTLY " + qualified(schema, index));
+            }
+            execute(connection, "CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS " + index + " ON " + table + " (id, created_at)");
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Fill missing created_at in id ranges, one short transaction each, instead of one UPDATE over the table
+     */
+    private void backfillCreatedAt(Connection connection, String table) throws SQLException {
+        long minId;
+        long maxId;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT min(id), max(id) FROM " + table)) {
+            rs.next();
+            minId = rs.getLong(1);
+            maxId = rs.getLong(2);
+        }
+
+        long updated = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "UPDATE " + table + " SET created_at = now() WHERE id >= ? AND id < ? AND created_at IS NULL")) {
+            for (long from = minId; from <= maxId; from += backfillBatchSize) {
+                ps.setLong(1, from);
+                ps.setLong(2, from + backfillBatchSize);
+                updated += ps.executeUpdate();
+            }
+        }
+        if (updated > 0) {
+            log.info("🔧 Backfilled created_at on {} row(s) of {}", updated, table);
+        }
+    }
+
+    /**
+     * Offline part, one transaction under ACCESS EXCLUSIVE: renames, an empty parent and ATTACH. With the
+     * validated constraints and the unique index above, none of these statements reads the history rows,
+     * and lock_timeout keeps the lock request from queueing every other session behind a long query.
+     */
+    private void swapInPartitionedParent(Connection connection, String schema, LocalDate boundary) throws SQLException {
+        String table = qualified(schema, TABLE);
+        String history = qualified(schema, HISTORY_PARTITION);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            execute(connection, "SET LOCAL lock_timeout = '" + lockTimeout + "'");
+            execute(connection, "LOCK TABLE " + table + " IN ACCESS EXCLUSIVE MODE");
+            // metadata only: uses the validated created_at IS NOT NULL check instead of scanning
+            execute(connection, "ALTER TABLE " + table + " ALTER COLUMN created_at SET NOT NULL");
+            execute(connection, "ALTER TABLE " + table + " RENAME TO " + HISTORY_PARTITION);
+
+            // free the constraint and index names for the parent
+            String primaryKey = primaryKeyName(connection, schema, HISTORY_PARTITION);
+            if (primaryKey != null) {
+                execute(connection, "ALTER TABLE " + history + " RENAME CONSTRAINT " + primaryKey + " TO " + HISTORY_PARTITION + "_pkey");
+            }
+            for (String index : indexNames(connection, schema, HISTORY_PARTITION)) {
+                if (!index.startsWith(HISTORY_PARTITION)) {
+                    execute(connection, "ALTER INDEX " + qualified(schema, index) + " RENAME TO " + index + "_history");
+                }
+            }
+
+            execute(connection, "CREATE TABLE " + table + " (LIKE " + history + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS) " +
+                    "PARTITION BY RANGE (created_at)");
+            // LIKE copied the migration checks; the parent does not need them
+            execute(connection, "ALTER TABLE " + table + " DROP CONSTRAINT IF EXISTS " + HISTORY_PARTITION + "_created_at_not_null");
+            execute(connection, "ALTER TABLE " + table + " DROP CONSTRAINT IF EXISTS " + HISTORY_PARTITION + "_bound");
+            execute(connection, "ALTER TABLE " + table + " ADD CONSTRAINT " + TABLE + "_pkey PRIMARY KEY (id, created_at)");
+            execute(connection, "ALTER TABLE " + table + " ADD CONSTRAINT " + TABLE + "_product_id_fkey " +
+                    "FOREIGN KEY (product_id) REFERENCES " + qualified(schema, "product") + "(id)");
+            execute(connection, "ALTER SEQUENCE IF EXISTS " + qualified(schema, TABLE + "_id_seq") + " OWNED BY " + table + ".id");
+
+            // adopts the concurrently built unique index and the existing, validated product foreign key
+            execute(connection, "ALTER TABLE " + table + " ATTACH PARTITION " + history +
+                    " FOR VALUES FROM (MINVALUE) TO ('" + boundary + "')");
+            execute(connection, "ALTER TABLE " + history + " DROP CONSTRAINT " + HISTORY_PARTITION + "_bound");
+            execute(connection, "ALTER TABLE " + history + " DROP CONSTRAINT " + HISTORY_PARTITION + "_created_at_not_null");
+
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Add a CHECK constraint as NOT VALID unless a previous, interrupted migration already did
+     */
+    private void addCheckConstraint(Connection connection, String schema, String name, String condition) throws SQLException {
+        String sql = "SELECT 1 FROM pg_constraint con JOIN pg_class c ON c.oid = con.conrelid " +
+                     "JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = ? AND c.relname = ? AND con.conname = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, schema);
+            ps.setString(2, TABLE);
+            ps.setString(3, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return;
+                }
+            }
+        }
+        execute(connection, "ALTER TABLE " + qualified(schema, TABLE) + " ADD CONSTRAINT " + name +
+                " CHECK (" + condition + ") NOT VALID");
+    }
+
+    /**
+     * Whether the index is valid, or null when it does not exist
+     */
+    private Boolean indexValid(Connection connection, String schema, String index) throws SQLException {
+        String sql = "SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                     "JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = ? AND c.relname = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, schema);
+            ps.setString(2, index);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getBoolean(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Create one monthly partition. Rows already routed to the default partition for that month are
+     * moved into it first, otherwise Postgres refuses to create the partition.
+     */
+    private void createMonthlyPartition(Connection connection, String schema, LocalDate month) throws SQLException {
+        String parent = qualified(schema, TABLE);
+        String partitionName = TABLE + "_p" + month.format(PARTITION_SUFFIX);
+        String partition = qualified(schema, partitionName);
+        String defaultPartition = qualified(schema, DEFAULT_PARTITION);
+        String range = "FROM ('" + month + "') TO ('" + month.plusMonths(1) + "')";
+        String inRange = "created_at >= '" + month + "' AND created_at < '" + month.plusMonths(1) + "'";
+
+        if (relationKind(connection, schema, DEFAULT_PARTITION) == null || !hasRows(connection, defaultPartition, inRange)) {
+            execute(connection, "CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + parent + " FOR VALUES " + range);
+            return;
+        }
+
+        log.warn("⚠️ Moving rows of {} out of {} before creating {}", month, defaultPartition, partitionName);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            execute(connection, "CREATE TABLE " + partition + " (LIKE " + parent + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            execute(connection, "INSERT INTO " + partition + " SELECT * FROM " + defaultPartition + " WHERE " + inRange);
+            execute(connection, "DELETE FROM " + defaultPartition + " WHERE " + inRange);
+            execute(connection, "ALTER TABLE " + parent + " ATTACH PARTITION " + partition + " FOR VALUES " + range);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Highest upper bound of the range partitions, or null when the table has none yet
+     */
+    private LocalDate coveredUntil(Connection connection, String schema) throws SQLException {
+        String sql = "SELECT pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+                     "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)";
+        LocalDate covered = null;
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, qualified(schema, TABLE));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Matcher matcher = UPPER_BOUND.matcher(rs.getString(1));
+                    if (matcher.find()) {
+                        LocalDate bound = LocalDate.parse(matcher.group(1));
+                        if (covered == null || bound.isAfter(covered)) {
+                            covered = bound;
+                        }
+                    }
+                }
+            }
+        }
+        return covered;
+    }
+
+    private String relationKind(Connection connection, String schema, String relation) throws SQLException {
+        String sql = "SELECT c.relkind FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                     "WHERE n.nspname = ? AND c.relname = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, schema);
+            ps.setString(2, relation);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private String primaryKeyName(Connection connection, String schema, String table) throws SQLException {
+        String sql = "SELECT con.conname FROM pg_constraint con JOIN pg_class c ON c.oid = con.conrelid " +
+                     "JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = ? AND c.relname = ? AND con.contype = 'p'";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, schema);
+            ps.setString(2, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private List<String> indexNames(Connection connection, String schema, String table) throws SQLException {
+        String sql = "SELECT indexname FROM pg_indexes WHERE schemaname = ? AND tablename = ?";
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, schema);
+            ps.setString(2, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    names.add(rs.getString(1));
+                }
+            }
+        }
+        return names;
+    }
+
+    private boolean hasRows(Connection connection, String table, String condition) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM " + table + " WHERE " + condition + ")")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private void execute(Connection connection, String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private String qualified(String schema, String relation) {
+        return "\"" + schema + "\"." + relation;
+    }
+
+    private LocalDate currentMonth() {
+        return LocalDate.now().withDayOfMonth(1);
+    }
+}
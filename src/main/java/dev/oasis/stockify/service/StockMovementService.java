@@ -1,6 +1,9 @@
 package dev.oasis.stockify.service;
 
+import dev.oasis.stockify.config.metrics.TenantMetrics;
+import dev.oasis.stockify.config.tenant.Bulkhead;
 import dev.oasis.stockify.dto.BulkStockMovementCreateDTO;
+import dev.oasis.stockify.dto.CursorPageDTO;
 import dev.oasis.stockify.dto.StockMovementCreateDTO;
 import dev.oasis.stockify.dto.StockMovementResponseDTO;
 import dev.oasis.stockify.dto.ValidationErrorDTO;
@@ -10,12 +13,16 @@ import dev.oasis.stockify.model.StockMovement;
 import dev.oasis.stockify.repository.AppUserRepository;
 import dev.oasis.stockify.repository.ProductRepository;
 import dev.oasis.stockify.repository.StockMovementRepository;
+import dev.oasis.stockify.util.KeysetCursor;
 import dev.oasis.stockify.util.ServiceTenantUtil;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -23,14 +30,21 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+import dev.oasis.stockify.exception.FileOperationException;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Writer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -41,16 +55,27 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class StockMovementService {
 
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    private static final Comparator<StockMovement> OLDEST_FIRST =
+            Comparator.comparing(StockMovement::getCreatedAt).thenComparing(StockMovement::getId);
+
     private final StockMovementRepository stockMovementRepository;
     private final ProductRepository productRepository;
     private final AppUserRepository appUserRepository;
     private final StockNotificationService stockNotificationService;
     private final ServiceTenantUtil serviceTenantUtil;
+    private final CountingService countingService;
+    private final MovementArchiveService movementArchiveService;
+    private final TenantMetrics tenantMetrics;
+
+    @Value("${stockify.pagination.approximate-count-cap:10000}")
+    private int approximateCountCap;
 
     /**
      * Create a new stock movement
      */
     @Transactional
+    @Timed(value = "stockify.stock.movement.write", description = "Stock movement write latency")
     public StockMovementResponseDTO createStockMovement(StockMovementCreateDTO dto) {
         String currentTenant = serviceTenantUtil.getCurrentTenant();
         log.info("🔄 Creating stock movement for product ID: {} in tenant: {}", dto.getProductId(), currentTenant);
@@ -113,12 +138,14 @@ public class StockMovementService {
         log.debug("📋 Fetching stock movements for tenant: {} - Page: {}, Size: {}", currentTenant, page, size);
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<StockMovement> movements = stockMovementRepository.findRecent(pageable);
+        Slice<StockMovement> movements = stockMovementRepository.findRecent(pageable);
 
-        return movements.map(this::convertToResponseDTO);
+        Map<Long, String> usernames = usernamesOf(movements.getContent());
+        return countingService.page(movements, StockMovement.class, stockMovementRepository::countTotal)
+                .map(movement -> convertToResponseDTO(movement, usernames));
     }
 
-    public Page<StockMovementResponseDTO> getStockMovements(int page,
+    public Slice<StockMovementResponseDTO> getStockMovements(int page,
                                                             int size,
                                                             String sortBy,
                                                             String sortDir,
@@ -137,12 +164,83 @@ public class StockMovementService {
         };
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortField));
-        Page<StockMovement> pageResult = stockMovementRepository.searchMovements(
-                (search != null && !search.isBlank()) ? search : null,
-                type,
-                pageable);
+        String searchTerm = (search != null && !search.isBlank()) ? search : null;
+        Slice<StockMovement> sliceResult = stockMovementRepository.searchMovements(searchTerm, type, pageable);
+
+        Slice<StockMovement> pageResult = (searchTerm == null && type == null)
+                ? countingService.page(sliceResult, StockMovement.class, stockMovementRepository::countTotal)
+                : countingService.filteredPage(sliceResult, StockMovement.class, searchTerm + "|" + type,
+                        () -> stockMovementRepository.countMovements(searchTerm, type));
+        Map<Long, String> usernames = usernamesOf(pageResult.getContent());
+        return pageResult.map(movement -> convertToResponseDTO(movement, usernames));
+    }
+
+    /**
+     * Keyset listing on (createdAt, id), newest first, with an optional total count
+     * @param cursor continuation token from the previous page, or null for the first page
+     */
+    public CursorPageDTO<StockMovementResponseDTO> getStockMovementsByCursor(String cursor,
+                                                                             int size,
+                                                                             String search,
+                                                                             StockMovement.MovementType type,
+                                                                             CursorPageDTO.CountMode countMode) {
+        String tenant = serviceTenantUtil.getCurrentTenant();
+        log.debug("📋 Fetching stock movements by cursor for tenant: {} size {} search '{}' type {} count {}",
+                tenant, size, search, type, countMode);
+
+        String searchTerm = (search != null && !search.isBlank()) ? search : null;
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<StockMovement> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = stockMovementRepository.findKeysetFirst(searchTerm, type, limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = stockMovementRepository.findKeysetAfter(position.getCreatedAt(), position.getId(), searchTerm, type, limit);
+        }
+
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
 
-        return pageResult.map(this::convertToResponseDTO);
+        String nextCursor = null;
+        if (hasNext) {
+            StockMovement last = rows.get(rows.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        CursorPageDTO<StockMovementResponseDTO> page = CursorPageDTO.<StockMovementResponseDTO>builder()
+                .content(convertToResponseDTOs(rows))
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+
+        switch (countMode) {
+            case EXACT -> page.setTotalCount(stockMovementRepository.countMovements(searchTerm, type));
+            case APPROXIMATE -> applyApproximateCount(page, searchTerm, type);
+            case NONE -> { }
+        }
+        return page;
+    }
+
+    /**
+     * Planner estimate for the unfiltered table, otherwise a count capped at approximateCountCap
+     */
+    private void applyApproximateCount(CursorPageDTO<StockMovementResponseDTO> page,
+                                       String search,
+                                       StockMovement.MovementType type) {
+        if (search == null && type == null) {
+            Long estimate = stockMovementRepository.estimateRowCount();
+            if (estimate != null && estimate > 0) {
+                page.setTotalCount(estimate);
+                page.setTotalCountApproximate(true);
+                return;
+            }
+        }
+        long capped = stockMovementRepository.countMovementsCapped(search, type != null ? type.name() : null, approximateCountCap);
+        page.setTotalCount(capped);
+        page.setTotalCountApproximate(capped >= approximateCountCap);
     }
 
     /**
@@ -153,9 +251,7 @@ public class StockMovementService {
         log.debug("📋 Fetching stock movements for product ID: {} in tenant: {}", productId, currentTenant);
 
         List<StockMovement> movements = stockMovementRepository.findByProductId(productId);
-        return movements.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return convertToResponseDTOs(movements);
     }
 
     /**
@@ -166,11 +262,9 @@ public class StockMovementService {
         log.debug("📋 Fetching recent {} stock movements for tenant: {}", limit, currentTenant);
 
         Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<StockMovement> movements = stockMovementRepository.findRecent(pageable);
+        Slice<StockMovement> movements = stockMovementRepository.findRecent(pageable);
 
-        return movements.getContent().stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return convertToResponseDTOs(movements.getContent());
     }
 
     /**
@@ -180,10 +274,8 @@ public class StockMovementService {
         String currentTenant = serviceTenantUtil.getCurrentTenant();
         log.debug("📋 Fetching stock movements between {} and {} for tenant: {}", startDate, endDate, currentTenant);
 
-        List<StockMovement> movements = stockMovementRepository.findByDateRange(startDate, endDate);
-        return movements.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        List<StockMovement> movements = withArchived(stockMovementRepository.findByDateRange(startDate, endDate), startDate, endDate);
+        return convertToResponseDTOs(movements);
     }
 
     /**
@@ -193,12 +285,21 @@ public class StockMovementService {
         String currentTenant = serviceTenantUtil.getCurrentTenant();
         log.debug("📊 Calculating stock movement statistics for tenant: {}", currentTenant);
 
-        long totalMovements = stockMovementRepository.countTotal();
-        long inMovements = stockMovementRepository.countByMovementType(StockMovement.MovementType.IN);
-        long outMovements = stockMovementRepository.countByMovementType(StockMovement.MovementType.OUT);
-        long adjustments = stockMovementRepository.countByMovementType(StockMovement.MovementType.ADJUSTMENT);
-
-        return new StockMovementStats(totalMovements, inMovements, outMovements, adjustments);
+        // one grouped query instead of four counts plus the archived rollups, cached until a movement is written
+        Map<StockMovement.MovementType, Long> byType = countingService.cached(StockMovement.class, "stats:by-type", () -> {
+            Map<StockMovement.MovementType, Long> counts = new EnumMap<>(StockMovement.MovementType.class);
+            for (Object[] row : stockMovementRepository.countGroupedByMovementType()) {
+                counts.put((StockMovement.MovementType) row[0], (Long) row[1]);
+            }
+            movementArchiveService.archivedCountsByType().forEach((type, count) -> counts.merge(type, count, Long::sum));
+            return counts;
+        });
+
+        long totalMovements = byType.values().stream().mapToLong(Long::longValue).sum();
+        return new StockMovementStats(totalMovements,
+                byType.getOrDefault(StockMovement.MovementType.IN, 0L),
+                byType.getOrDefault(StockMovement.MovementType.OUT, 0L),
+                byType.getOrDefault(StockMovement.MovementType.ADJUSTMENT, 0L));
     }
 
     /**
@@ -217,17 +318,43 @@ public class StockMovementService {
      * Convert entity to response DTO
      */
     private StockMovementResponseDTO convertToResponseDTO(StockMovement movement) {
-        StockMovementResponseDTO dto = StockMovementResponseDTO.fromEntity(movement);
+        return convertToResponseDTO(movement, usernamesOf(List.of(movement)));
+    }
 
+    /**
+     * Convert a page of entities, loading the usernames of all of them with one query
+     */
+    private List<StockMovementResponseDTO> convertToResponseDTOs(List<StockMovement> movements) {
+        Map<Long, String> usernames = usernamesOf(movements);
+        return movements.stream()
+                .map(movement -> convertToResponseDTO(movement, usernames))
+                .collect(Collectors.toList());
+    }
+
+    private StockMovementResponseDTO convertToResponseDTO(StockMovement movement, Map<Long, String> usernames) {
+        StockMovementResponseDTO dto = StockMovementResponseDTO.fromEntity(movement);
         // Add username if available
         if (movement.getCreatedBy() != null) {
-            appUserRepository.findById(movement.getCreatedBy())
-                    .ifPresent(user -> dto.setCreatedByUsername(user.getUsername()));
+            dto.setCreatedByUsername(usernames.get(movement.getCreatedBy()));
         }
-
         return dto;
     }
 
+    /**
+     * Usernames of the distinct creators of the given movements, by user id
+     */
+    private Map<Long, String> usernamesOf(List<StockMovement> movements) {
+        Set<Long> userIds = movements.stream()
+                .map(StockMovement::getCreatedBy)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return appUserRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(AppUser::getId, AppUser::getUsername));
+    }
+
     /**
      * Inner class for stock movement statistics
      */
@@ -272,9 +399,7 @@ public class StockMovementService {
         List<StockMovement> movements = stockMovementRepository
                 .findByCreatedAtBetweenOrderByCreatedAtDesc(startOfDay, endOfDay);
 
-        return movements.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return convertToResponseDTOs(movements);
     }
 
     /**
@@ -284,18 +409,134 @@ public class StockMovementService {
         LocalDateTime startDateTime = start.atStartOfDay();
         LocalDateTime endDateTime = end.atTime(LocalTime.MAX);
 
-        List<StockMovement> movements = stockMovementRepository
-                .findByCreatedAtBetweenOrderByCreatedAtDesc(startDateTime, endDateTime);
+        List<StockMovement> movements = withArchived(stockMovementRepository
+                .findByCreatedAtBetweenOrderByCreatedAtDesc(startDateTime, endDateTime), startDateTime, endDateTime);
 
-        return movements.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return convertToResponseDTOs(movements);
+    }
+
+    /**
+     * Write the movements of a date range (inclusive) as CSV, oldest first. Archived months are streamed
+     * from cold storage one row group at a time and merged with the hot rows, which are read in keyset chunks.
+     */
+    @Bulkhead("export")
+    public void exportMovementsToCsv(Writer writer, LocalDate start, LocalDate end) {
+        LocalDateTime startDateTime = start.atStartOfDay();
+        LocalDateTime endDateTime = end.atTime(LocalTime.MAX);
+
+        try (CSVWriter csvWriter = new CSVWriter(writer)) {
+            csvWriter.writeNext(new String[]{"ID", "Product ID", "Product", "SKU", "Type", "Quantity",
+                    "Previous Stock", "New Stock", "Reference", "Notes", "Created By", "Created At"});
+            HotMovements hot = new HotMovements(startDateTime, endDateTime);
+            if (movementArchiveService.reachesArchive(startDateTime)) {
+                // rows written late for an archived month can still be hot, so interleave instead of appending
+                movementArchiveService.forEachArchived(startDateTime, endDateTime, null, null, movement -> {
+                    while (hot.hasNext() && OLDEST_FIRST.compare(hot.peek(), movement) < 0) {
+                        csvWriter.writeNext(toCsvLine(hot.next()));
+                    }
+                    csvWriter.writeNext(toCsvLine(movement));
+                });
+            }
+            while (hot.hasNext()) {
+                csvWriter.writeNext(toCsvLine(hot.next()));
+            }
+            csvWriter.flush();
+        } catch (IOException e) {
+            throw new FileOperationException("Error writing movements to CSV: " + e.getMessage());
+        }
+    }
+
+    private String[] toCsvLine(StockMovement movement) {
+        return new String[]{
+                String.valueOf(movement.getId()),
+                String.valueOf(movement.getProduct().getId()),
+                movement.getProduct().getTitle(),
+                movement.getProduct().getSku(),
+                movement.getMovementType().name(),
+                String.valueOf(movement.getQuantity()),
+                String.valueOf(movement.getPreviousStock()),
+                String.valueOf(movement.getNewStock()),
+                movement.getReferenceId(),
+                movement.getNotes(),
+                movement.getCreatedBy() != null ? String.valueOf(movement.getCreatedBy()) : null,
+                String.valueOf(movement.getCreatedAt())
+        };
+    }
+
+    /**
+     * Add archived movements when the range reaches back past the hot table, newest first like the finders.
+     * Both inputs are already ordered, so they are merged rather than sorted.
+     */
+    private List<StockMovement> withArchived(List<StockMovement> hot, LocalDateTime start, LocalDateTime end) {
+        if (!movementArchiveService.reachesArchive(start)) {
+            return hot;
+        }
+        List<StockMovement> archived = movementArchiveService.findArchived(start, end, null, null);
+        List<StockMovement> movements = new ArrayList<>(hot.size() + archived.size());
+        int h = 0;
+        int a = archived.size() - 1;
+        while (h < hot.size() || a >= 0) {
+            if (a < 0 || (h < hot.size() && OLDEST_FIRST.compare(hot.get(h), archived.get(a)) >= 0)) {
+                movements.add(hot.get(h++));
+            } else {
+                movements.add(archived.get(a--));
+            }
+        }
+        return movements;
+    }
+
+    /**
+     * Hot movements of a range, oldest first, fetched in keyset chunks so only one chunk is in memory
+     */
+    private class HotMovements {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private List<StockMovement> chunk = List.of();
+        private int position;
+        private boolean exhausted;
+        private LocalDateTime lastCreatedAt;
+        private long lastId;
+
+        private HotMovements(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+            this.lastCreatedAt = start;
+        }
+
+        private boolean hasNext() {
+            if (position < chunk.size()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            // ids are positive, so (start, 0) seeks to the first row of the range
+            chunk = stockMovementRepository.findRangeChunkAfter(start, end, lastCreatedAt, lastId,
+                    PageRequest.of(0, EXPORT_CHUNK_SIZE));
+            position = 0;
+            exhausted = chunk.size() < EXPORT_CHUNK_SIZE;
+            if (!chunk.isEmpty()) {
+                StockMovement last = chunk.get(chunk.size() - 1);
+                lastCreatedAt = last.getCreatedAt();
+                lastId = last.getId();
+            }
+            return !chunk.isEmpty();
+        }
+
+        private StockMovement peek() {
+            return chunk.get(position);
+        }
+
+        private StockMovement next() {
+            return chunk.get(position++);
+        }
     }
 
     /**
      * Toplu hareket oluşturur
      */
     @Transactional
+    @Timed(value = "stockify.stock.movement.bulk.write", description = "Bulk stock movement write latency")
     public List<StockMovementResponseDTO> createBulkStockMovements(BulkStockMovementCreateDTO bulkDto) {
         return bulkDto.getMovements().stream()
                 .map(dto -> {
@@ -401,6 +642,8 @@ public class StockMovementService {
         return errors;
     }
 
+    @Bulkhead("import")
+    @Timed(value = "stockify.import.duration", extraTags = {"type", "stock-movement", "format", "csv"})
     public int importFromCsv(MultipartFile file) throws IOException, com.opencsv.exceptions.CsvValidationException {
         int count = 0;
         try (CSVReader reader = new CSVReader(new java.io.InputStreamReader(file.getInputStream()))) {
@@ -419,6 +662,8 @@ public class StockMovementService {
                 count++;
             }
         }
+        tenantMetrics.count("stockify.import.rows", serviceTenantUtil.getCurrentTenant(), count,
+                "type", "stock-movement", "format", "csv");
         return count;
     }
 
@@ -437,8 +682,6 @@ public class StockMovementService {
         }
         // Fetch all products for this user (if needed, or fetch all movements created by this user)
         List<StockMovement> movements = stockMovementRepository.findByCreatedBy(user.getId());
-        return movements.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return convertToResponseDTOs(movements);
     }
 }
@@ -3,10 +3,13 @@ package dev.oasis.stockify.service;
 import dev.oasis.stockify.model.Product;
 import dev.oasis.stockify.model.StockNotification;
 import dev.oasis.stockify.repository.StockNotificationRepository;
+import dev.oasis.stockify.util.ServiceTenantUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,6 +21,8 @@ public class StockNotificationService {
     
     private final StockNotificationRepository notificationRepository;
     private final Optional<EmailService> emailService;
+    private final StockEventStreamService stockEventStreamService;
+    private final ServiceTenantUtil serviceTenantUtil;
 
    
 
@@ -68,6 +73,7 @@ public class StockNotificationService {
     @Transactional
     public int markAllAsRead() {
         int count = notificationRepository.markAllAsRead();
+        badgesChanged();
         log.info("Marked {} notifications as read", count);
         return count;
     }
@@ -75,6 +81,7 @@ public class StockNotificationService {
     @Transactional
     public int deleteAllRead() {
         int count = notificationRepository.deleteAllRead();
+        badgesChanged();
         log.info("Deleted {} read notifications", count);
         return count;
     }
@@ -90,4 +97,21 @@ public class StockNotificationService {
             return false;
         }
     }
+
+    /**
+     * Bulk JPQL updates publish no entity events, so tell the SSE stream once the counts are committed
+     */
+    private void badgesChanged() {
+        String tenantId = serviceTenantUtil.getCurrentTenant();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stockEventStreamService.markBadgesDirty(tenantId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stockEventStreamService.markBadgesDirty(tenantId);
+            }
+        });
+    }
 }
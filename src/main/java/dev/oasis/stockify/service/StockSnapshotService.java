@@ -0,0 +1,315 @@
+package dev.oasis.stockify.service;
+
+import dev.oasis.stockify.config.datasource.TenantWriteTracker;
+import dev.oasis.stockify.dto.InventoryPositionDTO;
+import dev.oasis.stockify.dto.InventoryValuationDTO;
+import dev.oasis.stockify.model.StockMovement;
+import dev.oasis.stockify.util.ServiceTenantUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodic per-tenant stock snapshots and point-in-time inventory.
+ * The stock of every product at time X is read from the nearest snapshot and corrected with only the
+ * movements between the snapshot and X: the last newStock after an earlier snapshot, or the first
+ * previousStock after X when replaying back from a later snapshot or the live stock levels.
+ * Daily snapshots are kept for {@code daily-retention-days}; older ones are thinned to one per month.
+ * Snapshots also keep each product's title, sku, category and creation time, so products deleted later
+ * still appear in the inventory of dates when they existed.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StockSnapshotService {
+
+    private final DataSource dataSource;
+    private final DatabaseInitializationService databaseInitializationService;
+    private final MovementArchiveService movementArchiveService;
+    private final ServiceTenantUtil serviceTenantUtil;
+
+    @Value("${stockify.snapshot.daily-retention-days:90}")
+    private int dailyRetentionDays;
+
+
+    private TenantWriteTracker tenantWriteTracker;
+
+    /**
+     * Only present with a read replica; raw JDBC writes are not seen by the tracker's entity listener
+     */
+    @Autowired(required = false)
+    void setTenantWriteTracker(TenantWriteTracker tenantWriteTracker) {
+        this.tenantWriteTracker = tenantWriteTracker;
+    }
+
+    /**
+     * Snapshot every tenant; the cron decides whether snapshots are daily or weekly
+     */
+    @Scheduled(cron = "${stockify.snapshot.cron:0 15 0 * * *}")
+    public void snapshotAllTenants() {
+        for (String schema : databaseInitializationService.findProvisionedSchemas()) {
+            try {
+                takeSnapshot(schema);
+            } catch (RuntimeException e) {
+                log.error("❌ Stock snapshot failed for schema {}: {}", schema, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Create the snapshot table in the given schema
+     */
+    public void ensureSnapshotTable(String schema) {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + qualified(schema, "stock_snapshot") + " (" +
+                    "    snapshot_at timestamp(6) NOT NULL," +
+                    "    product_id bigint NOT NULL," +
+                    "    stock_level integer NOT NULL," +
+                    "    unit_price numeric(38,2)," +
+                    "    PRIMARY KEY (snapshot_at, product_id)" +
+                    ")");
+            // product details for historical valuations after the product is deleted
+            for (String column : new String[] { "title varchar(255)", "sku varchar(255)", "category varchar(255)",
+                    "product_created_at timestamp(6)" }) {
+                stmt.execute("ALTER TABLE " + qualified(schema, "stock_snapshot") + " ADD COLUMN IF NOT EXISTS " + column);
+            }
+        } catch (SQLException e) {
+            log.error("❌ Error creating snapshot table in schema {}: {}", schema, e.getMessage());
+            throw new RuntimeException("Failed to create snapshot table in schema: " + schema, e);
+        }
+    }
+
+    /**
+     * Record the current stock of every product in the schema with one INSERT ... SELECT
+     */
+    public LocalDateTime takeSnapshot(String schema) {
+        LocalDateTime snapshotAt = LocalDateTime.now();
+        try (Connection connection = dataSource.getConnection()) {
+            int products;
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO " + qualified(schema, "stock_snapshot") +
+                    " (snapshot_at, product_id, stock_level, unit_price, title, sku, category, product_created_at) " +
+                    "SELECT ?, p.id, COALESCE(p.stock_level, 0), p.price, p.title, p.sku, COALESCE(c.name, p.category), p.created_at " +
+                    "FROM " + qualified(schema, "product") + " p " +
+                    "LEFT JOIN " + qualified(schema, "product_categories") + " c ON c.id = p.category_id")) {
+                ps.setTimestamp(1, Timestamp.valueOf(snapshotAt));
+                products = ps.executeUpdate();
+            }
+
+            // keep recent snapshots daily, older ones only as the first snapshot of each month
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "DELETE FROM " + qualified(schema, "stock_snapshot") + " WHERE snapshot_at < ? AND snapshot_at NOT IN (" +
+                    "SELECT MIN(snapshot_at) FROM " + qualified(schema, "stock_snapshot") + " GROUP BY date_trunc('month', snapshot_at))")) {
+                ps.setTimestamp(1, Timestamp.valueOf(snapshotAt.minusDays(dailyRetentionDays)));
+                ps.executeUpdate();
+            }
+
+            if (tenantWriteTracker != null) {
+                tenantWriteTracker.markWrite(schema);
+            }
+            log.info("📸 Stock snapshot of {} products taken for schema {} at {}", products, schema, snapshotAt);
+            return snapshotAt;
+        } catch (SQLException e) {
+            log.error("❌ Error taking stock snapshot for schema {}: {}", schema, e.getMessage());
+            throw new RuntimeException("Failed to take stock snapshot for schema: " + schema, e);
+        }
+    }
+
+    /**
+     * Snapshot the current tenant now
+     */
+    public LocalDateTime takeSnapshot() {
+        return takeSnapshot(currentSchema());
+    }
+
+    /**
+     * Inventory of the current tenant at the end of the given month
+     */
+    public InventoryValuationDTO getMonthEndValuation(YearMonth month) {
+        return getInventoryAt(month.atEndOfMonth().atTime(LocalTime.MAX));
+    }
+
+    /**
+     * Stock and value of every product of the current tenant at the given time
+     */
+    public InventoryValuationDTO getInventoryAt(LocalDateTime asOf) {
+        String schema = currentSchema();
+        try (Connection connection = dataSource.getConnection()) {
+            LocalDateTime before = nearestSnapshot(connection, schema, asOf, true);
+            LocalDateTime after = nearestSnapshot(connection, schema, asOf, false);
+
+            // replay forward from the snapshot before asOf unless the one after it (or now) is closer
+            LocalDateTime backwardFrom = after != null ? after : LocalDateTime.now();
+            boolean forward = before != null
+                    && Duration.between(before, asOf).compareTo(Duration.between(asOf, backwardFrom)) <= 0;
+            LocalDateTime snapshotAt = forward ? before : after;
+            LocalDateTime replayFrom = forward ? before : asOf;
+            LocalDateTime replayTo = forward ? asOf : backwardFrom;
+
+            List<InventoryPositionDTO> positions = readPositions(connection, schema, asOf, snapshotAt, before, replayFrom, replayTo, forward);
+
+            long totalUnits = 0;
+            BigDecimal totalValue = BigDecimal.ZERO;
+            for (InventoryPositionDTO position : positions) {
+                totalUnits += position.getStockLevel();
+                totalValue = totalValue.add(position.getValue());
+            }
+
+            log.debug("📸 Inventory at {} for schema {} replayed {} from snapshot {}", asOf, schema,
+                    forward ? "forward" : "backward", snapshotAt);
+            return InventoryValuationDTO.builder()
+                    .asOf(asOf)
+                    .snapshotAt(snapshotAt)
+                    .productCount(positions.size())
+                    .totalUnits(totalUnits)
+                    .totalValue(totalValue)
+                    .positions(positions)
+                    .build();
+        } catch (SQLException e) {
+            log.error("❌ Error reading inventory at {} for schema {}: {}", asOf, schema, e.getMessage());
+            throw new RuntimeException("Failed to read inventory at " + asOf, e);
+        }
+    }
+
+    /**
+     * Positions of every product that existed at asOf: current products plus deleted ones found in the replay
+     * snapshot or the nearest snapshot before asOf, which also supply their details
+     */
+    private List<InventoryPositionDTO> readPositions(Connection connection, String schema, LocalDateTime asOf,
+                                                     LocalDateTime snapshotAt, LocalDateTime priorAt, LocalDateTime replayFrom,
+                                                     LocalDateTime replayTo, boolean forward) throws SQLException {
+        // forward: last newStock in (snapshot, asOf]; backward: first previousStock in (asOf, snapshot]
+        String replay = forward
+                ? "SELECT DISTINCT ON (product_id) product_id, new_stock AS replay_stock FROM " + qualified(schema, "stock_movement") +
+                  " WHERE created_at > ? AND created_at <= ? ORDER BY product_id, created_at DESC, id DESC"
+                : "SELECT DISTINCT ON (product_id) product_id, previous_stock AS replay_stock FROM " + qualified(schema, "stock_movement") +
+                  " WHERE created_at > ? AND created_at <= ? ORDER BY product_id, created_at, id";
+        String createdAt = "COALESCE(p.created_at, s.product_created_at, b.product_created_at)";
+        String sql = "WITH snap AS (SELECT * FROM " + qualified(schema, "stock_snapshot") + " WHERE snapshot_at = ?), " +
+                     "prior AS (SELECT * FROM " + qualified(schema, "stock_snapshot") + " WHERE snapshot_at = ?), " +
+                     "m AS (" + replay + ") " +
+                     "SELECT ids.product_id, COALESCE(p.title, s.title, b.title), COALESCE(p.sku, s.sku, b.sku), " +
+                     "COALESCE(c.name, p.category, s.category, b.category), p.price, p.stock_level, s.stock_level, " +
+                     "COALESCE(s.unit_price, b.unit_price), m.replay_stock, b.stock_level, p.id IS NULL " +
+                     "FROM (SELECT id AS product_id FROM " + qualified(schema, "product") +
+                     " UNION SELECT product_id FROM snap UNION SELECT product_id FROM prior) ids " +
+                     "LEFT JOIN " + qualified(schema, "product") + " p ON p.id = ids.product_id " +
+                     "LEFT JOIN " + qualified(schema, "product_categories") + " c ON c.id = p.category_id " +
+                     "LEFT JOIN snap s ON s.product_id = ids.product_id " +
+                     "LEFT JOIN prior b ON b.product_id = ids.product_id " +
+                     "LEFT JOIN m ON m.product_id = ids.product_id " +
+                     "WHERE " + createdAt + " IS NULL OR " + createdAt + " <= ? ORDER BY ids.product_id";
+
+        Map<Long, Integer> archived = archivedReplay(replayFrom, replayTo, forward);
+        List<InventoryPositionDTO> positions = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setTimestamp(1, snapshotAt != null ? Timestamp.valueOf(snapshotAt) : null);
+            ps.setTimestamp(2, priorAt != null ? Timestamp.valueOf(priorAt) : null);
+            ps.setTimestamp(3, Timestamp.valueOf(replayFrom));
+            ps.setTimestamp(4, Timestamp.valueOf(replayTo));
+            ps.setTimestamp(5, Timestamp.valueOf(asOf));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long productId = rs.getLong(1);
+                    Integer replayed = (Integer) rs.getObject(9);
+                    Integer snapshotStock = (Integer) rs.getObject(7);
+                    Integer liveStock = (Integer) rs.getObject(6);
+                    Integer priorStock = (Integer) rs.getObject(10);
+
+                    Integer stock;
+                    if (forward) {
+                        // the hot table holds the newer movements, so it wins over the archive
+                        stock = replayed != null ? replayed : archived.getOrDefault(productId, snapshotStock);
+                    } else {
+                        // the archive holds the older movements, so its first previousStock wins
+                        stock = archived.containsKey(productId) ? archived.get(productId) : replayed;
+                        if (stock == null) {
+                            stock = snapshotStock != null ? snapshotStock : liveStock;
+                        }
+                    }
+                    if (stock == null) {
+                        // a deleted product has no live stock; its last snapshot is the best estimate
+                        stock = liveStock != null ? liveStock : priorStock != null ? priorStock : 0;
+                    }
+
+                    BigDecimal unitPrice = rs.getBigDecimal(8) != null ? rs.getBigDecimal(8) : rs.getBigDecimal(5);
+                    positions.add(InventoryPositionDTO.builder()
+                            .productId(productId)
+                            .title(rs.getString(2))
+                            .sku(rs.getString(3))
+                            .category(rs.getString(4))
+                            .stockLevel(stock)
+                            .unitPrice(unitPrice)
+                            .value(unitPrice != null ? unitPrice.multiply(BigDecimal.valueOf(stock)) : BigDecimal.ZERO)
+                            .deleted(rs.getBoolean(11))
+                            .build());
+                }
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Replay values from archived movements when the replay window reaches into the archive
+     */
+    private Map<Long, Integer> archivedReplay(LocalDateTime from, LocalDateTime to, boolean forward) {
+        Map<Long, Integer> replay = new HashMap<>();
+        if (!movementArchiveService.reachesArchive(from)) {
+            return replay;
+        }
+        // the archive streams oldest first within the window, excluding the window start itself
+        movementArchiveService.forEachArchived(from, to, null, null, (StockMovement movement) -> {
+            if (!movement.getCreatedAt().isAfter(from)) {
+                return;
+            }
+            if (forward) {
+                replay.put(movement.getProduct().getId(), movement.getNewStock());
+            } else {
+                replay.putIfAbsent(movement.getProduct().getId(), movement.getPreviousStock());
+            }
+        });
+        return replay;
+    }
+
+    private LocalDateTime nearestSnapshot(Connection connection, String schema, LocalDateTime asOf, boolean before) throws SQLException {
+        String sql = before
+                ? "SELECT MAX(snapshot_at) FROM " + qualified(schema, "stock_snapshot") + " WHERE snapshot_at <= ?"
+                : "SELECT MIN(snapshot_at) FROM " + qualified(schema, "stock_snapshot") + " WHERE snapshot_at > ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(asOf));
+            try (ResultSet rs = ps.executeQuery()) {
+                Timestamp value = rs.next() ? rs.getTimestamp(1) : null;
+                return value != null ? value.toLocalDateTime() : null;
+            }
+        }
+    }
+
+    private String currentSchema() {
+        String tenant = serviceTenantUtil.getCurrentTenant();
+        return tenant != null ? tenant.toLowerCase() : "public";
+    }
+
+    private String qualified(String schema, String relation) {
+        return "\"" + schema + "\"." + relation;
+    }
+}
@@ -1,6 +1,7 @@
 package dev.oasis.stockify.service;
 
 import dev.oasis.stockify.model.PlanType;
+import dev.oasis.stockify.model.TenantConfig;
 import dev.oasis.stockify.util.ServiceTenantUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +25,7 @@ public class SubscriptionService {
     private final DataSource dataSource;
     private final AppUserService appUserService;
     private final ServiceTenantUtil serviceTenantUtil;
+    private final EntityCacheService entityCacheService;
     
     /**
      * Set subscription plan for tenant
@@ -55,6 +57,7 @@ public class SubscriptionService {
             log.error("❌ Failed to set subscription plan for tenant {}: {}", tenantId, e.getMessage());
             throw new RuntimeException("Failed to set subscription plan", e);
         }
+        entityCacheService.evict(TenantConfig.class);
     }
     
     /**
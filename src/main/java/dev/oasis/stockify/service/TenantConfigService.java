@@ -1,5 +1,6 @@
 package dev.oasis.stockify.service;
 
+import dev.oasis.stockify.model.TenantConfig;
 import dev.oasis.stockify.util.ServiceTenantUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,7 @@ public class TenantConfigService {
 
     private final DataSource dataSource;
     private final ServiceTenantUtil serviceTenantUtil;
+    private final EntityCacheService entityCacheService;
 
     /**
      * Get tenant configuration value by key
@@ -209,5 +211,6 @@ public class TenantConfigService {
             log.error("❌ Failed to update config '{}' = '{}': {}", configKey, configValue, e.getMessage());
             throw new RuntimeException("Failed to update tenant configuration", e);
         }
+        entityCacheService.evict(TenantConfig.class);
     }
 }
@@ -0,0 +1,87 @@
+package dev.oasis.stockify.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Secondary indexes of the tenant tables. The tenant DDL is hand-written, so the indexes the
+ * repository finders rely on are declared here and created in every tenant schema.
+ * On the partitioned stock_movement they are partitioned indexes, cascaded to every current and future partition.
+ * Generated columns that an index needs are added first on schemas created before them.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TenantIndexService {
+
+    /** Table, column and definition of generated columns the indexes below rely on */
+    private static final String[][] GENERATED_COLUMNS = {
+        // low stock without comparing two columns: stock_level <= low_stock_threshold  <=>  stock_headroom <= 0
+        { "product", "stock_headroom", "integer GENERATED ALWAYS AS (stock_level - low_stock_threshold) STORED" }
+    };
+
+    /** Index name, table and column/predicate definition */
+    private static final String[][] INDEXES = {
+        // findLowStock, countLowStockProducts: only low-stock rows, already in urgency order
+        { "idx_product_low_stock", "product", "(stock_headroom, id) WHERE stock_headroom <= 0" },
+        // findRecent, findByDateRange, findByCreatedAtBetween, keyset listing on (created_at, id)
+        { "idx_stock_movement_created_at_id", "stock_movement", "(created_at, id)" },
+        // findByProductId, findByProductIdAndCreatedAtBetween
+        { "idx_stock_movement_product_created_at", "stock_movement", "(product_id, created_at)" },
+        // findByCreatedBy
+        { "idx_stock_movement_created_by", "stock_movement", "(created_by)" },
+        // findByMovementType, countByMovementType, findByMovementTypeAndCreatedAtBetween
+        { "idx_stock_movement_type_created_at", "stock_movement", "(movement_type, created_at)" },
+        // findByCategoryId, countByCategoryId, countGroupedByCategory, and the category foreign key
+        { "idx_product_category_id", "product", "(category_id)" },
+        // findByReadFalseOrderByCreatedAtDesc, markAllAsRead
+        { "idx_stock_notification_unread", "stock_notification", "(created_at) WHERE is_read = false" },
+        // existsByProductAndReadFalse
+        { "idx_stock_notification_product_unread", "stock_notification", "(product_id) WHERE is_read = false" },
+        // findRecentMessages, findByCreatedAtBetweenOrderByCreatedAtDesc
+        { "idx_contact_messages_created_at", "contact_messages", "(created_at)" },
+        // findByIsReadFalseOrderByCreatedAtDesc, countByIsReadFalse
+        { "idx_contact_messages_unread", "contact_messages", "(created_at) WHERE is_read = false" },
+        // findByRespondedFalseOrderByCreatedAtDesc, countByRespondedFalse
+        { "idx_contact_messages_unresponded", "contact_messages", "(created_at) WHERE responded = false" }
+    };
+
+    /** Indexes superseded by a definition above */
+    private static final String[] RETIRED_INDEXES = {
+        "idx_stock_movement_created_at",
+        // category lookups moved to category_id
+        "idx_product_category_lower"
+    };
+
+    private final DataSource dataSource;
+
+    /**
+     * Create any missing indexes in the given schema
+     */
+    public void ensureIndexes(String schema) {
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement()) {
+            for (String retired : RETIRED_INDEXES) {
+                stmt.execute("DROP INDEX IF EXISTS \"" + schema + "\"." + retired);
+            }
+            for (String[] column : GENERATED_COLUMNS) {
+                stmt.execute("ALTER TABLE \"" + schema + "\"." + column[0] +
+                        " ADD COLUMN IF NOT EXISTS " + column[1] + " " + column[2]);
+            }
+            for (String[] index : INDEXES) {
+                stmt.execute("CREATE INDEX IF NOT EXISTS " + index[0] +
+                        " ON \"" + schema + "\"." + index[1] + " " + index[2]);
+            }
+            log.info("✅ Indexes verified in schema: {}", schema);
+        } catch (SQLException e) {
+            log.error("❌ Error creating indexes in schema {}: {}", schema, e.getMessage());
+            throw new RuntimeException("Failed to create indexes in schema: " + schema, e);
+        }
+    }
+}
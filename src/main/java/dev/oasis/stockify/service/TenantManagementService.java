@@ -36,6 +36,11 @@ public class TenantManagementService {
     private final DataSource dataSource;
     private final AppUserService appUserService;
     private final ServiceTenantUtil serviceTenantUtil;
+    private final TenantIndexService tenantIndexService;
+    private final StockMovementPartitionService stockMovementPartitionService;
+    private final MovementArchiveService movementArchiveService;
+    private final StockSnapshotService stockSnapshotService;
+    private final DemandForecastService demandForecastService;
 
     /**
      * Create a new tenant with complete setup
@@ -61,6 +66,11 @@ public class TenantManagementService {
             
             // Initialize tenant configuration to trigger table creation
             initializeTenantConfiguration(tenantId);
+            stockMovementPartitionService.ensurePartitioned(tenantId.toLowerCase(Locale.ROOT));
+            tenantIndexService.ensureIndexes(tenantId.toLowerCase(Locale.ROOT));
+            movementArchiveService.ensureArchiveTables(tenantId.toLowerCase(Locale.ROOT));
+            stockSnapshotService.ensureSnapshotTable(tenantId.toLowerCase(Locale.ROOT));
+            demandForecastService.ensureForecastTable(tenantId.toLowerCase(Locale.ROOT));
             
             // Create initial admin user (tables are now ready)
             createTenantAdmin(createDTO);
@@ -251,12 +261,12 @@ public class TenantManagementService {
     
     private void createSequences(Connection connection) throws SQLException {
         String[] sequences = {
-            "CREATE SEQUENCE IF NOT EXISTS app_user_id_seq START 1 INCREMENT 1",
-            "CREATE SEQUENCE IF NOT EXISTS contact_messages_id_seq START 1 INCREMENT 1",
-            "CREATE SEQUENCE IF NOT EXISTS product_categories_id_seq START 1 INCREMENT 1",
-            "CREATE SEQUENCE IF NOT EXISTS product_id_seq START 1 INCREMENT 1",
-            "CREATE SEQUENCE IF NOT EXISTS stock_movement_id_seq START 1 INCREMENT 1",
-            "CREATE SEQUENCE IF NOT EXISTS stock_notification_id_seq START 1 INCREMENT 1"
+            "CREATE SEQUENCE IF NOT EXISTS app_user_id_seq START 1 INCREMENT " + SequenceMigrationService.ALLOCATION_SIZE,
+            "CREATE SEQUENCE IF NOT EXISTS contact_messages_id_seq START 1 INCREMENT " + SequenceMigrationService.ALLOCATION_SIZE,
+            "CREATE SEQUENCE IF NOT EXISTS product_categories_id_seq START 1 INCREMENT " + SequenceMigrationService.ALLOCATION_SIZE,
+            "CREATE SEQUENCE IF NOT EXISTS product_id_seq START 1 INCREMENT " + SequenceMigrationService.ALLOCATION_SIZE,
+            "CREATE SEQUENCE IF NOT EXISTS stock_movement_id_seq START 1 INCREMENT " + SequenceMigrationService.ALLOCATION_SIZE,
+            "CREATE SEQUENCE IF NOT EXISTS stock_notification_id_seq START 1 INCREMENT " + SequenceMigrationService.ALLOCATION_SIZE
         };
         
         try (Statement stmt = connection.createStatement()) {
@@ -336,9 +346,12 @@ public class TenantManagementService {
                 description VARCHAR(255),
                 sku VARCHAR(255),
                 category VARCHAR(255),
+                category_id BIGINT,
                 price DECIMAL(38,2),
                 stock_level INTEGER,
                 low_stock_threshold INTEGER,
+                auto_threshold BOOLEAN DEFAULT FALSE,
+                stock_headroom INTEGER GENERATED ALWAYS AS (stock_level - low_stock_threshold) STORED,
                 is_active BOOLEAN,
                 is_featured BOOLEAN,
                 etsy_product_id VARCHAR(255),
@@ -352,7 +365,8 @@ public class TenantManagementService {
                 CONSTRAINT product_pkey PRIMARY KEY (id),
                 CONSTRAINT product_sku_key UNIQUE (sku),
                 CONSTRAINT product_barcode_key UNIQUE (barcode),
-                CONSTRAINT product_qr_code_key UNIQUE (qr_code)
+                CONSTRAINT product_qr_code_key UNIQUE (qr_code),
+                CONSTRAINT product_category_id_fkey FOREIGN KEY (category_id) REFERENCES product_categories(id)
             )
             """;
         try (Statement stmt = connection.createStatement()) {
@@ -371,12 +385,12 @@ public class TenantManagementService {
                 new_stock INTEGER NOT NULL,
                 notes VARCHAR(255),
                 reference_id VARCHAR(255),
-                created_at TIMESTAMP(6),
+                created_at TIMESTAMP(6) NOT NULL,
                 created_by BIGINT,
                 CONSTRAINT stock_movement_movement_type_check CHECK (movement_type IN ('IN', 'OUT', 'ADJUSTMENT', 'RETURN', 'TRANSFER', 'DAMAGED', 'EXPIRED')),
-                CONSTRAINT stock_movement_pkey PRIMARY KEY (id),
+                CONSTRAINT stock_movement_pkey PRIMARY KEY (id, created_at),
                 CONSTRAINT stock_movement_product_id_fkey FOREIGN KEY (product_id) REFERENCES product(id)
-            )
+            ) PARTITION BY RANGE (created_at)
             """;
         try (Statement stmt = connection.createStatement()) {
             stmt.execute(sql);
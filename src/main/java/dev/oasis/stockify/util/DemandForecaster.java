@@ -0,0 +1,168 @@
+package dev.oasis.stockify.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Daily demand models fitted on a primitive usage series (oldest day first).
+ * Simple exponential smoothing is always fitted; an additive weekly seasonal model is fitted once there are
+ * {@link #MIN_SEASONAL_DAYS} days of history, and the model with the lower one-step-ahead error wins.
+ * That error also drives the safety stock of the reorder point.
+ */
+public final class DemandForecaster {
+
+    public static final int SEASON = 7;
+    public static final int MIN_SEASONAL_DAYS = 4 * SEASON;
+
+    private static final double ALPHA = 0.3;
+    private static final double GAMMA = 0.1;
+
+    private DemandForecaster() {
+    }
+
+    /**
+     * Fit the models on {@code length} days of {@code series} starting at {@code offset}
+     */
+    public static Forecast fit(int[] series, int offset, int length) {
+        long total = 0;
+        for (int i = 0; i < length; i++) {
+            total += series[offset + i];
+        }
+        double average = length > 0 ? (double) total / length : 0.0;
+        if (total == 0) {
+            return new Forecast("NONE", average, 0.0, 0.0, null);
+        }
+
+        // simple exponential smoothing, seeded with the first week
+        double level = seed(series, offset, Math.min(SEASON, length));
+        double sesError = 0.0;
+        for (int i = 0; i < length; i++) {
+            double error = series[offset + i] - level;
+            sesError += error * error;
+            level += ALPHA * error;
+        }
+        Forecast ses = new Forecast("SES", average, Math.max(0.0, level), Math.sqrt(sesError / length), null);
+        if (length < MIN_SEASONAL_DAYS) {
+            return ses;
+        }
+
+        // additive weekly seasonality; season[k] is the offset of weekday k relative to the series start
+        double seasonalLevel = seed(series, offset, SEASON);
+        double[] season = new double[SEASON];
+        for (int k = 0; k < SEASON; k++) {
+            season[k] = series[offset + k] - seasonalLevel;
+        }
+        double seasonalError = 0.0;
+        for (int i = SEASON; i < length; i++) {
+            int k = i % SEASON;
+            double value = series[offset + i];
+            double error = value - (seasonalLevel + season[k]);
+            seasonalError += error * error;
+            double previousLevel = seasonalLevel;
+            seasonalLevel += ALPHA * error;
+            season[k] = GAMMA * (value - previousLevel) + (1 - GAMMA) * season[k];
+        }
+        // compare on the same days the seasonal model was scored on
+        if (seasonalError / (length - SEASON) >= sesError / length) {
+            return ses;
+        }
+
+        double[] ahead = new double[SEASON];
+        double weekly = 0.0;
+        for (int h = 0; h < SEASON; h++) {
+            ahead[h] = Math.max(0.0, seasonalLevel + season[(length + h) % SEASON]);
+            weekly += ahead[h];
+        }
+        return new Forecast("SEASONAL", average, weekly / SEASON, Math.sqrt(seasonalError / (length - SEASON)), ahead);
+    }
+
+    /**
+     * Risk level for a stock position, with the same thresholds as the single-product analysis
+     */
+    public static String riskLevel(int currentStock, Integer daysRemaining) {
+        if (currentStock <= 0) {
+            return "CRITICAL";
+        }
+        if (daysRemaining == null) {
+            return "LOW";
+        }
+        if (daysRemaining <= 7) {
+            return "CRITICAL";
+        } else if (daysRemaining <= 30) {
+            return "HIGH";
+        } else if (daysRemaining <= 60) {
+            return "MEDIUM";
+        }
+        return "LOW";
+    }
+
+    private static double seed(int[] series, int offset, int length) {
+        double sum = 0.0;
+        for (int i = 0; i < length; i++) {
+            sum += series[offset + i];
+        }
+        return length > 0 ? sum / length : 0.0;
+    }
+
+    /**
+     * Fitted model: the historical average, the forecast mean daily usage, the root mean squared
+     * one-step-ahead error and, for the seasonal model, the usage forecast for each of the next seven days
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Forecast {
+
+        private final String model;
+        private final double averageDailyUsage;
+        private final double dailyUsage;
+        private final double dailyError;
+        private final double[] nextWeek;
+
+        /**
+         * Units covering the forecast error over the lead time at the given service-level z-score
+         */
+        public int safetyStock(double serviceLevelZ, int leadTimeDays) {
+            return (int) Math.ceil(serviceLevelZ * dailyError * Math.sqrt(leadTimeDays));
+        }
+
+        /**
+         * Stock level at which to reorder: lead-time demand plus safety stock
+         */
+        public int reorderPoint(double serviceLevelZ, int leadTimeDays) {
+            return (int) Math.ceil(dailyUsage * leadTimeDays) + safetyStock(serviceLevelZ, leadTimeDays);
+        }
+
+        /**
+         * Units to order now to get back to the reorder point plus {@code coverDays} of demand
+         */
+        public int reorderQuantity(int stock, double serviceLevelZ, int leadTimeDays, int coverDays) {
+            int orderUpTo = reorderPoint(serviceLevelZ, leadTimeDays) + (int) Math.ceil(dailyUsage * coverDays);
+            return Math.max(0, orderUpTo - Math.max(stock, 0));
+        }
+
+        /**
+         * Days until the stock runs out at the forecast usage, or null when there is no usage
+         */
+        public Integer daysRemaining(int stock) {
+            if (stock <= 0) {
+                return 0;
+            }
+            if (dailyUsage <= 0.0) {
+                return null;
+            }
+            if (nextWeek == null) {
+                return (int) Math.ceil(stock / dailyUsage);
+            }
+            // skip whole weeks, then walk the remaining days through the weekly profile
+            double weekly = dailyUsage * SEASON;
+            int weeks = (int) Math.floor(stock / weekly);
+            double remaining = stock - weeks * weekly;
+            int days = weeks * SEASON;
+            for (int h = 0; remaining > 1e-9; h++) {
+                remaining -= nextWeek[h % SEASON];
+                days++;
+            }
+            return days;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package dev.oasis.stockify.util;
+
+import dev.oasis.stockify.model.Product;
+import dev.oasis.stockify.model.StockMovement;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compressed columnar file of archived stock movements.
+ * Rows are written in groups of {@link #ROW_GROUP_SIZE}; inside a group every column is stored contiguously,
+ * ids and timestamps as deltas and all integers as zig-zag varints, so sorted movements compress well.
+ * Memory use is bounded by one row group on both the write and the read side.
+ */
+public final class MovementColumnFile {
+
+    public static final int ROW_GROUP_SIZE = 8192;
+
+    private static final int MAGIC = 0x534D4331; // "SMC1"
+    private static final StockMovement.MovementType[] TYPES = StockMovement.MovementType.values();
+
+    private MovementColumnFile() {
+    }
+
+    public static Writer writer(Path path) throws IOException {
+        return new Writer(Files.newOutputStream(path));
+    }
+
+    public static Reader reader(Path path) throws IOException {
+        return new Reader(Files.newInputStream(path));
+    }
+
+    /**
+     * Buffers one row group of primitive columns and flushes it when full
+     */
+    public static final class Writer implements Closeable {
+
+        private final DataOutputStream out;
+        private final long[] ids = new long[ROW_GROUP_SIZE];
+        private final long[] productIds = new long[ROW_GROUP_SIZE];
+        private final byte[] types = new byte[ROW_GROUP_SIZE];
+        private final int[] quantities = new int[ROW_GROUP_SIZE];
+        private final int[] previousStocks = new int[ROW_GROUP_SIZE];
+        private final int[] newStocks = new int[ROW_GROUP_SIZE];
+        private final long[] createdAts = new long[ROW_GROUP_SIZE];
+        private final long[] createdBys = new long[ROW_GROUP_SIZE];
+        private final String[] referenceIds = new String[ROW_GROUP_SIZE];
+        private final String[] notes = new String[ROW_GROUP_SIZE];
+        private int size;
+        private long rows;
+
+        private Writer(OutputStream target) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(target, 64 * 1024)));
+            out.writeInt(MAGIC);
+        }
+
+        public void write(long id, long productId, StockMovement.MovementType type, int quantity, int previousStock,
+                          int newStock, LocalDateTime createdAt, Long createdBy, String referenceId, String note) throws IOException {
+            ids[size] = id;
+            productIds[size] = productId;
+            types[size] = (byte) type.ordinal();
+            quantities[size] = quantity;
+            previousStocks[size] = previousStock;
+            newStocks[size] = newStock;
+            createdAts[size] = toMicros(createdAt);
+            createdBys[size] = createdBy != null ? createdBy + 1 : 0;
+            referenceIds[size] = referenceId;
+            notes[size] = note;
+            size++;
+            rows++;
+            if (size == ROW_GROUP_SIZE) {
+                flushGroup();
+            }
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        private void flushGroup() throws IOException {
+            if (size == 0) {
+                return;
+            }
+            writeVarLong(out, size);
+            writeDeltas(ids);
+            for (int i = 0; i < size; i++) writeVarLong(out, zigZag(productIds[i]));
+            out.write(types, 0, size);
+            for (int i = 0; i < size; i++) writeVarLong(out, zigZag(quantities[i]));
+            for (int i = 0; i < size; i++) writeVarLong(out, zigZag(previousStocks[i]));
+            for (int i = 0; i < size; i++) writeVarLong(out, zigZag(newStocks[i]));
+            writeDeltas(createdAts);
+            for (int i = 0; i < size; i++) writeVarLong(out, createdBys[i]);
+            for (int i = 0; i < size; i++) writeString(out, referenceIds[i]);
+            for (int i = 0; i < size; i++) writeString(out, notes[i]);
+            size = 0;
+        }
+
+        private void writeDeltas(long[] column) throws IOException {
+            long previous = 0;
+            for (int i = 0; i < size; i++) {
+                writeVarLong(out, zigZag(column[i] - previous));
+                previous = column[i];
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flushGroup();
+            writeVarLong(out, 0);
+            out.close();
+        }
+    }
+
+    /**
+     * Reads the file one row group at a time
+     */
+    public static final class Reader implements Closeable {
+
+        private final DataInputStream in;
+        private boolean finished;
+
+        private Reader(InputStream source) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(source, 64 * 1024)));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a stock movement archive file");
+            }
+        }
+
+        /**
+         * Next row group as detached movements whose product only carries its id, or an empty list at the end
+         */
+        public List<StockMovement> nextGroup() throws IOException {
+            if (finished) {
+                return List.of();
+            }
+            int count = (int) readVarLong(in);
+            if (count == 0) {
+                finished = true;
+                return List.of();
+            }
+
+            long[] ids = readDeltas(count);
+            long[] productIds = new long[count];
+            for (int i = 0; i < count; i++) productIds[i] = unZigZag(readVarLong(in));
+            byte[] types = new byte[count];
+            in.readFully(types);
+            int[] quantities = new int[count];
+            for (int i = 0; i < count; i++) quantities[i] = (int) unZigZag(readVarLong(in));
+            int[] previousStocks = new int[count];
+            for (int i = 0; i < count; i++) previousStocks[i] = (int) unZigZag(readVarLong(in));
+            int[] newStocks = new int[count];
+            for (int i = 0; i < count; i++) newStocks[i] = (int) unZigZag(readVarLong(in));
+            long[] createdAts = readDeltas(count);
+            long[] createdBys = new long[count];
+            for (int i = 0; i < count; i++) createdBys[i] = readVarLong(in);
+            String[] referenceIds = new String[count];
+            for (int i = 0; i < count; i++) referenceIds[i] = readString(in);
+            String[] notes = new String[count];
+            for (int i = 0; i < count; i++) notes[i] = readString(in);
+
+            List<StockMovement> group = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Product product = new Product();
+                product.setId(productIds[i]);
+
+                StockMovement movement = new StockMovement();
+                movement.setId(ids[i]);
+                movement.setProduct(product);
+                movement.setMovementType(TYPES[types[i]]);
+                movement.setQuantity(quantities[i]);
+                movement.setPreviousStock(previousStocks[i]);
+                movement.setNewStock(newStocks[i]);
+                movement.setCreatedAt(fromMicros(createdAts[i]));
+                movement.setCreatedBy(createdBys[i] == 0 ? null : createdBys[i] - 1);
+                movement.setReferenceId(referenceIds[i]);
+                movement.setNotes(notes[i]);
+                group.add(movement);
+            }
+            return group;
+        }
+
+        private long[] readDeltas(int count) throws IOException {
+            long[] column = new long[count];
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                previous += unZigZag(readVarLong(in));
+                column[i] = previous;
+            }
+            return column;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static long toMicros(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated stock movement archive file");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in stock movement archive file");
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = (int) readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,163 @@
+package dev.oasis.stockify.benchmark;
+
+import dev.oasis.stockify.service.SequenceMigrationService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk insert throughput of IDENTITY ids (one round trip per row, as Hibernate has to do to read the
+ * generated key) against pooled-lo sequence ids (one nextval per block plus JDBC batches).
+ * Runs only against a local Postgres: STOCKIFY_BENCH_URL=jdbc:postgresql://localhost:5432/stockify
+ */
+@EnabledIfEnvironmentVariable(named = "STOCKIFY_BENCH_URL", matches = "jdbc:postgresql:.*")
+public class BulkInsertBenchmarkTest {
+
+    private static final String SCHEMA = "bench_ids";
+    private static final int ROWS = 5_000;
+    private static final int BATCH_SIZE = 50;
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        connection = DriverManager.getConnection(System.getenv("STOCKIFY_BENCH_URL"),
+                System.getenv().getOrDefault("STOCKIFY_BENCH_USER", "postgres"),
+                System.getenv().getOrDefault("STOCKIFY_BENCH_PASSWORD", "postgres"));
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            stmt.execute("CREATE SCHEMA " + SCHEMA);
+            stmt.execute("CREATE TABLE " + SCHEMA + ".product_identity (id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                    "sku varchar(255), title varchar(255), stock_level integer)");
+            stmt.execute("CREATE TABLE " + SCHEMA + ".movement_identity (id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                    "product_id bigint, movement_type varchar(255), quantity integer, created_at timestamp(6))");
+            stmt.execute("CREATE SEQUENCE " + SCHEMA + ".product_id_seq INCREMENT BY " + SequenceMigrationService.ALLOCATION_SIZE);
+            stmt.execute("CREATE SEQUENCE " + SCHEMA + ".stock_movement_id_seq INCREMENT BY " + SequenceMigrationService.ALLOCATION_SIZE);
+            stmt.execute("CREATE TABLE " + SCHEMA + ".product_pooled (id bigint PRIMARY KEY, " +
+                    "sku varchar(255), title varchar(255), stock_level integer)");
+            stmt.execute("CREATE TABLE " + SCHEMA + ".movement_pooled (id bigint PRIMARY KEY, " +
+                    "product_id bigint, movement_type varchar(255), quantity integer, created_at timestamp(6))");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        if (connection != null) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            }
+            connection.close();
+        }
+    }
+
+    @Test
+    void productInserts_identityVsPooledLo() throws SQLException {
+        // Act
+        double identity = identityInserts("INSERT INTO " + SCHEMA + ".product_identity (sku, title, stock_level) VALUES (?, ?, ?)",
+                (ps, i) -> { ps.setString(1, "SKU-" + i); ps.setString(2, "Product " + i); ps.setInt(3, i % 100); });
+        double pooled = pooledInserts(SCHEMA + ".product_id_seq",
+                "INSERT INTO " + SCHEMA + ".product_pooled (id, sku, title, stock_level) VALUES (?, ?, ?, ?)",
+                (ps, i) -> { ps.setString(2, "SKU-" + i); ps.setString(3, "Product " + i); ps.setInt(4, i % 100); });
+
+        // Assert
+        report("product", identity, pooled);
+        assertEquals(ROWS, count("product_identity"));
+        assertEquals(ROWS, count("product_pooled"));
+    }
+
+    @Test
+    void movementInserts_identityVsPooledLo() throws SQLException {
+        // Act
+        double identity = identityInserts("INSERT INTO " + SCHEMA + ".movement_identity (product_id, movement_type, quantity, created_at) VALUES (?, ?, ?, now())",
+                (ps, i) -> { ps.setLong(1, i % 200); ps.setString(2, "OUT"); ps.setInt(3, -1); });
+        double pooled = pooledInserts(SCHEMA + ".stock_movement_id_seq",
+                "INSERT INTO " + SCHEMA + ".movement_pooled (id, product_id, movement_type, quantity, created_at) VALUES (?, ?, ?, ?, now())",
+                (ps, i) -> { ps.setLong(2, i % 200); ps.setString(3, "OUT"); ps.setInt(4, -1); });
+
+        // Assert
+        report("stock_movement", identity, pooled);
+        assertEquals(ROWS, count("movement_identity"));
+        assertEquals(ROWS, count("movement_pooled"));
+    }
+
+    /** One statement per row, reading the generated key back */
+    private double identityInserts(String sql, RowBinder binder) throws SQLException {
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                binder.bind(ps, i);
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        return rowsPerSecond(start);
+    }
+
+    /** One nextval per block of ids, rows sent in JDBC batches */
+    private double pooledInserts(String sequence, String sql, RowBinder binder) throws SQLException {
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        long lo = 0;
+        int remaining = 0;
+        try (PreparedStatement next = connection.prepareStatement("SELECT nextval('" + sequence + "')");
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < ROWS; i++) {
+                if (remaining == 0) {
+                    try (ResultSet rs = next.executeQuery()) {
+                        rs.next();
+                        lo = rs.getLong(1);
+                    }
+                    remaining = SequenceMigrationService.ALLOCATION_SIZE;
+                }
+                ps.setLong(1, lo++);
+                remaining--;
+                binder.bind(ps, i);
+                ps.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        return rowsPerSecond(start);
+    }
+
+    private double rowsPerSecond(long startNanos) {
+        return ROWS / ((System.nanoTime() - startNanos) / 1_000_000_000.0);
+    }
+
+    private long count(String table) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT count(*) FROM " + SCHEMA + "." + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private void report(String table, double identity, double pooled) {
+        System.out.printf("📊 %s bulk insert (%d rows): IDENTITY %.0f rows/s, pooled-lo + batch %.0f rows/s (x%.1f)%n",
+                table, ROWS, identity, pooled, pooled / identity);
+    }
+
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement ps, int row) throws SQLException;
+    }
+}
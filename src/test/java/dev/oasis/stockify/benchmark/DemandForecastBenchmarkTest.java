@@ -0,0 +1,105 @@
+package dev.oasis.stockify.benchmark;
+
+import dev.oasis.stockify.service.CatalogVersionService;
+import dev.oasis.stockify.service.CountingService;
+import dev.oasis.stockify.service.DatabaseInitializationService;
+import dev.oasis.stockify.service.DemandForecastService;
+import dev.oasis.stockify.service.EntityCacheService;
+import dev.oasis.stockify.service.MovementArchiveService;
+import dev.oasis.stockify.service.StockMovementPartitionService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.mockito.Mockito;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Catalog-wide nightly forecast over 100,000 SKUs (STOCKIFY_BENCH_SKUS) with half a year of outbound history,
+ * twenty movements per SKU. Runs only against a local Postgres: STOCKIFY_BENCH_URL=jdbc:postgresql://localhost:5432/stockify
+ */
+@EnabledIfEnvironmentVariable(named = "STOCKIFY_BENCH_URL", matches = "jdbc:postgresql:.*")
+public class DemandForecastBenchmarkTest {
+
+    private static final String SCHEMA = "bench_forecast";
+
+    private static DriverManagerDataSource dataSource;
+    private static int skus;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        dataSource = new DriverManagerDataSource(System.getenv("STOCKIFY_BENCH_URL"),
+                System.getenv().getOrDefault("STOCKIFY_BENCH_USER", "postgres"),
+                System.getenv().getOrDefault("STOCKIFY_BENCH_PASSWORD", "postgres"));
+        skus = Integer.parseInt(System.getenv().getOrDefault("STOCKIFY_BENCH_SKUS", "100000"));
+
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            stmt.execute("CREATE SCHEMA " + SCHEMA);
+        }
+        new DatabaseInitializationService(dataSource, null, null, null, null).createTablesInSchema(SCHEMA);
+        new StockMovementPartitionService(dataSource, null).ensurePartitions(SCHEMA, LocalDate.now().minusMonths(7));
+        new MovementArchiveService(dataSource, null, null, null, null, null).ensureArchiveTables(SCHEMA);
+        forecastService().ensureForecastTable(SCHEMA);
+
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO " + SCHEMA + ".product (title, sku, stock_level) " +
+                    "SELECT 'Product ' || g, 'SKU-' || g, 50 + g % 500 FROM generate_series(1, " + skus + ") g");
+            stmt.execute("INSERT INTO " + SCHEMA + ".stock_movement (product_id, movement_type, quantity, previous_stock, new_stock, created_at, created_by) " +
+                    "SELECT 1 + (g % " + skus + "), 'OUT', -(1 + g % 5), 100, 99, " +
+                    "date_trunc('day', now()) - ((1 + g % 182) * interval '1 day') + (g % 86400) * interval '1 second', 1 " +
+                    "FROM generate_series(1, " + (skus * 20L) + ") g");
+            stmt.execute("VACUUM ANALYZE " + SCHEMA + ".stock_movement");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void forecastTenant_wholeCatalog() throws SQLException {
+        // Arrange
+        DemandForecastService service = forecastService();
+
+        // Act
+        long start = System.nanoTime();
+        long products = service.forecastTenant(SCHEMA, LocalDate.now());
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+        // Assert
+        assertEquals(skus, products);
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT count(*), count(*) FILTER (WHERE days_remaining IS NOT NULL) FROM " +
+                     SCHEMA + ".product_forecast")) {
+            rs.next();
+            assertEquals(skus, rs.getLong(1));
+            assertEquals(skus, rs.getLong(2));
+        }
+        System.out.printf("📊 Forecast of %d SKUs over %d movements: %.0f ms (%.1f µs per SKU)%n",
+                skus, skus * 20L, millis, millis * 1000 / skus);
+    }
+
+    private static DemandForecastService forecastService() {
+        DemandForecastService service = new DemandForecastService(dataSource, null, null, Mockito.mock(EntityCacheService.class),
+                new CatalogVersionService(), Mockito.mock(CountingService.class));
+        ReflectionTestUtils.setField(service, "historyDays", 182);
+        ReflectionTestUtils.setField(service, "chunkSize", 10_000);
+        ReflectionTestUtils.setField(service, "leadTimeDays", 14);
+        ReflectionTestUtils.setField(service, "serviceLevelZ", 1.65);
+        ReflectionTestUtils.setField(service, "coverDays", 30);
+        return service;
+    }
+}
@@ -0,0 +1,141 @@
+package dev.oasis.stockify.benchmark;
+
+import dev.oasis.stockify.service.DatabaseInitializationService;
+import dev.oasis.stockify.service.StockMovementPartitionService;
+import dev.oasis.stockify.service.TenantIndexService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Date-range finders on a plain stock_movement table against the monthly partitioned one, both with
+ * the tenant indexes. Rows default to 2,000,000 over two years; set STOCKIFY_BENCH_ROWS=50000000 for
+ * the large-tenant run. Runs only against a local Postgres: STOCKIFY_BENCH_URL=jdbc:postgresql://localhost:5432/stockify
+ */
+@EnabledIfEnvironmentVariable(named = "STOCKIFY_BENCH_URL", matches = "jdbc:postgresql:.*")
+public class PartitionedRangeQueryBenchmarkTest {
+
+    private static final String PLAIN = "bench_plain";
+    private static final String PARTITIONED = "bench_partitioned";
+    private static final int RUNS = 7;
+
+    private static DriverManagerDataSource dataSource;
+    private static long rows;
+    private static String now;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        dataSource = new DriverManagerDataSource(System.getenv("STOCKIFY_BENCH_URL"),
+                System.getenv().getOrDefault("STOCKIFY_BENCH_USER", "postgres"),
+                System.getenv().getOrDefault("STOCKIFY_BENCH_PASSWORD", "postgres"));
+        rows = Long.parseLong(System.getenv().getOrDefault("STOCKIFY_BENCH_ROWS", "2000000"));
+        DatabaseInitializationService initializationService = new DatabaseInitializationService(dataSource, null, null, null, null);
+
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            for (String schema : new String[] { PLAIN, PARTITIONED }) {
+                stmt.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+                stmt.execute("CREATE SCHEMA " + schema);
+            }
+        }
+
+        // plain: the pre-partitioning table, partitioned: the current DDL with monthly partitions
+        initializationService.createTablesInSchema(PLAIN);
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP TABLE " + PLAIN + ".stock_movement");
+            stmt.execute("CREATE TABLE " + PLAIN + ".stock_movement (id bigserial PRIMARY KEY, product_id bigint NOT NULL, " +
+                    "movement_type varchar(255) NOT NULL, quantity integer NOT NULL, previous_stock integer NOT NULL, " +
+                    "new_stock integer NOT NULL, notes varchar(255), reference_id varchar(255), created_at timestamp(6), created_by bigint)");
+        }
+        initializationService.createTablesInSchema(PARTITIONED);
+        new StockMovementPartitionService(dataSource, null).ensurePartitions(PARTITIONED, LocalDate.now().minusMonths(24));
+
+        for (String schema : new String[] { PLAIN, PARTITIONED }) {
+            new TenantIndexService(dataSource).ensureIndexes(schema);
+            try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+                stmt.execute("INSERT INTO " + schema + ".product (title, sku, stock_level) " +
+                        "SELECT 'Product ' || g, 'SKU-' || g, 100 FROM generate_series(1, 5000) g");
+                stmt.execute("INSERT INTO " + schema + ".stock_movement (product_id, movement_type, quantity, previous_stock, new_stock, created_at, created_by) " +
+                        "SELECT 1 + (g % 5000), CASE WHEN g % 3 = 0 THEN 'IN' ELSE 'OUT' END, 1 + (g % 10), 100, 99, " +
+                        "now() - (g * (interval '730 days' / " + rows + ")), 1 " +
+                        "FROM generate_series(1, " + rows + ") g");
+                stmt.execute("VACUUM ANALYZE " + schema + ".stock_movement");
+            }
+        }
+        // fixed upper bound so both tables answer exactly the same range
+        now = "TIMESTAMP '" + LocalDateTime.now() + "'";
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP SCHEMA IF EXISTS " + PLAIN + " CASCADE");
+            stmt.execute("DROP SCHEMA IF EXISTS " + PARTITIONED + " CASCADE");
+        }
+    }
+
+    @Test
+    void findByCreatedAtBetween_lastMonth() throws SQLException {
+        compare("findByCreatedAtBetween (30 days)",
+                "SELECT count(*), sum(quantity) FROM %1$s.stock_movement WHERE created_at BETWEEN %2$s - interval '30 days' AND %2$s");
+    }
+
+    @Test
+    void findByProductIdAndCreatedAtBetween_lastQuarter() throws SQLException {
+        compare("findByProductIdAndCreatedAtBetween (90 days)",
+                "SELECT * FROM %1$s.stock_movement WHERE product_id = 42 AND created_at BETWEEN %2$s - interval '90 days' AND %2$s ORDER BY created_at DESC");
+    }
+
+    @Test
+    void findByMovementTypeAndCreatedAtBetween_lastWeek() throws SQLException {
+        compare("findByMovementTypeAndCreatedAtBetween (7 days)",
+                "SELECT * FROM %1$s.stock_movement WHERE movement_type = 'IN' AND created_at BETWEEN %2$s - interval '7 days' AND %2$s ORDER BY created_at DESC");
+    }
+
+    private void compare(String finder, String sqlTemplate) throws SQLException {
+        // Act
+        double plain = medianMillis(String.format(sqlTemplate, PLAIN, now));
+        double partitioned = medianMillis(String.format(sqlTemplate, PARTITIONED, now));
+
+        // Assert - same rows either way
+        assertEquals(resultRows(String.format(sqlTemplate, PLAIN, now)), resultRows(String.format(sqlTemplate, PARTITIONED, now)));
+        System.out.printf("📊 %s over %d rows: plain %.1f ms, partitioned %.1f ms (x%.1f)%n",
+                finder, rows, plain, partitioned, plain / partitioned);
+    }
+
+    private double medianMillis(String sql) throws SQLException {
+        double[] timings = new double[RUNS];
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            for (int i = 0; i < RUNS; i++) {
+                long start = System.nanoTime();
+                try (ResultSet rs = stmt.executeQuery(sql)) {
+                    while (rs.next()) {
+                        // drain
+                    }
+                }
+                timings[i] = (System.nanoTime() - start) / 1_000_000.0;
+            }
+        }
+        Arrays.sort(timings);
+        return timings[RUNS / 2];
+    }
+
+    private long resultRows(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT count(*) FROM (" + sql + ") q")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package dev.oasis.stockify.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import dev.oasis.stockify.model.AppUser;
+import dev.oasis.stockify.model.Product;
+import dev.oasis.stockify.model.ProductCategory;
+import dev.oasis.stockify.model.TenantConfig;
+import org.hibernate.annotations.Cache;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The second-level cache regions in application.conf, as the Caffeine JCache provider configured in
+ * application.properties reads them. A region missing there would be created unbounded at startup.
+ */
+public class SecondLevelCacheRegionsTest {
+
+    private static final String PROVIDER = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+
+    private static CacheManager cacheManager;
+
+    @BeforeAll
+    static void setUp() {
+        cacheManager = Caching.getCachingProvider(PROVIDER).getCacheManager();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void entityRegions_shouldBeBoundedAndExpire() {
+        for (Class<?> entity : new Class<?>[] { Product.class, ProductCategory.class, AppUser.class, TenantConfig.class }) {
+            // Arrange
+            String region = entity.getAnnotation(Cache.class).region();
+
+            // Act
+            CaffeineConfiguration<?, ?> configuration = configuration(region);
+
+            // Assert
+            assertTrue(configuration.getMaximumSize().isPresent(), region + " must be bounded");
+            assertTrue(configuration.getExpireAfterWrite().isPresent(), region + " must expire");
+        }
+    }
+
+    @Test
+    void queryRegions_shouldBoundResultsButKeepUpdateTimestamps() {
+        // Act
+        CaffeineConfiguration<?, ?> results = configuration("default-query-results-region");
+        CaffeineConfiguration<?, ?> timestamps = configuration("default-update-timestamps-region");
+
+        // Assert
+        assertTrue(results.getMaximumSize().isPresent());
+        assertFalse(timestamps.getMaximumSize().isPresent());
+        assertFalse(timestamps.getExpireAfterWrite().isPresent());
+    }
+
+    @SuppressWarnings("unchecked")
+    private CaffeineConfiguration<?, ?> configuration(String region) {
+        javax.cache.Cache<Object, Object> cache = cacheManager.getCache(region);
+        assertNotNull(cache, "No cache configured for region " + region);
+        return cache.getConfiguration(CaffeineConfiguration.class);
+    }
+}
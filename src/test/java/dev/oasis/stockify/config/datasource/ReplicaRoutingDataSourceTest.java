@@ -0,0 +1,137 @@
+package dev.oasis.stockify.config.datasource;
+
+import dev.oasis.stockify.config.metrics.TenantMetrics;
+import dev.oasis.stockify.config.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private Connection primaryConnection;
+    private Connection replicaConnection;
+    private TenantWriteTracker writeTracker;
+    private TenantMetrics tenantMetrics;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        writeTracker = new TenantWriteTracker(60_000);
+        tenantMetrics = new TenantMetrics(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tenantMetrics, "maxTenants", 10);
+        TenantContext.setCurrentTenant("acme");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingContext.set(null);
+        TenantContext.clear();
+    }
+
+    @Test
+    void getConnection_whenReadOnly_shouldUseReplica() throws SQLException {
+        // Arrange
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replica, writeTracker, tenantMetrics, 60_000);
+
+        // Act
+        Connection outside = dataSource.getConnection();
+        ReplicaRoutingContext.set(true);
+        Connection readOnly = dataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, outside);
+        assertSame(replicaConnection, readOnly);
+    }
+
+    @Test
+    void getConnection_whenTenantWroteRecently_shouldReadFromPrimary() throws SQLException {
+        // Arrange
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replica, writeTracker, tenantMetrics, 60_000);
+        writeTracker.markWrite("ACME");
+        ReplicaRoutingContext.set(true);
+
+        // Act
+        Connection own = dataSource.getConnection();
+        TenantContext.setCurrentTenant("globex");
+        Connection other = dataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, own);
+        assertSame(replicaConnection, other);
+    }
+
+    @Test
+    void getConnection_whenReplicaFails_shouldFallBackToPrimary() throws SQLException {
+        // Arrange
+        when(replica.getConnection()).thenThrow(new SQLException("replica down"));
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replica, writeTracker, tenantMetrics, 60_000);
+        ReplicaRoutingContext.set(true);
+
+        // Act
+        Connection connection = dataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+    }
+
+    @Test
+    void getConnection_afterReplicaFailed_shouldSkipReplicaUntilRetry() throws Exception {
+        // Arrange
+        when(replica.getConnection()).thenThrow(new SQLException("replica down")).thenReturn(replicaConnection);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replica, writeTracker, tenantMetrics, 50);
+        ReplicaRoutingContext.set(true);
+        dataSource.getConnection();
+
+        // Act
+        Connection whileDown = dataSource.getConnection();
+        Thread.sleep(100);
+        Connection afterRetry = dataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, whileDown);
+        assertSame(replicaConnection, afterRetry);
+        verify(replica, times(2)).getConnection();
+    }
+
+    /**
+     * Against a second local Postgres acting as replica:
+     * STOCKIFY_BENCH_URL=jdbc:postgresql://localhost:5432/stockify STOCKIFY_REPLICA_URL=jdbc:postgresql://localhost:5433/stockify
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "STOCKIFY_REPLICA_URL", matches = "jdbc:postgresql:.*")
+    void getConnection_withLocalReplica_shouldConnectToReplicaServer() throws SQLException {
+        // Arrange
+        String user = System.getenv().getOrDefault("STOCKIFY_BENCH_USER", "postgres");
+        String password = System.getenv().getOrDefault("STOCKIFY_BENCH_PASSWORD", "postgres");
+        DataSource localPrimary = new DriverManagerDataSource(System.getenv("STOCKIFY_BENCH_URL"), user, password);
+        DataSource localReplica = new DriverManagerDataSource(System.getenv("STOCKIFY_REPLICA_URL"), user, password);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(localPrimary, localReplica, writeTracker, tenantMetrics, 60_000);
+        ReplicaRoutingContext.set(true);
+
+        // Act & Assert
+        try (Connection connection = dataSource.getConnection()) {
+            assertEquals(System.getenv("STOCKIFY_REPLICA_URL"), connection.getMetaData().getURL());
+        }
+    }
+}
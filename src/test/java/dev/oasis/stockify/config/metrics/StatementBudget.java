@@ -0,0 +1,23 @@
+package dev.oasis.stockify.config.metrics;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the test when it runs more SQL statements than {@link #value()}, or repeats one statement shape more
+ * than {@link #maxRepeats()} times. On a class it applies to every test; a method annotation overrides it.
+ * Counts statements prepared on the test thread, which includes MockMvc requests.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(StatementBudgetExtension.class)
+public @interface StatementBudget {
+
+    int value();
+
+    int maxRepeats() default Integer.MAX_VALUE;
+}
@@ -0,0 +1,50 @@
+package dev.oasis.stockify.config.metrics;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Opens a {@link StatementCounter.Scope} around each test and checks it against the {@link StatementBudget}
+ */
+public class StatementBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(StatementBudgetExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), StatementCounter.open());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        StatementCounter.Scope scope = context.getStore(NAMESPACE).remove(context.getUniqueId(), StatementCounter.Scope.class);
+        if (scope == null) {
+            return;
+        }
+        scope.close();
+
+        StatementBudget budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), StatementBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), StatementBudget.class))
+                .orElse(null);
+        if (budget == null) {
+            return;
+        }
+        Map.Entry<String, Integer> repeated = scope.mostRepeated();
+        if (scope.getCount() > budget.value()) {
+            fail(String.format("%s ran %d SQL statements, budget is %d; most repeated %dx: %s",
+                    context.getDisplayName(), scope.getCount(), budget.value(),
+                    repeated.getValue(), StatementCounter.Scope.describe(repeated.getKey(), 300)));
+        }
+        if (repeated != null && repeated.getValue() > budget.maxRepeats()) {
+            fail(String.format("%s repeated one SQL statement %d times, at most %d allowed: %s",
+                    context.getDisplayName(), repeated.getValue(), budget.maxRepeats(),
+                    StatementCounter.Scope.describe(repeated.getKey(), 300)));
+        }
+    }
+}
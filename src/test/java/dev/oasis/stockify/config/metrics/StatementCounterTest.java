@@ -0,0 +1,42 @@
+package dev.oasis.stockify.config.metrics;
+
+import dev.oasis.stockify.config.tenant.ForceSchemaStatementInspector;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementCounterTest {
+
+    private final ForceSchemaStatementInspector inspector = new ForceSchemaStatementInspector();
+
+    @Test
+    void open_whenScopesAreNested_shouldCountStatementsInBoth() {
+        // Arrange
+        StatementCounter.Scope outer = StatementCounter.open();
+
+        // Act
+        inspector.inspect("select p.id from product p");
+        StatementCounter.Scope inner = StatementCounter.open();
+        for (int i = 0; i < 3; i++) {
+            inspector.inspect("select c.id from product_categories c where c.name = ?");
+        }
+        inner.close();
+        outer.close();
+        inspector.inspect("select 1");
+
+        // Assert
+        assertEquals(3, inner.getCount());
+        assertEquals(4, outer.getCount());
+        assertEquals(3, outer.mostRepeated().getValue());
+        assertEquals("select c.id from product_categories c where c.name = ?", outer.mostRepeated().getKey());
+    }
+
+    @Test
+    @StatementBudget(value = 3, maxRepeats = 2)
+    void statementBudget_whenWithinBudget_shouldPass() {
+        // Act
+        inspector.inspect("select p.id from product p where p.id = ?");
+        inspector.inspect("select p.id from product p where p.id = ?");
+        inspector.inspect("select count(*) from stock_notification n where n.is_read = false");
+    }
+}
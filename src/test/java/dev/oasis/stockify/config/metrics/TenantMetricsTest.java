@@ -0,0 +1,47 @@
+package dev.oasis.stockify.config.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TenantMetricsTest {
+
+    @Test
+    void tenantTag_whenLimitIsReached_shouldReportOverflowTag() {
+        // Arrange
+        TenantMetrics tenantMetrics = new TenantMetrics(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tenantMetrics, "maxTenants", 2);
+
+        // Act
+        String first = tenantMetrics.tenantTag("Acme");
+        String second = tenantMetrics.tenantTag("globex");
+        String third = tenantMetrics.tenantTag("initech");
+
+        // Assert
+        assertEquals("acme", first);
+        assertEquals("globex", second);
+        assertEquals(TenantMetrics.OVERFLOW_TAG, third);
+        assertEquals("acme", tenantMetrics.tenantTag("acme"));
+    }
+
+    @Test
+    void cacheAccess_shouldCountHitsAndMissesPerTenant() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TenantMetrics tenantMetrics = new TenantMetrics(registry);
+        ReflectionTestUtils.setField(tenantMetrics, "maxTenants", 10);
+
+        // Act
+        tenantMetrics.cacheAccess("counts", "acme", true);
+        tenantMetrics.cacheAccess("counts", "acme", true);
+        tenantMetrics.cacheAccess("counts", "acme", false);
+
+        // Assert
+        assertEquals(2.0, registry.get("stockify.cache.requests")
+                .tags("tenant", "acme", "cache", "counts", "result", "hit").counter().count());
+        assertEquals(1.0, registry.get("stockify.cache.requests")
+                .tags("tenant", "acme", "cache", "counts", "result", "miss").counter().count());
+    }
+}
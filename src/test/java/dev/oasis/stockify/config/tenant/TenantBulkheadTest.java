@@ -0,0 +1,79 @@
+package dev.oasis.stockify.config.tenant;
+
+import dev.oasis.stockify.config.metrics.TenantMetrics;
+import dev.oasis.stockify.exception.BulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TenantBulkheadTest {
+
+    private SimpleMeterRegistry registry;
+    private TenantBulkhead tenantBulkhead;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        TenantMetrics tenantMetrics = new TenantMetrics(registry);
+        ReflectionTestUtils.setField(tenantMetrics, "maxTenants", 10);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("stockify.bulkhead.import.per-tenant", "1")
+                .withProperty("stockify.bulkhead.import.global", "2");
+        tenantBulkhead = new TenantBulkhead(tenantMetrics, environment);
+        ReflectionTestUtils.setField(tenantBulkhead, "operationWaitMs", 10L);
+        ReflectionTestUtils.setField(tenantBulkhead, "connectionsPerTenant", 1);
+        ReflectionTestUtils.setField(tenantBulkhead, "connectionWaitMs", 10L);
+    }
+
+    @Test
+    void enter_whenTenantLimitIsReached_shouldRejectOnlyThatTenant() {
+        // Arrange
+        TenantBulkhead.Permit held = tenantBulkhead.enter("import", "acme");
+
+        // Act
+        BulkheadFullException rejected = assertThrows(BulkheadFullException.class,
+                () -> tenantBulkhead.enter("import", "ACME"));
+        TenantBulkhead.Permit other = tenantBulkhead.enter("import", "globex");
+
+        // Assert
+        assertEquals("acme", rejected.getTenantId());
+        assertEquals(1.0, registry.get("stockify.bulkhead.rejected")
+                .tags("tenant", "acme", "bulkhead", "import").counter().count());
+        held.close();
+        other.close();
+        assertEquals(1, tenantBulkhead.available("import", "acme"));
+    }
+
+    @Test
+    void enter_whenGlobalLimitIsReached_shouldReleaseTenantPermit() {
+        // Arrange
+        TenantBulkhead.Permit first = tenantBulkhead.enter("import", "acme");
+        TenantBulkhead.Permit second = tenantBulkhead.enter("import", "globex");
+
+        // Act & Assert
+        assertThrows(BulkheadFullException.class, () -> tenantBulkhead.enter("import", "initech"));
+        assertEquals(1, tenantBulkhead.available("import", "initech"));
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void acquireConnection_whenQuotaIsExhausted_shouldFailUntilReleased() {
+        // Arrange
+        assertTrue(tenantBulkhead.acquireConnection("acme"));
+
+        // Act
+        boolean whileHeld = tenantBulkhead.acquireConnection("acme");
+        tenantBulkhead.releaseConnection("acme");
+        boolean afterRelease = tenantBulkhead.acquireConnection("acme");
+
+        // Assert
+        assertFalse(whileHeld);
+        assertTrue(afterRelease);
+        assertTrue(tenantBulkhead.acquireConnection("globex"));
+    }
+}
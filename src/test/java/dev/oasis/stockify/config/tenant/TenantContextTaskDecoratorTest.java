@@ -0,0 +1,70 @@
+package dev.oasis.stockify.config.tenant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TenantContextTaskDecoratorTest {
+
+    private final TenantContextTaskDecorator decorator = new TenantContextTaskDecorator();
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void decorate_shouldRunTaskInSubmittersContextAndCleanUpAfterwards() throws Exception {
+        // Arrange
+        TenantContext.setCurrentTenant("acme");
+        SecurityContextHolder.setContext(new SecurityContextImpl(new TestingAuthenticationToken("alice", "secret")));
+        AtomicReference<String> tenantInTask = new AtomicReference<>();
+        AtomicReference<String> mdcInTask = new AtomicReference<>();
+        AtomicReference<String> userInTask = new AtomicReference<>();
+        AtomicReference<String> tenantAfterTask = new AtomicReference<>("unset");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Act
+        Runnable task = decorator.decorate(() -> {
+            tenantInTask.set(TenantContext.getCurrentTenant());
+            mdcInTask.set(MDC.get("tenantId"));
+            userInTask.set(SecurityContextHolder.getContext().getAuthentication().getName());
+            throw new IllegalStateException("task failure");
+        });
+        executor.submit(task);
+        executor.submit(() -> tenantAfterTask.set(TenantContext.getCurrentTenant()));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals("acme", tenantInTask.get());
+        assertEquals("acme", mdcInTask.get());
+        assertEquals("alice", userInTask.get());
+        assertNull(tenantAfterTask.get());
+    }
+
+    @Test
+    void decorate_whenRunOnSubmittingThread_shouldRestoreItsContext() {
+        // Arrange
+        TenantContext.setCurrentTenant("globex");
+        Runnable task = decorator.decorate(() -> TenantContext.setCurrentTenant("initech"));
+
+        // Act
+        task.run();
+
+        // Assert
+        assertEquals("globex", TenantContext.getCurrentTenant());
+        assertEquals("globex", MDC.get("tenantId"));
+    }
+}
@@ -0,0 +1,118 @@
+package dev.oasis.stockify.config.tenant;
+
+import dev.oasis.stockify.config.metrics.TenantMetrics;
+import dev.oasis.stockify.event.EntityChangedEvent;
+import dev.oasis.stockify.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TenantRequestCoalescerTest {
+
+    private TenantRequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        TenantMetrics tenantMetrics = new TenantMetrics(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tenantMetrics, "maxTenants", 10);
+        coalescer = new TenantRequestCoalescer(tenantMetrics, new MockEnvironment());
+        ReflectionTestUtils.setField(coalescer, "defaultTtlMs", 60_000L);
+        ReflectionTestUtils.setField(coalescer, "maxEntries", 100);
+    }
+
+    @Test
+    void execute_whenIdenticalCallsOverlap_shouldRunLoaderOnce() throws Exception {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TenantRequestCoalescer.Loader loader = () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "metrics";
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        Future<Object> leader = executor.submit(() -> call("acme", List.of(30), loader));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Object> follower = executor.submit(() -> call("ACME", List.of(30), loader));
+        Thread.sleep(50);
+        release.countDown();
+
+        // Assert
+        assertEquals("metrics", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("metrics", follower.get(5, TimeUnit.SECONDS));
+        assertEquals("metrics", call("acme", List.of(30), loader));
+        assertEquals(1, runs.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_whenTenantOrArgumentsDiffer_shouldNotShareResults() throws Throwable {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+        TenantRequestCoalescer.Loader loader = runs::incrementAndGet;
+
+        // Act
+        coalescer.execute("analysis", "acme", List.of(30), loader);
+        coalescer.execute("analysis", "acme", List.of(7), loader);
+        coalescer.execute("analysis", "globex", List.of(30), loader);
+
+        // Assert
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    void execute_afterTenantWrite_shouldRecompute() throws Throwable {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+        TenantRequestCoalescer.Loader loader = runs::incrementAndGet;
+        coalescer.execute("analysis", "acme", List.of(30), loader);
+
+        // Act
+        coalescer.onEntityChanged(new EntityChangedEvent("acme", Product.class, 1L, EntityChangedEvent.ChangeType.UPDATE, null));
+        Object afterWrite = coalescer.execute("analysis", "acme", List.of(30), loader);
+
+        // Assert
+        assertEquals(2, afterWrite);
+    }
+
+    @Test
+    void execute_whenLoaderFails_shouldNotKeepFailure() throws Throwable {
+        // Arrange
+        TenantRequestCoalescer.Loader failing = () -> {
+            throw new IllegalStateException("boom");
+        };
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> coalescer.execute("analysis", "acme", List.of(30), failing));
+        Object retried = coalescer.execute("analysis", "acme", List.of(30), () -> "ok");
+
+        // Assert
+        assertEquals("ok", retried);
+    }
+
+    private Object call(String tenant, List<Object> arguments, TenantRequestCoalescer.Loader loader) throws Exception {
+        try {
+            return coalescer.execute("analysis", tenant, arguments, loader);
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package dev.oasis.stockify.controller;
+
+import dev.oasis.stockify.config.metrics.StatementBudget;
+import dev.oasis.stockify.config.tenant.TenantContext;
+import dev.oasis.stockify.service.DatabaseInitializationService;
+import dev.oasis.stockify.service.StockMovementPartitionService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets of the pages users reload most, rendered through MockMvc against a seeded tenant on a
+ * local Postgres. A page that starts loading lazily per row repeats one statement shape once per product or
+ * movement on the page and fails on maxRepeats long before it shows up in production latency.
+ * Runs only when STOCKIFY_BENCH_URL is set, e.g. jdbc:postgresql://localhost:5432/stockify
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "STOCKIFY_BENCH_URL", matches = "jdbc:postgresql:.*")
+public class PageStatementBudgetTest {
+
+    private static final String TENANT = "budget_check";
+    private static final int PRODUCTS = 200;
+    private static final int MOVEMENTS = 2_000;
+    private static final int USERS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DatabaseInitializationService databaseInitializationService;
+
+    @Autowired
+    private StockMovementPartitionService stockMovementPartitionService;
+
+    private Authentication admin;
+
+    @DynamicPropertySource
+    static void benchDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("STOCKIFY_BENCH_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("STOCKIFY_BENCH_USER", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("STOCKIFY_BENCH_PASSWORD", "postgres"));
+    }
+
+    @BeforeAll
+    void seed() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP SCHEMA IF EXISTS " + TENANT + " CASCADE");
+            stmt.execute("CREATE SCHEMA " + TENANT);
+        }
+        databaseInitializationService.createTablesInSchema(TENANT);
+        stockMovementPartitionService.ensurePartitions(TENANT, LocalDate.now().minusMonths(3).withDayOfMonth(1));
+
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO " + TENANT + ".product_categories (name, is_active, sort_order, created_at, updated_at) " +
+                    "SELECT 'Category ' || g, true, g, now(), now() FROM generate_series(1, 20) g");
+            // every fifth product is at or below its threshold, so the low-stock list has a full page
+            stmt.execute("INSERT INTO " + TENANT + ".product (title, sku, category, category_id, price, stock_level, " +
+                    "low_stock_threshold, is_active, created_at, updated_at) " +
+                    "SELECT 'Product ' || g, 'SKU-' || g, 'Category ' || (1 + g % 20), " +
+                    "(SELECT id FROM " + TENANT + ".product_categories ORDER BY id OFFSET g % 20 LIMIT 1), " +
+                    "10.00, CASE WHEN g % 5 = 0 THEN 2 ELSE 50 END, 5, true, now(), now() " +
+                    "FROM generate_series(1, " + PRODUCTS + ") g");
+            stmt.execute("INSERT INTO " + TENANT + ".app_user (username, password, role, is_active, created_at, updated_at) " +
+                    "SELECT 'budget_user' || g, 'x', 'USER', true, now(), now() FROM generate_series(1, " + USERS + ") g");
+            // movements are spread over several creators, so a per-row username lookup repeats within a page
+            stmt.execute("INSERT INTO " + TENANT + ".stock_movement (product_id, movement_type, quantity, previous_stock, " +
+                    "new_stock, created_by, created_at) SELECT (SELECT min(id) FROM " + TENANT + ".product) + g % " + PRODUCTS + ", " +
+                    "CASE WHEN g % 3 = 0 THEN 'IN' ELSE 'OUT' END, 1, 10, 9, " +
+                    "(SELECT min(id) FROM " + TENANT + ".app_user) + g % " + USERS + ", now() - (g * interval '1 hour') " +
+                    "FROM generate_series(1, " + MOVEMENTS + ") g");
+            stmt.execute("INSERT INTO " + TENANT + ".stock_notification (product_id, notification_type, message, priority, " +
+                    "is_read, created_at) SELECT id, 'LOW_STOCK', 'Low stock: ' || title, 'HIGH', false, now() " +
+                    "FROM " + TENANT + ".product WHERE stock_level <= low_stock_threshold");
+        }
+    }
+
+    @AfterAll
+    void dropTenant() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP SCHEMA IF EXISTS " + TENANT + " CASCADE");
+        }
+    }
+
+    @BeforeEach
+    void signInAsAdmin() {
+        admin = new UsernamePasswordAuthenticationToken("admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        SecurityContextHolder.getContext().setAuthentication(admin);
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+        TenantContext.clear();
+    }
+
+    @Test
+    @StatementBudget(value = 12, maxRepeats = 2)
+    void productList_shouldStayWithinStatementBudget() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/admin/products").param("size", "50").header("X-TenantId", TENANT).principal(admin))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @StatementBudget(value = 4, maxRepeats = 1)
+    void lowStockData_shouldStayWithinStatementBudget() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/admin/products/low-stock-data").header("X-TenantId", TENANT).principal(admin))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @StatementBudget(value = 25, maxRepeats = 3)
+    void dashboard_shouldStayWithinStatementBudget() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/admin/dashboard").header("X-TenantId", TENANT).principal(admin))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @StatementBudget(value = 8, maxRepeats = 2)
+    void stockMovementsPage_shouldStayWithinStatementBudget() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/admin/stock-movements").param("size", "50").header("X-TenantId", TENANT).principal(admin))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,75 @@
+package dev.oasis.stockify.controller;
+
+import dev.oasis.stockify.exception.BulkheadFullException;
+import dev.oasis.stockify.exception.GlobalExceptionHandler;
+import dev.oasis.stockify.service.StockAnalysisCacheService;
+import dev.oasis.stockify.service.StockMovementService;
+import dev.oasis.stockify.util.ControllerTenantUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class StockMovementControllerTest {
+
+    private StockMovementService stockMovementService;
+    private StockAnalysisCacheService stockAnalysisCacheService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        stockMovementService = Mockito.mock(StockMovementService.class);
+        stockAnalysisCacheService = Mockito.mock(StockAnalysisCacheService.class);
+        ControllerTenantUtil tenantResolutionUtil = Mockito.mock(ControllerTenantUtil.class);
+        when(tenantResolutionUtil.resolveTenantId(any(), any(), anyBoolean())).thenReturn("acme");
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new StockMovementController(stockMovementService, stockAnalysisCacheService, tenantResolutionUtil))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getStockAnalysis_whenBulkheadIsFull_shouldAnswerTooManyRequests() throws Exception {
+        // Arrange
+        when(stockAnalysisCacheService.getStockAnalysis(any())).thenThrow(new BulkheadFullException("analysis", "acme"));
+
+        // Act & Assert
+        mockMvc.perform(get("/admin/stock-movements/analysis"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void uploadCsvFile_whenBulkheadIsFull_shouldAnswerTooManyRequests() throws Exception {
+        // Arrange
+        when(stockMovementService.importFromCsv(any())).thenThrow(new BulkheadFullException("import", "acme"));
+        MockMultipartFile file = new MockMultipartFile("file", "movements.csv", "text/csv", "sku,type,quantity\n".getBytes());
+
+        // Act & Assert
+        mockMvc.perform(multipart("/admin/stock-movements/upload-csv").file(file))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(multipart("/admin/stock-movements/bulk-upload").file(file))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void uploadCsvFile_whenImportFails_shouldStillAnswerBadRequest() throws Exception {
+        // Arrange
+        when(stockMovementService.importFromCsv(any())).thenThrow(new IllegalStateException("Unknown SKU"));
+        MockMultipartFile file = new MockMultipartFile("file", "movements.csv", "text/csv", "sku,type,quantity\n".getBytes());
+
+        // Act & Assert
+        mockMvc.perform(multipart("/admin/stock-movements/upload-csv").file(file))
+                .andExpect(status().isBadRequest());
+    }
+}
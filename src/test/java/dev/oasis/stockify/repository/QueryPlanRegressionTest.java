@@ -0,0 +1,379 @@
+package dev.oasis.stockify.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.oasis.stockify.config.tenant.TenantContext;
+import dev.oasis.stockify.model.StockMovement.MovementType;
+import dev.oasis.stockify.service.CategoryKeyMigrationService;
+import dev.oasis.stockify.service.DatabaseInitializationService;
+import dev.oasis.stockify.service.StockMovementPartitionService;
+import dev.oasis.stockify.service.TenantIndexService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeds a realistic tenant on a local Postgres using the real tenant DDL and indexes, then runs each repository
+ * finder once, records the SQL and parameters Hibernate sent to the driver and runs EXPLAIN (FORMAT JSON) on
+ * exactly that statement. Fails when a plan falls back to a sequential scan over a table larger than
+ * {@link #SEQ_SCAN_ROW_THRESHOLD} rows, so a changed @Query, derived finder or entity graph is checked as written.
+ * Runs only when STOCKIFY_BENCH_URL is set, e.g. jdbc:postgresql://localhost:5432/stockify
+ */
+@SpringBootTest
+@Import(QueryPlanRegressionTest.RecordingConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "STOCKIFY_BENCH_URL", matches = "jdbc:postgresql:.*")
+public class QueryPlanRegressionTest {
+
+    private static final String SCHEMA = "plan_check";
+    private static final long SEQ_SCAN_ROW_THRESHOLD = 10_000;
+    /** Above this share a type-only filter without LIMIT reads a large part of the table anyway */
+    private static final int SELECTIVE_TYPE_SHARE = 5;
+
+    /** Percentage of seeded movements per type, mostly sales */
+    private static final Map<MovementType, Integer> MOVEMENT_SHARE = new LinkedHashMap<>();
+    static {
+        MOVEMENT_SHARE.put(MovementType.OUT, 60);
+        MOVEMENT_SHARE.put(MovementType.IN, 25);
+        MOVEMENT_SHARE.put(MovementType.ADJUSTMENT, 8);
+        MOVEMENT_SHARE.put(MovementType.RETURN, 4);
+        MOVEMENT_SHARE.put(MovementType.TRANSFER, 1);
+        MOVEMENT_SHARE.put(MovementType.DAMAGED, 1);
+        MOVEMENT_SHARE.put(MovementType.EXPIRED, 1);
+    }
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockNotificationRepository stockNotificationRepository;
+
+    @Autowired
+    private ContactMessageRepository contactMessageRepository;
+
+    private long categoryId;
+
+    /**
+     * Wraps the application's data source, so statements are recorded after every Hibernate and tenant rewrite
+     */
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof RecordingDataSource)
+                            ? new RecordingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @DynamicPropertySource
+    static void benchDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("STOCKIFY_BENCH_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("STOCKIFY_BENCH_USER", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("STOCKIFY_BENCH_PASSWORD", "postgres"));
+    }
+
+    @BeforeAll
+    void seedTenant() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            stmt.execute("CREATE SCHEMA " + SCHEMA);
+        }
+
+        new DatabaseInitializationService(dataSource, null, null, null, null).createTablesInSchema(SCHEMA);
+        // monthly partitions for the two years of seeded movements
+        new StockMovementPartitionService(dataSource, null).ensurePartitions(SCHEMA, LocalDate.now().minusMonths(24));
+        new TenantIndexService(dataSource).ensureIndexes(SCHEMA);
+
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            // 50,000 products across 200 categories, about 7% at or below their threshold
+            stmt.execute("INSERT INTO " + SCHEMA + ".product (title, sku, category, price, stock_level, low_stock_threshold, is_active, barcode, qr_code, scan_enabled) " +
+                    "SELECT 'Product ' || g, 'SKU-' || g, 'Category ' || (g % 200), 10 + (g % 90), g % 150, 10, true, 'BC-' || g, 'QR-' || g, true " +
+                    "FROM generate_series(1, 50000) g");
+        }
+        // category names to category_id, as on startup
+        new CategoryKeyMigrationService(dataSource).migrateSchema(SCHEMA);
+
+        StringBuilder movementType = new StringBuilder("CASE");
+        int upper = 0;
+        for (Map.Entry<MovementType, Integer> share : MOVEMENT_SHARE.entrySet()) {
+            upper += share.getValue();
+            movementType.append(" WHEN g % 100 < ").append(upper).append(" THEN '").append(share.getKey().name()).append("'");
+        }
+        movementType.append(" END");
+        assertEquals(100, upper, "Movement shares must add up to 100");
+
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            // 300,000 movements over two years, mostly sales, a handful of users doing most of the work
+            stmt.execute("INSERT INTO " + SCHEMA + ".stock_movement (product_id, movement_type, quantity, previous_stock, new_stock, reference_id, created_at, created_by) " +
+                    "SELECT 1 + (g % 50000), " + movementType + ", " +
+                    "1 + (g % 10), 100, 99, 'REF-' || g, now() - (g * interval '210 seconds'), " +
+                    "CASE WHEN g % 200 = 0 THEN 99 ELSE 1 + (g % 10) END " +
+                    "FROM generate_series(1, 300000) g");
+            // 20,000 notifications, almost all already read
+            stmt.execute("INSERT INTO " + SCHEMA + ".stock_notification (product_id, notification_type, message, priority, category, is_read, created_at) " +
+                    "SELECT 1 + (g % 2000), 'LOW_STOCK', 'Low stock', 'MEDIUM', 'STOCK_ALERT', g % 50 <> 0, now() - (g * interval '1 hour') " +
+                    "FROM generate_series(1, 20000) g");
+            // 30,000 contact messages, a few still unread or unanswered
+            stmt.execute("INSERT INTO " + SCHEMA + ".contact_messages (first_name, last_name, email, subject, message, is_read, responded, created_at) " +
+                    "SELECT 'First', 'Last ' || g, 'user' || g || '@example.com', 'Question', 'Hello', g % 50 <> 0, g % 40 <> 0, now() - (g * interval '1 hour') " +
+                    "FROM generate_series(1, 30000) g");
+            stmt.execute("ANALYZE " + SCHEMA + ".product");
+            stmt.execute("ANALYZE " + SCHEMA + ".stock_movement");
+            stmt.execute("ANALYZE " + SCHEMA + ".stock_movement_history");
+            stmt.execute("ANALYZE " + SCHEMA + ".stock_notification");
+            stmt.execute("ANALYZE " + SCHEMA + ".contact_messages");
+            try (ResultSet rs = stmt.executeQuery("SELECT min(id) FROM " + SCHEMA + ".product_categories")) {
+                rs.next();
+                categoryId = rs.getLong(1);
+            }
+        }
+    }
+
+    @AfterAll
+    void dropTenant() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    /**
+     * Each finder as the services call it. Queries that scan a whole table by design (unfiltered counts and sums,
+     * findAll, countGroupedByCategory, leading-wildcard search) are not listed.
+     * Movement type filters run for every {@link MovementType}; see {@link #movementTypeQueries}.
+     */
+    Stream<Arguments> repositoryQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime weekAgo = now.minusDays(7);
+        LocalDateTime monthAgo = now.minusDays(30);
+        Stream<Arguments> fixed = Stream.of(
+            finder("ProductRepository.findLowStock", () -> productRepository.findLowStock(PageRequest.of(0, 20))),
+            finder("ProductRepository.countLowStockProducts", () -> productRepository.countLowStockProducts()),
+            finder("ProductRepository.findByCategoryId", () -> productRepository.findByCategoryId(categoryId)),
+            finder("ProductRepository.countByCategoryId", () -> productRepository.countByCategoryId(categoryId)),
+            finder("ProductRepository.findBySku", () -> productRepository.findBySku("SKU-4242")),
+            finder("ProductRepository.findByBarcode", () -> productRepository.findByBarcode("BC-4242")),
+            finder("ProductRepository.findByQrCode", () -> productRepository.findByQrCode("QR-4242")),
+            finder("ProductRepository.findByBarcodeAndScanEnabledTrue", () -> productRepository.findByBarcodeAndScanEnabledTrue("BC-4242")),
+            finder("ProductRepository.findByQrCodeAndScanEnabledTrue", () -> productRepository.findByQrCodeAndScanEnabledTrue("QR-4242")),
+            finder("ProductRepository.findByBarcodeAndIdNot", () -> productRepository.findByBarcodeAndIdNot("BC-4242", 42L)),
+            finder("ProductRepository.findByQrCodeAndIdNot", () -> productRepository.findByQrCodeAndIdNot("QR-4242", 42L)),
+            finder("ProductRepository.findByScanCodeAndScanEnabledTrue", () -> productRepository.findByScanCodeAndScanEnabledTrue("BC-4242")),
+            finder("StockMovementRepository.findByProductId", () -> stockMovementRepository.findByProductId(42L)),
+            finder("StockMovementRepository.findByProductId(Pageable)", () -> stockMovementRepository.findByProductId(42L, PageRequest.of(0, 20))),
+            finder("StockMovementRepository.findByDateRange", () -> stockMovementRepository.findByDateRange(weekAgo, now)),
+            finder("StockMovementRepository.findRecent", () -> stockMovementRepository.findRecent(PageRequest.of(0, 20))),
+            finder("StockMovementRepository.findKeysetFirst", () -> stockMovementRepository.findKeysetFirst(null, null, PageRequest.of(0, 21))),
+            finder("StockMovementRepository.findKeysetAfter",
+                () -> stockMovementRepository.findKeysetAfter(monthAgo, 1_000_000L, null, null, PageRequest.of(0, 21))),
+            finder("StockMovementRepository.findByCreatedBy", () -> stockMovementRepository.findByCreatedBy(99L)),
+            finder("StockMovementRepository.findByCreatedAtBetweenOrderByCreatedAtDesc",
+                () -> stockMovementRepository.findByCreatedAtBetweenOrderByCreatedAtDesc(weekAgo, now)),
+            finder("StockMovementRepository.findByProductIdAndCreatedAtBetween",
+                () -> stockMovementRepository.findByProductIdAndCreatedAtBetween(42L, weekAgo, now)),
+            finder("StockMovementRepository.findByCreatedAtBetween", () -> stockMovementRepository.findByCreatedAtBetween(weekAgo, now)),
+            finder("StockNotificationRepository.findByReadFalseOrderByCreatedAtDesc",
+                () -> stockNotificationRepository.findByReadFalseOrderByCreatedAtDesc()),
+            finder("StockNotificationRepository.existsByProductAndReadFalse",
+                () -> stockNotificationRepository.existsByProductAndReadFalse(productRepository.getReferenceById(42L))),
+            finder("StockNotificationRepository.markAllAsRead", () -> stockNotificationRepository.markAllAsRead()),
+            finder("ContactMessageRepository.findByIsReadFalseOrderByCreatedAtDesc",
+                () -> contactMessageRepository.findByIsReadFalseOrderByCreatedAtDesc()),
+            finder("ContactMessageRepository.countByIsReadFalse", () -> contactMessageRepository.countByIsReadFalse()),
+            finder("ContactMessageRepository.findByRespondedFalseOrderByCreatedAtDesc",
+                () -> contactMessageRepository.findByRespondedFalseOrderByCreatedAtDesc()),
+            finder("ContactMessageRepository.countByRespondedFalse", () -> contactMessageRepository.countByRespondedFalse()),
+            finder("ContactMessageRepository.findRecentMessages", () -> contactMessageRepository.findRecentMessages(PageRequest.of(0, 10))),
+            finder("ContactMessageRepository.findByCreatedAtBetweenOrderByCreatedAtDesc",
+                () -> contactMessageRepository.findByCreatedAtBetweenOrderByCreatedAtDesc(weekAgo, now, PageRequest.of(0, 20)))
+        );
+        return Stream.concat(fixed, movementTypeQueries(now, weekAgo, monthAgo));
+    }
+
+    /**
+     * Movement type filters for every type. Bounded variants (LIMIT, date range) must use an index for any type;
+     * the unbounded list and counts only for selective types, since for OUT or IN they return most of the table.
+     */
+    private Stream<Arguments> movementTypeQueries(LocalDateTime now, LocalDateTime weekAgo, LocalDateTime monthAgo) {
+        List<Arguments> queries = new ArrayList<>();
+        for (Map.Entry<MovementType, Integer> share : MOVEMENT_SHARE.entrySet()) {
+            MovementType type = share.getKey();
+            queries.add(finder("StockMovementRepository.searchMovements(type only) " + type,
+                () -> stockMovementRepository.searchMovements(null, type, PageRequest.of(0, 20))));
+            queries.add(finder("StockMovementRepository.findKeysetFirst(type) " + type,
+                () -> stockMovementRepository.findKeysetFirst(null, type, PageRequest.of(0, 21))));
+            queries.add(finder("StockMovementRepository.findKeysetAfter(type) " + type,
+                () -> stockMovementRepository.findKeysetAfter(monthAgo, 1_000_000L, null, type, PageRequest.of(0, 21))));
+            queries.add(finder("StockMovementRepository.findByMovementTypeAndCreatedAtBetween " + type,
+                () -> stockMovementRepository.findByMovementTypeAndCreatedAtBetween(type, weekAgo, now)));
+            queries.add(finder("StockMovementRepository.findByProductIdAndMovementTypeAndCreatedAtBetween " + type,
+                () -> stockMovementRepository.findByProductIdAndMovementTypeAndCreatedAtBetween(42L, type, weekAgo, now)));
+            if (share.getValue() <= SELECTIVE_TYPE_SHARE) {
+                queries.add(finder("StockMovementRepository.findByMovementType " + type,
+                    () -> stockMovementRepository.findByMovementType(type)));
+                queries.add(finder("StockMovementRepository.countByMovementType " + type,
+                    () -> stockMovementRepository.countByMovementType(type)));
+                queries.add(finder("StockMovementRepository.countMovementsCapped(type only) " + type,
+                    () -> stockMovementRepository.countMovementsCapped(null, type.name(), 1000)));
+            }
+        }
+        return queries.stream();
+    }
+
+    private static Arguments finder(String name, Runnable call) {
+        return Arguments.of(name, call);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void queryPlan_shouldNotSeqScanLargeTables(String finder, Runnable call) throws Exception {
+        // Arrange
+        List<RecordingDataSource.Recorded> statements = generatedSql(call);
+        assertFalse(statements.isEmpty(), finder + " ran no SQL");
+
+        for (RecordingDataSource.Recorded statement : statements) {
+            // Act
+            JsonNode plan = explain(statement);
+            List<String> offending = new ArrayList<>();
+            collectLargeSeqScans(plan, offending);
+
+            // Assert
+            assertTrue(offending.isEmpty(), finder + " regressed to a sequential scan on " + offending
+                    + "\nSQL: " + statement.sql() + "\nPlan: " + plan.toPrettyString());
+        }
+    }
+
+    @Test
+    void dateRangeQuery_shouldPruneMonthlyPartitions() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        List<RecordingDataSource.Recorded> statements = generatedSql(
+                () -> stockMovementRepository.findByProductIdAndCreatedAtBetween(42L, now.minusDays(7), now));
+
+        // Act
+        JsonNode plan = explain(statements.get(0));
+        List<String> relations = new ArrayList<>();
+        collectRelations(plan, relations);
+
+        // Assert - a week spans at most two monthly movement partitions
+        List<String> partitions = relations.stream().filter(relation -> relation.startsWith("stock_movement")).toList();
+        assertFalse(partitions.isEmpty(), "Plan: " + plan.toPrettyString());
+        assertTrue(partitions.size() <= 2, "Expected partition pruning, scanned " + partitions);
+    }
+
+    /**
+     * Run the finder in the seeded tenant, in a transaction that is rolled back, and return the statements it sent
+     */
+    private List<RecordingDataSource.Recorded> generatedSql(Runnable call) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        TenantContext.setCurrentTenant(SCHEMA);
+        try {
+            return RecordingDataSource.capture(() -> transaction.executeWithoutResult(status -> {
+                call.run();
+                status.setRollbackOnly();
+            }));
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private JsonNode explain(RecordingDataSource.Recorded statement) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement()) {
+                // Hibernate's SQL is unqualified and relies on the tenant's search_path
+                stmt.execute("SET LOCAL search_path TO " + SCHEMA);
+            }
+            try (PreparedStatement ps = statement.prepare(connection, "EXPLAIN (FORMAT JSON) ");
+                 ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return objectMapper.readTree(rs.getString(1)).get(0).get("Plan");
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void collectRelations(JsonNode node, List<String> relations) {
+        if (node.has("Relation Name")) {
+            relations.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectRelations(child, relations);
+        }
+    }
+
+    private void collectLargeSeqScans(JsonNode node, List<String> offending) throws SQLException {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            String relation = node.path("Relation Name").asText();
+            long rows = estimatedTableRows(relation);
+            if (rows > SEQ_SCAN_ROW_THRESHOLD) {
+                offending.add(relation + " (~" + rows + " rows)");
+            }
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectLargeSeqScans(child, offending);
+        }
+    }
+
+    private long estimatedTableRows(String relation) throws SQLException {
+        String sql = "SELECT c.reltuples::bigint FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                     "WHERE n.nspname = ? AND c.relname = ?";
+        try (Connection connection = dataSource.getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, SCHEMA);
+            ps.setString(2, relation);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+}
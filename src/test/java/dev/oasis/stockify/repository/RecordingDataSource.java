@@ -0,0 +1,108 @@
+package dev.oasis.stockify.repository;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the prepared statements executed on the current thread inside {@link #capture}, with the SQL exactly as
+ * the driver received it and the parameter setter calls, so a test can replay them, e.g. under EXPLAIN.
+ */
+public class RecordingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<List<Recorded>> CURRENT = new ThreadLocal<>();
+
+    public RecordingDataSource(DataSource target) {
+        super(target);
+    }
+
+    /**
+     * Run the work and return the statements it executed, in order
+     */
+    public static List<Recorded> capture(Runnable work) {
+        List<Recorded> recorded = new ArrayList<>();
+        CURRENT.set(recorded);
+        try {
+            work.run();
+        } finally {
+            CURRENT.remove();
+        }
+        return recorded;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return recording(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return recording(super.getConnection(username, password));
+    }
+
+    private static Connection recording(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (method.getName().equals("prepareStatement") && args != null && args[0] instanceof String sql) {
+                        return recording((PreparedStatement) result, sql);
+                    }
+                    return result;
+                });
+    }
+
+    private static PreparedStatement recording(PreparedStatement statement, String sql) {
+        List<Binding> bindings = new ArrayList<>();
+        return (PreparedStatement) Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(), new Class<?>[] { PreparedStatement.class },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    // parameter setters take the index first; setFetchSize and friends take a single int
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        bindings.add(new Binding(method, args.clone()));
+                    } else if (name.equals("clearParameters")) {
+                        bindings.clear();
+                    } else if (name.startsWith("execute") && (args == null || args.length == 0) && CURRENT.get() != null) {
+                        CURRENT.get().add(new Recorded(sql, List.copyOf(bindings)));
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * One executed statement; {@link #prepare} binds the recorded parameters to a statement for a variant of its SQL
+     */
+    public record Recorded(String sql, List<Binding> bindings) {
+
+        public PreparedStatement prepare(Connection connection, String prefix) throws SQLException {
+            PreparedStatement statement = connection.prepareStatement(prefix + sql);
+            try {
+                for (Binding binding : bindings) {
+                    binding.method().invoke(statement, binding.args());
+                }
+            } catch (ReflectiveOperationException e) {
+                statement.close();
+                throw new SQLException("Could not replay parameters of: " + sql, e);
+            }
+            return statement;
+        }
+    }
+
+    public record Binding(Method method, Object[] args) {
+    }
+}
@@ -0,0 +1,109 @@
+package dev.oasis.stockify.service;
+
+import dev.oasis.stockify.event.EntityChangedEvent;
+import dev.oasis.stockify.model.ContactMessage;
+import dev.oasis.stockify.model.Product;
+import dev.oasis.stockify.model.ProductCategory;
+import dev.oasis.stockify.model.StockMovement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogVersionServiceTest {
+
+    private CatalogVersionService catalogVersionService;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersionService = new CatalogVersionService();
+        ReflectionTestUtils.setField(catalogVersionService, "etagTtlSeconds", 3600L);
+    }
+
+    @Test
+    void etag_whenProductOrStockChanges_shouldChangeOnlyForThatTenant() {
+        // Arrange
+        String acme = catalogVersionService.etag("acme");
+        String other = catalogVersionService.etag("other");
+
+        // Act
+        catalogVersionService.onEntityChanged(new EntityChangedEvent("acme", StockMovement.class, 1L,
+                EntityChangedEvent.ChangeType.INSERT, new StockMovement()));
+
+        // Assert
+        assertNotEquals(acme, catalogVersionService.etag("ACME"));
+        assertEquals(other, catalogVersionService.etag("other"));
+        assertTrue(acme.startsWith("\"") && acme.endsWith("\""));
+    }
+
+    @Test
+    void etag_whenUnrelatedEntityChanges_shouldStayTheSame() {
+        // Arrange
+        String before = catalogVersionService.etag("acme");
+
+        // Act
+        catalogVersionService.onEntityChanged(new EntityChangedEvent("acme", ContactMessage.class, 1L,
+                EntityChangedEvent.ChangeType.INSERT, new ContactMessage()));
+
+        // Assert
+        assertEquals(before, catalogVersionService.etag("acme"));
+    }
+
+    @Test
+    void version_whenMovementOfAnotherProductArrives_shouldKeepProductVersion() {
+        // Arrange
+        Product first = new Product();
+        first.setId(1L);
+        Product second = new Product();
+        second.setId(2L);
+        StockMovement movement = new StockMovement();
+        movement.setProduct(second);
+        String firstVersion = catalogVersionService.version("acme", 1L);
+        String secondVersion = catalogVersionService.version("acme", 2L);
+        String tenantVersion = catalogVersionService.version("acme", null);
+
+        // Act
+        catalogVersionService.onEntityChanged(new EntityChangedEvent("acme", StockMovement.class, 10L,
+                EntityChangedEvent.ChangeType.INSERT, movement));
+
+        // Assert
+        assertEquals(firstVersion, catalogVersionService.version("acme", 1L));
+        assertNotEquals(secondVersion, catalogVersionService.version("acme", 2L));
+        assertNotEquals(tenantVersion, catalogVersionService.version("acme", null));
+        catalogVersionService.bump("acme");
+        assertNotEquals(firstVersion, catalogVersionService.version("acme", 1L));
+    }
+
+    @Test
+    void onEntityChanged_whenCategoryChanges_shouldChangeEveryProductVersion() {
+        // Arrange
+        String etag = catalogVersionService.etag("acme");
+        String productVersion = catalogVersionService.version("acme", 1L);
+        String otherTenant = catalogVersionService.etag("other");
+
+        // Act
+        catalogVersionService.onEntityChanged(new EntityChangedEvent("acme", ProductCategory.class, 5L,
+                EntityChangedEvent.ChangeType.UPDATE, new ProductCategory()));
+
+        // Assert
+        assertNotEquals(etag, catalogVersionService.etag("acme"));
+        assertNotEquals(productVersion, catalogVersionService.version("acme", 1L));
+        assertEquals(otherTenant, catalogVersionService.etag("other"));
+    }
+
+    @Test
+    void matches_shouldAcceptListsWeakTagsAndWildcard() {
+        // Arrange
+        String etag = catalogVersionService.etag("acme");
+        catalogVersionService.bump("other");
+
+        // Act & Assert
+        assertTrue(catalogVersionService.matches("\"x\", " + etag, etag));
+        assertTrue(catalogVersionService.matches("W/" + etag, etag));
+        assertTrue(catalogVersionService.matches("*", etag));
+        assertFalse(catalogVersionService.matches(null, etag));
+        assertFalse(catalogVersionService.matches(catalogVersionService.etag("other"), etag));
+        assertFalse(catalogVersionService.matches(etag.replace("\"", ""), etag));
+    }
+}
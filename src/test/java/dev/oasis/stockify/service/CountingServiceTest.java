@@ -0,0 +1,50 @@
+package dev.oasis.stockify.service;
+
+import dev.oasis.stockify.config.metrics.TenantMetrics;
+import dev.oasis.stockify.event.EntityChangedEvent;
+import dev.oasis.stockify.model.Product;
+import dev.oasis.stockify.util.ServiceTenantUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class CountingServiceTest {
+
+    private CountingService countingService;
+
+    @BeforeEach
+    void setUp() {
+        ServiceTenantUtil serviceTenantUtil = Mockito.mock(ServiceTenantUtil.class);
+        when(serviceTenantUtil.getCurrentTenant()).thenReturn("acme");
+        TenantMetrics tenantMetrics = new TenantMetrics(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tenantMetrics, "maxTenants", 10);
+        countingService = new CountingService(serviceTenantUtil, tenantMetrics);
+        ReflectionTestUtils.setField(countingService, "cacheTtlSeconds", 300L);
+        ReflectionTestUtils.setField(countingService, "maxEntries", 100);
+    }
+
+    @Test
+    void cached_whenInvalidatedWithMixedCaseTenant_shouldReload() {
+        // Arrange
+        AtomicLong loads = new AtomicLong();
+        countingService.cached(Product.class, "total", loads::incrementAndGet);
+
+        // Act
+        countingService.invalidate("Acme", Product.class);
+        long afterInvalidate = countingService.cached(Product.class, "total", loads::incrementAndGet);
+        countingService.onEntityChanged(new EntityChangedEvent("ACME", Product.class, 1L,
+                EntityChangedEvent.ChangeType.UPDATE, new Product()));
+        long afterEvent = countingService.cached(Product.class, "total", loads::incrementAndGet);
+
+        // Assert
+        assertEquals(2, afterInvalidate);
+        assertEquals(3, afterEvent);
+    }
+}
@@ -0,0 +1,117 @@
+package dev.oasis.stockify.service;
+
+import dev.oasis.stockify.config.metrics.TenantMetrics;
+import dev.oasis.stockify.dto.ProductCategoryResponseDTO;
+import dev.oasis.stockify.event.EntityChangedEvent;
+import dev.oasis.stockify.mapper.ProductCategoryMapper;
+import dev.oasis.stockify.model.Product;
+import dev.oasis.stockify.model.ProductCategory;
+import dev.oasis.stockify.repository.ProductCategoryRepository;
+import dev.oasis.stockify.repository.ProductRepository;
+import dev.oasis.stockify.util.ServiceTenantUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ProductCategoryServiceTest {
+
+    private ProductCategoryRepository categoryRepository;
+    private ProductRepository productRepository;
+    private CountingService countingService;
+    private CategoryStatisticsService categoryStatisticsService;
+    private ProductCategoryService productCategoryService;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository = Mockito.mock(ProductCategoryRepository.class);
+        productRepository = Mockito.mock(ProductRepository.class);
+        ServiceTenantUtil serviceTenantUtil = Mockito.mock(ServiceTenantUtil.class);
+        when(serviceTenantUtil.getCurrentTenant()).thenReturn("acme");
+        TenantMetrics tenantMetrics = new TenantMetrics(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tenantMetrics, "maxTenants", 10);
+        countingService = new CountingService(serviceTenantUtil, tenantMetrics);
+        ReflectionTestUtils.setField(countingService, "cacheTtlSeconds", 300L);
+        ReflectionTestUtils.setField(countingService, "maxEntries", 100);
+        categoryStatisticsService = new CategoryStatisticsService(productRepository, countingService);
+        productCategoryService = new ProductCategoryService(categoryRepository, productRepository,
+                categoryStatisticsService, countingService, new ProductCategoryMapper(), serviceTenantUtil);
+
+        when(categoryRepository.findAllByOrderBySortOrderAscNameAsc())
+                .thenReturn(List.of(category(1L, "Electronics"), category(2L, "Books")));
+    }
+
+    @Test
+    void getProductCountsByCategory_whenProductChanges_shouldRegroup() {
+        // Arrange
+        when(productRepository.countGroupedByCategory())
+                .thenReturn(List.<Object[]>of(new Object[] { 1L, 3L }))
+                .thenReturn(List.<Object[]>of(new Object[] { 1L, 4L }, new Object[] { 2L, 1L }));
+        Map<Long, Long> before = categoryStatisticsService.getProductCountsByCategory();
+        categoryStatisticsService.getProductCountsByCategory();
+
+        // Act
+        countingService.onEntityChanged(new EntityChangedEvent("acme", Product.class, 9L,
+                EntityChangedEvent.ChangeType.INSERT, new Product()));
+        Map<Long, Long> after = categoryStatisticsService.getProductCountsByCategory();
+
+        // Assert
+        assertEquals(Map.of(1L, 3L), before);
+        assertEquals(Map.of(1L, 4L, 2L, 1L), after);
+        assertEquals(0, categoryStatisticsService.getProductCount(3L));
+        verify(productRepository, times(2)).countGroupedByCategory();
+    }
+
+    @Test
+    void getAllCategories_shouldAttachGroupedCountsToCopiesOfCachedCategories() {
+        // Arrange
+        when(productRepository.countGroupedByCategory()).thenReturn(List.<Object[]>of(new Object[] { 1L, 5L }));
+
+        // Act
+        List<ProductCategoryResponseDTO> first = productCategoryService.getAllCategories();
+        first.get(0).setName("Changed by caller");
+        List<ProductCategoryResponseDTO> second = productCategoryService.getAllCategories();
+
+        // Assert
+        assertEquals(5L, second.get(0).getProductCount());
+        assertEquals(0L, second.get(1).getProductCount());
+        assertEquals("Electronics", second.get(0).getName());
+        assertNotSame(first.get(0), second.get(0));
+        verify(categoryRepository, times(1)).findAllByOrderBySortOrderAscNameAsc();
+        verify(productRepository, times(1)).countGroupedByCategory();
+    }
+
+    @Test
+    void resolveCategory_whenNameIsCached_shouldReturnReferenceOfCurrentSession() {
+        // Arrange
+        ProductCategory reference = category(2L, "Books");
+        when(categoryRepository.getReferenceById(2L)).thenReturn(reference);
+
+        // Act
+        ProductCategory resolved = productCategoryService.resolveCategory(" BOOKS ");
+        productCategoryService.resolveCategory("books");
+
+        // Assert
+        assertSame(reference, resolved);
+        verify(categoryRepository, times(1)).findAllByOrderBySortOrderAscNameAsc();
+        verify(categoryRepository, times(2)).getReferenceById(2L);
+    }
+
+    private ProductCategory category(Long id, String name) {
+        ProductCategory category = new ProductCategory();
+        category.setId(id);
+        category.setName(name);
+        category.setIsActive(true);
+        category.setSortOrder(id.intValue());
+        return category;
+    }
+}
@@ -0,0 +1,65 @@
+package dev.oasis.stockify.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductStreamServiceTest {
+
+    private ProductStreamService productStreamService;
+
+    @BeforeEach
+    void setUp() {
+        productStreamService = new ProductStreamService(null, null);
+        ReflectionTestUtils.setField(productStreamService, "defaultPageSize", 500);
+        ReflectionTestUtils.setField(productStreamService, "maxPageSize", 5000);
+    }
+
+    @Test
+    void parseFields_shouldKeepRequestedOrderAndDropDuplicates() {
+        // Act
+        List<String> fields = productStreamService.parseFields(" sku,id, sku,,stockLevel ");
+
+        // Assert
+        assertEquals(List.of("sku", "id", "stockLevel"), fields);
+        assertTrue(productStreamService.parseFields(null).containsAll(List.of("id", "title", "category", "lowStock")));
+    }
+
+    @Test
+    void parseFields_whenFieldIsUnknown_shouldReject() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> productStreamService.parseFields("id,password"));
+    }
+
+    @Test
+    void decodeCursor_shouldRoundTripAndRejectForeignTokens() {
+        // Act
+        String cursor = productStreamService.encodeCursor(12345L);
+
+        // Assert
+        assertEquals(12345L, productStreamService.decodeCursor(cursor));
+        assertEquals(0L, productStreamService.decodeCursor(null));
+        assertThrows(IllegalArgumentException.class, () -> productStreamService.decodeCursor("not-a-cursor"));
+        assertEquals(5000, productStreamService.pageSize(1_000_000));
+        assertEquals(500, productStreamService.pageSize(null));
+    }
+
+    @Test
+    void writeAll_whenSchemaIsNotAPlainName_shouldRejectBeforeQuerying() {
+        // Arrange - no data source, so reaching the database would fail differently
+        ProductStreamService service = new ProductStreamService(null, new ObjectMapper());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> service.writeAll("acme\".product; DROP TABLE x; --", List.of("id"), out));
+        assertThrows(IllegalArgumentException.class, () -> service.writeAll("Acme", List.of("id"), out));
+        assertThrows(IllegalArgumentException.class, () -> service.writeAll(null, List.of("id"), out));
+    }
+}
@@ -0,0 +1,93 @@
+package dev.oasis.stockify.service;
+
+import dev.oasis.stockify.config.metrics.TenantMetrics;
+import dev.oasis.stockify.dto.StockAnalysisDTO;
+import dev.oasis.stockify.dto.StockAnalysisRequestDTO;
+import dev.oasis.stockify.event.EntityChangedEvent;
+import dev.oasis.stockify.model.Product;
+import dev.oasis.stockify.model.StockMovement;
+import dev.oasis.stockify.util.ServiceTenantUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StockAnalysisCacheServiceTest {
+
+    private StockAnalysisService stockAnalysisService;
+    private CatalogVersionService catalogVersionService;
+    private ServiceTenantUtil serviceTenantUtil;
+    private StockAnalysisCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        stockAnalysisService = Mockito.mock(StockAnalysisService.class);
+        when(stockAnalysisService.generateStockAnalysis(any()))
+                .thenAnswer(invocation -> StockAnalysisDTO.builder().totalMovements(1).build());
+        serviceTenantUtil = Mockito.mock(ServiceTenantUtil.class);
+        when(serviceTenantUtil.getCurrentTenant()).thenReturn("acme");
+        catalogVersionService = new CatalogVersionService();
+        ReflectionTestUtils.setField(catalogVersionService, "etagTtlSeconds", 3600L);
+        TenantMetrics tenantMetrics = new TenantMetrics(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tenantMetrics, "maxTenants", 10);
+        cacheService = new StockAnalysisCacheService(stockAnalysisService, catalogVersionService, serviceTenantUtil, tenantMetrics);
+        ReflectionTestUtils.setField(cacheService, "cacheMaxEntries", 100);
+        ReflectionTestUtils.setField(cacheService, "cacheMaxAgeSeconds", 600L);
+    }
+
+    @Test
+    void getStockAnalysis_whenNothingChanged_shouldNotCallAnalysisAgain() {
+        // Arrange
+        StockAnalysisRequestDTO request = StockAnalysisRequestDTO.builder().productId(1L).days(30).build();
+        StockAnalysisDTO first = cacheService.getStockAnalysis(request);
+
+        // Act
+        StockAnalysisDTO second = cacheService.getStockAnalysis(StockAnalysisRequestDTO.builder().productId(1L).days(30).build());
+
+        // Assert
+        assertSame(first, second);
+        verify(stockAnalysisService, times(1)).generateStockAnalysis(any());
+    }
+
+    @Test
+    void getStockAnalysis_whenTenantCasingDiffers_shouldShareEntry() {
+        // Arrange
+        StockAnalysisRequestDTO request = StockAnalysisRequestDTO.builder().days(30).build();
+        StockAnalysisDTO first = cacheService.getStockAnalysis(request);
+        when(serviceTenantUtil.getCurrentTenant()).thenReturn("ACME");
+
+        // Act
+        StockAnalysisDTO second = cacheService.getStockAnalysis(request);
+
+        // Assert
+        assertSame(first, second);
+        verify(stockAnalysisService, times(1)).generateStockAnalysis(any());
+    }
+
+    @Test
+    void getStockAnalysis_whenProductGetsMovement_shouldRecompute() {
+        // Arrange
+        StockAnalysisRequestDTO request = StockAnalysisRequestDTO.builder().productId(1L).days(30).build();
+        StockAnalysisDTO first = cacheService.getStockAnalysis(request);
+        Product product = new Product();
+        product.setId(1L);
+        StockMovement movement = new StockMovement();
+        movement.setProduct(product);
+
+        // Act
+        catalogVersionService.onEntityChanged(new EntityChangedEvent("acme", StockMovement.class, 5L,
+                EntityChangedEvent.ChangeType.INSERT, movement));
+        StockAnalysisDTO second = cacheService.getStockAnalysis(request);
+
+        // Assert
+        assertNotSame(first, second);
+        verify(stockAnalysisService, times(2)).generateStockAnalysis(any());
+    }
+}
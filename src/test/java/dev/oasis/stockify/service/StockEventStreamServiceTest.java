@@ -0,0 +1,253 @@
+package dev.oasis.stockify.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.oasis.stockify.event.EntityChangedEvent;
+import dev.oasis.stockify.model.Product;
+import dev.oasis.stockify.repository.ProductRepository;
+import dev.oasis.stockify.repository.StockNotificationRepository;
+import dev.oasis.stockify.util.ServiceTenantUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class StockEventStreamServiceTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+    private ServiceTenantUtil serviceTenantUtil;
+    private StockNotificationRepository stockNotificationRepository;
+    private StockEventStreamService service;
+    private volatile RecordingEmitter nextEmitter;
+
+    @BeforeEach
+    void setUp() {
+        serviceTenantUtil = Mockito.mock(ServiceTenantUtil.class);
+        when(serviceTenantUtil.getCurrentTenant()).thenReturn("acme");
+        when(serviceTenantUtil.executeInTenant(any(), any()))
+                .thenAnswer(invocation -> invocation.<ServiceTenantUtil.TenantOperation<?>>getArgument(1).execute());
+        stockNotificationRepository = Mockito.mock(StockNotificationRepository.class);
+        service = new StockEventStreamService(serviceTenantUtil, Mockito.mock(ProductRepository.class),
+                stockNotificationRepository, new ObjectMapper()) {
+            @Override
+            SseEmitter createEmitter(long timeoutMs) {
+                return nextEmitter != null ? nextEmitter : new RecordingEmitter(null);
+            }
+        };
+        ReflectionTestUtils.setField(service, "replaySize", 100);
+        ReflectionTestUtils.setField(service, "timeoutMinutes", 1L);
+        ReflectionTestUtils.setField(service, "fanOutThreads", 2);
+        ReflectionTestUtils.setField(service, "writerThreads", 4);
+        ReflectionTestUtils.setField(service, "subscriberQueueSize", 8);
+        ReflectionTestUtils.setField(service, "writeTimeoutMs", 10_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void onEntityChanged_whenTenantHasSubscribers_shouldFanOutToEachOfThemOnly() throws Exception {
+        // Arrange
+        RecordingEmitter first = subscribe("acme", null, null);
+        RecordingEmitter second = subscribe("acme", null, null);
+        RecordingEmitter otherTenant = subscribe("globex", null, null);
+
+        // Act
+        service.onEntityChanged(stockChange("acme", 1L, 7));
+        service.onEntityChanged(stockChange("acme", 2L, 3));
+
+        // Assert
+        await(() -> first.count("event:stock") == 2 && second.count("event:stock") == 2);
+        assertTrue(first.text().indexOf("\"productId\":1") < first.text().indexOf("\"productId\":2"));
+        assertEquals(0, otherTenant.count("event:stock"));
+    }
+
+    @Test
+    void onEntityChanged_whenTenantIdHasOtherCasing_shouldReachSubscribers() throws Exception {
+        // Arrange
+        RecordingEmitter subscriber = subscribe("Acme", null, null);
+
+        // Act
+        service.onEntityChanged(stockChange("ACME", 1L, 7));
+
+        // Assert
+        await(() -> subscriber.count("event:stock") == 1);
+    }
+
+    @Test
+    void publishBadges_whenMarkedDirtyByBulkUpdate_shouldPushNewUnreadCount() throws Exception {
+        // Arrange
+        when(stockNotificationRepository.countByReadFalse()).thenReturn(4L);
+        RecordingEmitter subscriber = subscribe("acme", null, null);
+        when(stockNotificationRepository.countByReadFalse()).thenReturn(0L);
+
+        // Act
+        service.publishBadges();
+        service.markBadgesDirty("ACME");
+        service.publishBadges();
+
+        // Assert
+        await(() -> subscriber.count("event:badges") == 2);
+        assertTrue(subscriber.frames.get(0).contains("\"unreadNotifications\":4"));
+        assertTrue(subscriber.frames.get(1).contains("\"unreadNotifications\":0"));
+    }
+
+    @Test
+    void subscribe_whenResumingFromBufferedToken_shouldReplayOnlyMissedEvents() throws Exception {
+        // Arrange
+        RecordingEmitter original = subscribe("acme", null, null);
+        for (long id = 1; id <= 3; id++) {
+            service.onEntityChanged(stockChange("acme", id, 10));
+        }
+        await(() -> original.count("event:stock") == 3);
+        String firstToken = original.eventIds().get(0);
+
+        // Act
+        RecordingEmitter reconnected = subscribe("acme", firstToken, null);
+
+        // Assert
+        await(() -> reconnected.count("event:stock") == 2);
+        assertFalse(reconnected.text().contains("\"productId\":1,"));
+        assertEquals(original.eventIds().subList(1, 3), reconnected.eventIds());
+        assertEquals(0, reconnected.count("event:reset"));
+    }
+
+    @Test
+    void subscribe_whenTokenIsFromAnotherRun_shouldSendReset() throws Exception {
+        // Arrange
+        subscribe("acme", null, null);
+        service.onEntityChanged(stockChange("acme", 1L, 10));
+
+        // Act
+        RecordingEmitter reconnected = subscribe("acme", "oldepoch-1", null);
+
+        // Assert
+        await(() -> reconnected.count("event:reset") == 1);
+        assertEquals(0, reconnected.count("event:stock"));
+    }
+
+    @Test
+    void onEntityChanged_whenSubscriberStopsReading_shouldDropItWithoutDelayingOthers() throws Exception {
+        // Arrange
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter slow = subscribe("acme", null, unblock);
+        RecordingEmitter fast = subscribe("acme", null, null);
+
+        // Act - more events than the slow subscriber's queue holds, each one delivered to the fast subscriber
+        for (long id = 1; id <= 20; id++) {
+            service.onEntityChanged(stockChange("acme", id, 10));
+            long delivered = id;
+            await(() -> fast.count("event:stock") == delivered);
+        }
+
+        // Assert
+        unblock.countDown();
+        await(() -> slow.completed);
+        assertTrue(slow.count("event:stock") < 20);
+    }
+
+    private RecordingEmitter subscribe(String tenant, String resumeToken, CountDownLatch blockUntil) throws Exception {
+        when(serviceTenantUtil.getCurrentTenant()).thenReturn(tenant);
+        RecordingEmitter emitter = new RecordingEmitter(blockUntil);
+        nextEmitter = emitter;
+        service.subscribe(resumeToken);
+        // the subscription is registered on the tenant's fan-out thread once the first frame was queued
+        await(() -> emitter.count("event:badges") == 1 || emitter.blocked);
+        Thread.sleep(20);
+        return emitter;
+    }
+
+    private EntityChangedEvent stockChange(String tenant, Long productId, int stockLevel) {
+        Product product = new Product();
+        product.setId(productId);
+        product.setTitle("Product " + productId);
+        product.setStockLevel(stockLevel);
+        product.setLowStockThreshold(5);
+        return new EntityChangedEvent(tenant, Product.class, productId, EntityChangedEvent.ChangeType.UPDATE, product);
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 5 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Keeps every frame as text; optionally blocks its first send like a client that stopped reading
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch blockUntil;
+        private volatile boolean blocked;
+        private volatile boolean completed;
+
+        private RecordingEmitter(CountDownLatch blockUntil) {
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) throws IOException {
+            if (blockUntil != null && blockUntil.getCount() > 0) {
+                blocked = true;
+                try {
+                    blockUntil.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            frames.add(items.stream().map(item -> String.valueOf(item.getData())).collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            completed = true;
+        }
+
+        private String text() {
+            return String.join("", frames);
+        }
+
+        private long count(String line) {
+            return frames.stream().filter(frame -> frame.contains(line + "\n")).count();
+        }
+
+        private List<String> eventIds() {
+            return frames.stream()
+                    .filter(frame -> frame.contains("event:stock\n"))
+                    .map(EVENT_ID::matcher)
+                    .filter(Matcher::find)
+                    .map(matcher -> matcher.group(1))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package dev.oasis.stockify.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migration of a pre-partitioning stock_movement table on a local Postgres.
+ * Runs only when STOCKIFY_BENCH_URL is set, e.g. jdbc:postgresql://localhost:5432/stockify
+ */
+@EnabledIfEnvironmentVariable(named = "STOCKIFY_BENCH_URL", matches = "jdbc:postgresql:.*")
+public class StockMovementPartitionServiceTest {
+
+    private static final String SCHEMA = "partition_migration_check";
+
+    private static DriverManagerDataSource dataSource;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        dataSource = new DriverManagerDataSource(System.getenv("STOCKIFY_BENCH_URL"),
+                System.getenv().getOrDefault("STOCKIFY_BENCH_USER", "postgres"),
+                System.getenv().getOrDefault("STOCKIFY_BENCH_PASSWORD", "postgres"));
+
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            stmt.execute("CREATE SCHEMA " + SCHEMA);
+            stmt.execute("CREATE TABLE " + SCHEMA + ".product (id bigserial PRIMARY KEY, title varchar(255))");
+            stmt.execute("INSERT INTO " + SCHEMA + ".product (title) SELECT 'Product ' || g FROM generate_series(1, 10) g");
+            // the table as created before partitioning: id primary key, nullable created_at
+            stmt.execute("CREATE TABLE " + SCHEMA + ".stock_movement (id bigserial PRIMARY KEY, " +
+                    "product_id bigint NOT NULL REFERENCES " + SCHEMA + ".product(id), movement_type varchar(255) NOT NULL, " +
+                    "quantity integer NOT NULL, previous_stock integer NOT NULL, new_stock integer NOT NULL, " +
+                    "notes varchar(255), reference_id varchar(255), created_at timestamp(6), created_by bigint)");
+            stmt.execute("INSERT INTO " + SCHEMA + ".stock_movement (product_id, movement_type, quantity, previous_stock, new_stock, created_at) " +
+                    "SELECT 1 + (g % 10), 'OUT', 1, 10, 9, CASE WHEN g % 100 = 0 THEN NULL ELSE now() - (g * interval '1 hour') END " +
+                    "FROM generate_series(1, 5000) g");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void ensurePartitioned_whenTableIsPlain_shouldAttachItAsHistoryKeepingEveryRow() throws SQLException {
+        // Arrange
+        StockMovementPartitionService service = new StockMovementPartitionService(dataSource, null);
+        ReflectionTestUtils.setField(service, "monthsAhead", 1);
+        ReflectionTestUtils.setField(service, "backfillBatchSize", 700);
+        ReflectionTestUtils.setField(service, "lockTimeout", "5s");
+
+        // Act
+        service.ensurePartitioned(SCHEMA);
+
+        // Assert
+        assertEquals("p", queryString("SELECT c.relkind FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                "WHERE n.nspname = '" + SCHEMA + "' AND c.relname = 'stock_movement'"));
+        assertEquals(5000, queryLong("SELECT count(*) FROM " + SCHEMA + ".stock_movement"));
+        assertEquals(5000, queryLong("SELECT count(*) FROM " + SCHEMA + ".stock_movement_history"));
+        assertEquals(0, queryLong("SELECT count(*) FROM " + SCHEMA + ".stock_movement WHERE created_at IS NULL"));
+        // the temporary migration checks are gone from parent and partition
+        assertEquals(0, queryLong("SELECT count(*) FROM pg_constraint con JOIN pg_namespace n ON n.oid = con.connamespace " +
+                "WHERE n.nspname = '" + SCHEMA + "' AND (con.conname LIKE '%_bound' OR con.conname LIKE '%_created_at_not_null')"));
+        // the concurrently built index backs the partition's share of the primary key
+        assertEquals(1, queryLong("SELECT count(*) FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                "JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = '" + SCHEMA + "' " +
+                "AND c.relname = 'stock_movement_history_id_created_at_key' AND i.indisvalid"));
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package dev.oasis.stockify.service;
+
+import dev.oasis.stockify.dto.CursorPageDTO;
+import dev.oasis.stockify.dto.StockMovementResponseDTO;
+import dev.oasis.stockify.model.AppUser;
+import dev.oasis.stockify.model.Product;
+import dev.oasis.stockify.model.StockMovement;
+import dev.oasis.stockify.repository.AppUserRepository;
+import dev.oasis.stockify.repository.StockMovementRepository;
+import dev.oasis.stockify.util.ServiceTenantUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StockMovementServiceTest {
+
+    private StockMovementRepository stockMovementRepository;
+    private AppUserRepository appUserRepository;
+    private StockMovementService stockMovementService;
+    private List<StockMovement> movements;
+
+    @BeforeEach
+    void setUp() {
+        stockMovementRepository = Mockito.mock(StockMovementRepository.class);
+        appUserRepository = Mockito.mock(AppUserRepository.class);
+        ServiceTenantUtil serviceTenantUtil = Mockito.mock(ServiceTenantUtil.class);
+        when(serviceTenantUtil.getCurrentTenant()).thenReturn("acme");
+        stockMovementService = new StockMovementService(stockMovementRepository, null, appUserRepository, null,
+                serviceTenantUtil, null, null, null);
+
+        // 20 movements by two users
+        movements = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            movements.add(movement(id, id % 2 == 0 ? 10L : 11L));
+        }
+        when(appUserRepository.findAllById(any())).thenReturn(List.of(user(10L, "alice"), user(11L, "bob")));
+    }
+
+    @Test
+    void getRecentMovements_shouldLoadUsernamesOfPageWithOneQuery() {
+        // Arrange
+        when(stockMovementRepository.findRecent(any())).thenReturn(new SliceImpl<>(movements));
+
+        // Act
+        List<StockMovementResponseDTO> result = stockMovementService.getRecentMovements(20);
+
+        // Assert
+        assertEquals("alice", result.get(1).getCreatedByUsername());
+        assertEquals("bob", result.get(0).getCreatedByUsername());
+        verify(appUserRepository, times(1)).findAllById(Set.of(10L, 11L));
+        verify(appUserRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getStockMovementsByCursor_shouldLoadUsernamesOfChunkWithOneQuery() {
+        // Arrange
+        when(stockMovementRepository.findKeysetFirst(any(), any(), any())).thenReturn(movements);
+
+        // Act
+        CursorPageDTO<StockMovementResponseDTO> page = stockMovementService.getStockMovementsByCursor(null, 10, null, null,
+                CursorPageDTO.CountMode.NONE);
+
+        // Assert
+        assertEquals(10, page.getContent().size());
+        assertEquals("alice", page.getContent().get(1).getCreatedByUsername());
+        verify(appUserRepository, times(1)).findAllById(Set.of(10L, 11L));
+        verify(appUserRepository, never()).findById(anyLong());
+    }
+
+    private StockMovement movement(Long id, Long createdBy) {
+        Product product = new Product();
+        product.setId(1L);
+        product.setTitle("Product");
+        StockMovement movement = new StockMovement();
+        movement.setId(id);
+        movement.setProduct(product);
+        movement.setMovementType(StockMovement.MovementType.OUT);
+        movement.setQuantity(1);
+        movement.setCreatedBy(createdBy);
+        movement.setCreatedAt(LocalDateTime.now().minusMinutes(id));
+        return movement;
+    }
+
+    private AppUser user(Long id, String username) {
+        AppUser user = new AppUser();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+}
@@ -0,0 +1,216 @@
+package dev.oasis.stockify.service;
+
+import dev.oasis.stockify.dto.InventoryPositionDTO;
+import dev.oasis.stockify.dto.InventoryValuationDTO;
+import dev.oasis.stockify.repository.ProductRepository;
+import dev.oasis.stockify.util.ServiceTenantUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Point-in-time inventory replay and snapshot thinning on a local Postgres.
+ * Runs only when STOCKIFY_BENCH_URL is set, e.g. jdbc:postgresql://localhost:5432/stockify
+ */
+@EnabledIfEnvironmentVariable(named = "STOCKIFY_BENCH_URL", matches = "jdbc:postgresql:.*")
+public class StockSnapshotServiceTest {
+
+    private static final String SCHEMA = "snapshot_check";
+    private static final String THINNING_SCHEMA = "snapshot_thinning_check";
+    private static final long RECENT = 1;
+    private static final long ARCHIVED = 2;
+    private static final long DELETED = 3;
+
+    @TempDir
+    static Path archiveDir;
+
+    private static DriverManagerDataSource dataSource;
+    private static LocalDateTime now;
+    private static LocalDate archivedMonth;
+    private static StockSnapshotService service;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        dataSource = new DriverManagerDataSource(System.getenv("STOCKIFY_BENCH_URL"),
+                System.getenv().getOrDefault("STOCKIFY_BENCH_USER", "postgres"),
+                System.getenv().getOrDefault("STOCKIFY_BENCH_PASSWORD", "postgres"));
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        archivedMonth = now.toLocalDate().minusMonths(4).withDayOfMonth(1);
+
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            for (String schema : new String[] { SCHEMA, THINNING_SCHEMA }) {
+                stmt.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+                stmt.execute("CREATE SCHEMA " + schema);
+            }
+        }
+
+        ServiceTenantUtil serviceTenantUtil = Mockito.mock(ServiceTenantUtil.class);
+        when(serviceTenantUtil.getCurrentTenant()).thenReturn(SCHEMA);
+        ProductRepository productRepository = Mockito.mock(ProductRepository.class);
+        when(productRepository.findAllById(any())).thenReturn(List.of());
+        MovementArchiveService archiveService = new MovementArchiveService(dataSource, null, productRepository, null, null, serviceTenantUtil);
+        ReflectionTestUtils.setField(archiveService, "archiveDir", archiveDir.toString());
+        service = new StockSnapshotService(dataSource, null, archiveService, serviceTenantUtil);
+        ReflectionTestUtils.setField(service, "dailyRetentionDays", 90);
+
+        DatabaseInitializationService initializationService = new DatabaseInitializationService(dataSource, null, null, null, null);
+        for (String schema : new String[] { SCHEMA, THINNING_SCHEMA }) {
+            initializationService.createTablesInSchema(schema);
+            service.ensureSnapshotTable(schema);
+        }
+        new StockMovementPartitionService(dataSource, null).ensurePartitions(SCHEMA, archivedMonth.minusMonths(2));
+        archiveService.ensureArchiveTables(SCHEMA);
+
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO " + SCHEMA + ".product (id, title, sku, price, stock_level, low_stock_threshold, created_at) VALUES " +
+                    "(" + RECENT + ", 'Recent', 'SKU-R', 2.00, 50, 5, now() - interval '1 year'), " +
+                    "(" + ARCHIVED + ", 'Archived', 'SKU-A', 3.00, 6, 5, now() - interval '1 year')");
+        }
+
+        // recent product: 100 at the snapshot ten days ago, then 90, 70 and 50 today
+        snapshot(now.minusDays(10), RECENT, 100, "Recent");
+        movement(RECENT, 100, 90, now.minusDays(9));
+        movement(RECENT, 90, 70, now.minusDays(8));
+        movement(RECENT, 70, 50, now.minusDays(1));
+
+        // archived product: 10 at a snapshot before the archived month, 8 and then 6 within it
+        snapshot(archivedMonth.minusDays(10).atStartOfDay(), ARCHIVED, 10, "Archived");
+        movement(ARCHIVED, 10, 8, archivedMonth.plusDays(4).atStartOfDay());
+        movement(ARCHIVED, 8, 6, archivedMonth.plusDays(10).atStartOfDay());
+        assertTrue((Long) ReflectionTestUtils.invokeMethod(archiveService, "archiveMonth", SCHEMA, archivedMonth) > 0);
+
+        // deleted product: only the snapshot ten days ago still knows it
+        snapshot(now.minusDays(10), DELETED, 5, "Gone");
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            stmt.execute("DROP SCHEMA IF EXISTS " + THINNING_SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void getInventoryAt_whenEarlierSnapshotIsCloser_shouldReplayForward() {
+        // Act
+        InventoryValuationDTO inventory = service.getInventoryAt(now.minusDays(8).plusHours(1));
+
+        // Assert
+        assertEquals(now.minusDays(10), inventory.getSnapshotAt());
+        assertEquals(70, position(inventory, RECENT).getStockLevel());
+    }
+
+    @Test
+    void getInventoryAt_whenLiveStockIsCloser_shouldReplayBackward() {
+        // Act
+        InventoryValuationDTO inventory = service.getInventoryAt(now.minusDays(2));
+
+        // Assert - the first movement after asOf started from 70
+        assertNull(inventory.getSnapshotAt());
+        assertEquals(70, position(inventory, RECENT).getStockLevel());
+    }
+
+    @Test
+    void getInventoryAt_whenMovementsAreArchived_shouldReplayFromArchive() {
+        // Act
+        InventoryValuationDTO inventory = service.getInventoryAt(archivedMonth.plusDays(7).atTime(12, 0));
+
+        // Assert
+        assertEquals(8, position(inventory, ARCHIVED).getStockLevel());
+    }
+
+    @Test
+    void getInventoryAt_whenProductWasDeleted_shouldKeepItFromSnapshot() {
+        // Act
+        InventoryValuationDTO inventory = service.getInventoryAt(now.minusDays(9).plusHours(1));
+
+        // Assert
+        InventoryPositionDTO deleted = position(inventory, DELETED);
+        assertTrue(deleted.isDeleted());
+        assertEquals("Gone", deleted.getTitle());
+        assertEquals(5, deleted.getStockLevel());
+        assertFalse(position(inventory, RECENT).isDeleted());
+    }
+
+    @Test
+    void takeSnapshot_whenDailySnapshotsAgeOut_shouldKeepFirstOfEachMonth() throws SQLException {
+        // Arrange - one snapshot a day for the last 200 days
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO " + THINNING_SCHEMA + ".stock_snapshot (snapshot_at, product_id, stock_level) " +
+                    "SELECT date_trunc('day', now()) - (g * interval '1 day'), 1, 1 FROM generate_series(1, 200) g");
+        }
+        LocalDateTime retentionStart = now.minusDays(90);
+
+        // Act
+        service.takeSnapshot(THINNING_SCHEMA);
+
+        // Assert
+        long olderPerMonth = queryLong("SELECT max(n) FROM (SELECT count(*) AS n FROM " + THINNING_SCHEMA + ".stock_snapshot " +
+                "WHERE snapshot_at < '" + Timestamp.valueOf(retentionStart) + "' GROUP BY date_trunc('month', snapshot_at)) per_month");
+        long recent = queryLong("SELECT count(DISTINCT snapshot_at) FROM " + THINNING_SCHEMA + ".stock_snapshot " +
+                "WHERE snapshot_at >= '" + Timestamp.valueOf(retentionStart) + "'");
+        assertEquals(1, olderPerMonth);
+        assertTrue(recent >= 89, "Daily snapshots inside the retention window must stay, found " + recent);
+    }
+
+    private InventoryPositionDTO position(InventoryValuationDTO inventory, long productId) {
+        return inventory.getPositions().stream()
+                .filter(p -> p.getProductId() == productId)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No position for product " + productId));
+    }
+
+    private static void snapshot(LocalDateTime at, long productId, int stock, String title) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO " + SCHEMA + ".stock_snapshot (snapshot_at, product_id, stock_level, unit_price, title, product_created_at) " +
+                "VALUES (?, ?, ?, 1.00, ?, now() - interval '1 year')")) {
+            ps.setTimestamp(1, Timestamp.valueOf(at));
+            ps.setLong(2, productId);
+            ps.setInt(3, stock);
+            ps.setString(4, title);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void movement(long productId, int previousStock, int newStock, LocalDateTime at) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO " + SCHEMA + ".stock_movement (product_id, movement_type, quantity, previous_stock, new_stock, created_at) " +
+                "VALUES (?, 'OUT', ?, ?, ?, ?)")) {
+            ps.setLong(1, productId);
+            ps.setInt(2, newStock - previousStock);
+            ps.setInt(3, previousStock);
+            ps.setInt(4, newStock);
+            ps.setTimestamp(5, Timestamp.valueOf(at));
+            ps.executeUpdate();
+        }
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+}
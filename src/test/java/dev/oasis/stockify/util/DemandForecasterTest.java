@@ -0,0 +1,75 @@
+package dev.oasis.stockify.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DemandForecasterTest {
+
+    @Test
+    void fit_whenUsageHasWeeklyPattern_shouldChooseSeasonalModel() {
+        // Arrange - 10 units on weekdays 0-4, nothing on 5-6, for twelve weeks
+        int[] series = new int[84];
+        for (int i = 0; i < series.length; i++) {
+            series[i] = i % 7 < 5 ? 10 : 0;
+        }
+
+        // Act
+        DemandForecaster.Forecast forecast = DemandForecaster.fit(series, 0, series.length);
+
+        // Assert
+        assertEquals("SEASONAL", forecast.getModel());
+        assertEquals(50.0 / 7, forecast.getDailyUsage(), 0.5);
+        assertTrue(forecast.getNextWeek()[0] > 8.0);
+        assertTrue(forecast.getNextWeek()[5] < 2.0);
+        assertEquals(7, forecast.daysRemaining(50));
+    }
+
+    @Test
+    void fit_whenHistoryIsShort_shouldUseExponentialSmoothing() {
+        // Arrange
+        int[] series = { 0, 0, 4, 4, 4, 4, 4, 4, 4, 4 };
+
+        // Act
+        DemandForecaster.Forecast forecast = DemandForecaster.fit(series, 2, 8);
+
+        // Assert
+        assertEquals("SES", forecast.getModel());
+        assertEquals(4.0, forecast.getDailyUsage(), 1e-9);
+        assertEquals(25, forecast.daysRemaining(100));
+        assertEquals("HIGH", DemandForecaster.riskLevel(100, forecast.daysRemaining(100)));
+    }
+
+    @Test
+    void reorderPoint_shouldAddSafetyStockForForecastError() {
+        // Arrange - alternating 2 and 6 units, 4 a day on average
+        int[] series = new int[14];
+        for (int i = 0; i < series.length; i++) {
+            series[i] = i % 2 == 0 ? 2 : 6;
+        }
+        DemandForecaster.Forecast forecast = DemandForecaster.fit(series, 0, series.length);
+
+        // Act
+        int safetyStock = forecast.safetyStock(1.65, 9);
+        int reorderPoint = forecast.reorderPoint(1.65, 9);
+
+        // Assert
+        assertTrue(forecast.getDailyError() > 1.0);
+        assertTrue(safetyStock > 0);
+        assertEquals((int) Math.ceil(forecast.getDailyUsage() * 9) + safetyStock, reorderPoint);
+        assertEquals(0, forecast.reorderQuantity(1000, 1.65, 9, 30));
+        assertEquals(reorderPoint + (int) Math.ceil(forecast.getDailyUsage() * 30) - 10, forecast.reorderQuantity(10, 1.65, 9, 30));
+    }
+
+    @Test
+    void fit_whenThereIsNoUsage_shouldReportNoDepletion() {
+        // Act
+        DemandForecaster.Forecast forecast = DemandForecaster.fit(new int[30], 0, 30);
+
+        // Assert
+        assertEquals("NONE", forecast.getModel());
+        assertNull(forecast.daysRemaining(10));
+        assertEquals("LOW", DemandForecaster.riskLevel(10, null));
+        assertEquals("CRITICAL", DemandForecaster.riskLevel(0, forecast.daysRemaining(0)));
+    }
+}
@@ -0,0 +1,39 @@
+package dev.oasis.stockify.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeysetCursorTest {
+
+    @Test
+    void decode_whenTokenWasEncoded_shouldReturnSamePosition() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 15, 10, 30, 45, 123456000);
+        String token = new KeysetCursor(createdAt, 4711L).encode();
+
+        // Act
+        KeysetCursor result = KeysetCursor.decode(token);
+
+        // Assert
+        assertEquals(createdAt, result.getCreatedAt());
+        assertEquals(4711L, result.getId());
+    }
+
+    @Test
+    void encode_shouldBeUrlSafe() {
+        // Act
+        String token = new KeysetCursor(LocalDateTime.of(2024, 1, 1, 0, 0), 1L).encode();
+
+        // Assert
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void decode_whenTokenIsMalformed_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("djF8Zm9vfGJhcg"));
+    }
+}
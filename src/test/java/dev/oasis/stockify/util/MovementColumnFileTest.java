@@ -0,0 +1,64 @@
+package dev.oasis.stockify.util;
+
+import dev.oasis.stockify.model.StockMovement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovementColumnFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void reader_whenFileSpansSeveralRowGroups_shouldReturnEveryRowInOrder() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("2024-03-1.smc.gz");
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 8, 0, 0, 123456000);
+        int rows = MovementColumnFile.ROW_GROUP_SIZE * 2 + 17;
+        try (MovementColumnFile.Writer writer = MovementColumnFile.writer(file)) {
+            for (int i = 0; i < rows; i++) {
+                writer.write(1000L + i * 50L, 1 + i % 40, i % 2 == 0 ? StockMovement.MovementType.OUT : StockMovement.MovementType.IN,
+                        i % 2 == 0 ? -(i % 7) : i % 7, 100, 100 + (i % 2 == 0 ? -(i % 7) : i % 7),
+                        start.plusSeconds(i * 90L), i % 3 == 0 ? null : 7L, "REF-" + i, i % 5 == 0 ? "Satış ürünü" : null);
+            }
+        }
+
+        // Act
+        List<StockMovement> result = new ArrayList<>();
+        try (MovementColumnFile.Reader reader = MovementColumnFile.reader(file)) {
+            for (List<StockMovement> group = reader.nextGroup(); !group.isEmpty(); group = reader.nextGroup()) {
+                result.addAll(group);
+            }
+        }
+
+        // Assert
+        assertEquals(rows, result.size());
+        StockMovement first = result.get(0);
+        assertEquals(1000L, first.getId());
+        assertEquals(1L, first.getProduct().getId());
+        assertEquals(StockMovement.MovementType.OUT, first.getMovementType());
+        assertEquals(start, first.getCreatedAt());
+        assertNull(first.getCreatedBy());
+        assertEquals("Satış ürünü", first.getNotes());
+
+        StockMovement last = result.get(rows - 1);
+        assertEquals(1000L + (rows - 1) * 50L, last.getId());
+        assertEquals(start.plusSeconds((rows - 1) * 90L), last.getCreatedAt());
+        assertEquals("REF-" + (rows - 1), last.getReferenceId());
+        assertEquals(7L, result.get(1).getCreatedBy());
+        assertEquals(-(2 % 7), result.get(2).getQuantity());
+    }
+
+    @Test
+    void reader_whenFileIsNotAnArchive_shouldThrowIOException() {
+        assertThrows(IOException.class, () -> MovementColumnFile.reader(tempDir.resolve("missing.smc.gz")));
+    }
+}